@@ -3,6 +3,7 @@ plugins {
     jacoco
     id("org.springframework.boot") version "3.3.3"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "id.ac.ui.cs.advprog.papikos"
@@ -45,7 +46,7 @@ dependencies {
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     developmentOnly("org.springframework.boot:spring-boot-docker-compose")
     runtimeOnly("io.micrometer:micrometer-registry-prometheus")
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.postgresql:postgresql")
     annotationProcessor("org.projectlombok:lombok")
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("org.springframework.amqp:spring-rabbit-test")
@@ -57,12 +58,19 @@ dependencies {
     testImplementation("io.github.bonigarcia:webdrivermanager:$webdrivermanagerVersion")
     testImplementation("org.junit.jupiter:junit-jupiter:$junitJupiterVersion")
     testImplementation("com.h2database:h2")
+    testImplementation("org.springframework.boot:spring-boot-testcontainers")
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
 
     implementation("jakarta.validation:jakarta.validation-api:3.0.2")
     implementation("org.hibernate.validator:hibernate-validator:8.0.1.Final")
     implementation("org.springframework.boot:spring-boot-starter-validation")
 
     implementation("org.springframework.cloud:spring-cloud-starter-openfeign")
+    implementation("io.github.openfeign:feign-hc5")
+    implementation("io.github.openfeign:feign-micrometer")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("io.github.resilience4j:resilience4j-spring-boot3:2.2.0")
 
     implementation ("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
 }
@@ -97,6 +105,14 @@ tasks.test{
     finalizedBy(tasks.jacocoTestReport)
 }
 
+jmh {
+    // Allocation per operation next to the timings
+    profilers.add("gc")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+}
+
 tasks.jacocoTestReport {
     dependsOn(tasks.test)
     reports {
@@ -0,0 +1,65 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the message text for a 500-recipient fan-out chunk: formatting it per recipient with
+ * {@link String#format}, rendering a compiled template per recipient, and rendering once and sharing it.
+ * Run with {@code ./gradlew jmh}; the gc profiler reports bytes allocated per chunk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NotificationTemplateBenchmark {
+
+    private static final int CHUNK_SIZE = 500; // Same as notification.fanout.chunk-size
+    private static final String SUPPLIED = "A room is now available at %s! Book before it is gone.";
+
+    private NotificationTemplates templates;
+    private Map<String, String> values;
+    private String propertyName;
+
+    @Setup
+    public void setUp() {
+        templates = new NotificationTemplates();
+        propertyName = "Kos Melati Depok";
+        values = Map.of(NotificationTemplates.PROPERTY_NAME, propertyName);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_SIZE)
+    public void formatPerRecipient(Blackhole blackhole) {
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            blackhole.consume(SUPPLIED.contains("%s") ? String.format(SUPPLIED, propertyName) : SUPPLIED);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_SIZE)
+    public void renderPerRecipient(Blackhole blackhole) {
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            blackhole.consume(templates.message(NotificationType.WISHLIST_VACANCY, SUPPLIED, values));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK_SIZE)
+    public void renderOncePerFanOut(Blackhole blackhole) {
+        String message = templates.message(NotificationType.WISHLIST_VACANCY, SUPPLIED, values);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            blackhole.consume(message);
+        }
+    }
+}
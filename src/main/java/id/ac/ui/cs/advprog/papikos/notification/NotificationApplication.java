@@ -5,9 +5,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "id.ac.ui.cs.advprog.papikos.notification")
 @EnableAsync
+@EnableScheduling
 @EnableJpaAuditing
 @EnableFeignClients(basePackages = "id.ac.ui.cs.advprog.papikos.notification.client")
 public class NotificationApplication {
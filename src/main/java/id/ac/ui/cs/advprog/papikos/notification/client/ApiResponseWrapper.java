@@ -14,4 +14,13 @@ public class ApiResponseWrapper<T> {
     private String message;
     private T data;
     private long timestamp;
+
+    public static <T> ApiResponseWrapper<T> of(int status, String message, T data) {
+        ApiResponseWrapper<T> wrapper = new ApiResponseWrapper<>();
+        wrapper.setStatus(status);
+        wrapper.setMessage(message);
+        wrapper.setData(data);
+        wrapper.setTimestamp(System.currentTimeMillis());
+        return wrapper;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker, bulkhead and retry budget around the calls to one downstream service.
+ * The bulkhead caps how many calls may be outstanding at once, so a slow service cannot tie up every thread,
+ * and an open breaker fails calls immediately with {@link CallNotPermittedException} ({@link BulkheadFullException}
+ * when the bulkhead is full), which callers map to their "service unavailable" fallback.
+ * Instances are configured through the {@code resilience4j.*} properties, keyed by client name.
+ */
+public class DownstreamGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(DownstreamGuard.class);
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+
+    public DownstreamGuard(CircuitBreaker circuitBreaker, Bulkhead bulkhead, Retry retry) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retry = retry;
+        circuitBreaker.getEventPublisher().onStateTransition(event -> log.warn("Circuit breaker '{}' changed state: {}",
+                event.getCircuitBreakerName(), event.getStateTransition()));
+    }
+
+    /**
+     * Runs the call on the current thread. Retries wrap the breaker, so every attempt is recorded
+     * and no retry is made once the breaker has opened.
+     */
+    public <T> T call(Supplier<T> call) {
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead, call);
+        guarded = CircuitBreaker.decorateSupplier(circuitBreaker, guarded);
+        return Retry.decorateSupplier(retry, guarded).get();
+    }
+}
@@ -0,0 +1,269 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * DataLoader-style front for {@link KosServiceClient}.
+ * Lookups queued within a short window (or handed over together through {@link #loadMany}) are
+ * dispatched as one multi-ID call. Deployments of the Kos service without the batch endpoint are
+ * detected from the error status, after which lookups are sent as parallel single calls.
+ * Every ID still gets its own response wrapper, so callers keep their per-ID error handling.
+ * An ID that is already queued or in flight is not requested again; callers share the outstanding lookup.
+ * Every outgoing call goes through the Kos {@link DownstreamGuard}.
+ */
+@Component
+public class KosDetailsBatchLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(KosDetailsBatchLoader.class);
+
+    // Statuses meaning "this Kos service has no batch endpoint" rather than "the lookup failed"
+    private static final Set<Integer> BATCH_UNSUPPORTED_STATUSES = Set.of(
+            HttpStatus.BAD_REQUEST.value(),
+            HttpStatus.NOT_FOUND.value(),
+            HttpStatus.METHOD_NOT_ALLOWED.value(),
+            HttpStatus.NOT_IMPLEMENTED.value());
+
+    private final KosServiceClient kosServiceClient;
+    private final ExecutorService kosLookupExecutor;
+    private final SingleFlight<UUID, ApiResponseWrapper<KosDetailsDto>> kosSingleFlight;
+    private final DownstreamGuard kosGuard;
+    private final ScheduledExecutorService dispatchScheduler;
+    private final DistributionSummary batchSizes;
+    private final DistributionSummary singleCalls;
+    private final Counter batchFallbacks;
+
+    private final boolean batchEnabled;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final long reprobeIntervalMs;
+
+    private final Object queueLock = new Object();
+    private Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> queued = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledDispatch;
+    private volatile long batchUnsupportedUntil;
+
+    public KosDetailsBatchLoader(KosServiceClient kosServiceClient,
+                                 @Qualifier("kosLookupExecutor") ExecutorService kosLookupExecutor,
+                                 SingleFlight<UUID, ApiResponseWrapper<KosDetailsDto>> kosSingleFlight,
+                                 @Qualifier("kosGuard") DownstreamGuard kosGuard,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${kos.batch.enabled:true}") boolean batchEnabled,
+                                 @Value("${kos.batch.window-ms:5}") long windowMs,
+                                 @Value("${kos.batch.max-size:50}") int maxBatchSize,
+                                 @Value("${kos.batch.reprobe-interval-ms:600000}") long reprobeIntervalMs) {
+        this.kosServiceClient = kosServiceClient;
+        this.kosLookupExecutor = kosLookupExecutor;
+        this.kosSingleFlight = kosSingleFlight;
+        this.kosGuard = kosGuard;
+        this.batchEnabled = batchEnabled;
+        this.windowMs = windowMs;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.reprobeIntervalMs = reprobeIntervalMs;
+        this.dispatchScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("kos-batch-dispatch").daemon().factory());
+        this.batchSizes = DistributionSummary.builder("kos.lookup.batch.size")
+                .description("Number of Kos IDs resolved per outgoing call")
+                .tag("strategy", "batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.singleCalls = DistributionSummary.builder("kos.lookup.batch.size")
+                .description("Number of Kos IDs resolved per outgoing call")
+                .tag("strategy", "single")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchFallbacks = Counter.builder("kos.lookup.batch.fallback")
+                .description("Batches sent as parallel single calls because the batch endpoint is unavailable")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatchScheduler.shutdownNow();
+    }
+
+    /**
+     * Queues a lookup for one Kos; it is sent together with whatever else arrives within the batch window.
+     */
+    public CompletableFuture<ApiResponseWrapper<KosDetailsDto>> load(UUID kosId) {
+        return enqueue(List.of(kosId), false).get(kosId);
+    }
+
+    /**
+     * Queues lookups for several Kos and dispatches them straight away, without waiting for the batch window.
+     */
+    public Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> loadMany(Collection<UUID> kosIds) {
+        if (kosIds.isEmpty()) {
+            return Map.of();
+        }
+        return enqueue(kosIds, true);
+    }
+
+    /**
+     * Blocks for a queued lookup, rethrowing the original exception (typically a {@link FeignException}).
+     */
+    public static <T> T await(CompletableFuture<T> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Kos lookup was cancelled", e);
+        }
+    }
+
+    private Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> enqueue(Collection<UUID> kosIds, boolean dispatchNow) {
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> futures = new LinkedHashMap<>();
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> toDispatch = null;
+        synchronized (queueLock) {
+            for (UUID kosId : kosIds) {
+                futures.put(kosId, kosSingleFlight.execute(kosId,
+                        id -> queued.computeIfAbsent(id, queuedId -> new CompletableFuture<>())));
+            }
+            if (dispatchNow || queued.size() >= maxBatchSize) {
+                toDispatch = drainQueue();
+            } else if (scheduledDispatch == null) {
+                scheduledDispatch = dispatchScheduler.schedule(this::dispatchQueued, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (toDispatch != null) {
+            dispatch(toDispatch);
+        }
+        return futures;
+    }
+
+    private void dispatchQueued() {
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> toDispatch;
+        synchronized (queueLock) {
+            toDispatch = drainQueue();
+        }
+        dispatch(toDispatch);
+    }
+
+    // Must hold queueLock
+    private Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> drainQueue() {
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> drained = queued;
+        queued = new LinkedHashMap<>();
+        if (scheduledDispatch != null) {
+            scheduledDispatch.cancel(false);
+            scheduledDispatch = null;
+        }
+        return drained;
+    }
+
+    private void dispatch(Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> batch) {
+        List<Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>>> chunks = new ArrayList<>();
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> chunk = new LinkedHashMap<>();
+        for (Map.Entry<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> entry : batch.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() == maxBatchSize) {
+                chunks.add(chunk);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        for (Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> c : chunks) {
+            if (c.size() == 1 || !batchAvailable()) {
+                if (c.size() > 1) {
+                    batchFallbacks.increment();
+                }
+                c.forEach((kosId, future) -> kosLookupExecutor.execute(() -> fetchSingle(kosId, future)));
+            } else {
+                kosLookupExecutor.execute(() -> fetchBatch(c));
+            }
+        }
+    }
+
+    private boolean batchAvailable() {
+        return batchEnabled && System.currentTimeMillis() >= batchUnsupportedUntil;
+    }
+
+    private void fetchSingle(UUID kosId, CompletableFuture<ApiResponseWrapper<KosDetailsDto>> future) {
+        singleCalls.record(1);
+        try {
+            future.complete(kosGuard.call(() -> kosServiceClient.getKosDetailsApiResponse(kosId)));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void fetchBatch(Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> chunk) {
+        ApiResponseWrapper<List<KosDetailsDto>> response;
+        try {
+            response = kosGuard.call(() -> kosServiceClient.getKosDetailsBatch(new ArrayList<>(chunk.keySet())));
+        } catch (FeignException e) {
+            if (BATCH_UNSUPPORTED_STATUSES.contains(e.status())) {
+                markBatchUnsupported(e.status());
+                batchFallbacks.increment();
+                chunk.forEach((kosId, future) -> kosLookupExecutor.execute(() -> fetchSingle(kosId, future)));
+            } else {
+                chunk.values().forEach(future -> future.completeExceptionally(e));
+            }
+            return;
+        } catch (RuntimeException e) {
+            chunk.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+        batchSizes.record(chunk.size());
+
+        if (response == null) {
+            chunk.values().forEach(future -> future.complete(null));
+            return;
+        }
+        if (response.getStatus() != HttpStatus.OK.value() || response.getData() == null) {
+            chunk.values().forEach(future -> future.complete(
+                    ApiResponseWrapper.of(response.getStatus(), response.getMessage(), null)));
+            return;
+        }
+
+        Map<UUID, KosDetailsDto> found = response.getData().stream()
+                .filter(kos -> kos != null && kos.getId() != null)
+                .collect(Collectors.toMap(KosDetailsDto::getId, Function.identity(), (first, second) -> first));
+        chunk.forEach((kosId, future) -> {
+            KosDetailsDto kos = found.get(kosId);
+            future.complete(kos != null
+                    ? ApiResponseWrapper.of(HttpStatus.OK.value(), response.getMessage(), kos)
+                    : ApiResponseWrapper.<KosDetailsDto>of(HttpStatus.NOT_FOUND.value(), "Kos not found in batch response", null));
+        });
+    }
+
+    private void markBatchUnsupported(int status) {
+        if (System.currentTimeMillis() >= batchUnsupportedUntil) {
+            log.warn("Kos service rejected the batch endpoint with status {}; using parallel single lookups for the next {} ms",
+                    status, reprobeIntervalMs);
+        }
+        batchUnsupportedUntil = System.currentTimeMillis() + reprobeIntervalMs;
+    }
+}
@@ -0,0 +1,296 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Bounded in-process cache of {@link KosDetailsDto} in front of {@link KosDetailsBatchLoader}.
+ * Entries older than the refresh interval are still served while a background reload runs,
+ * and once the Kos service fails the last successfully fetched details are used instead.
+ * Not-found results and downstream failures are remembered briefly per ID, so repeated lookups
+ * of a deleted property, or of any property while the Kos service is down, do not go over the network.
+ * Exposes the same per-ID response API as the batch loader, so callers do not need to know about it.
+ * Lookups that fail still complete normally inside the cache, as an outcome that expires at once,
+ * so an outage or a deleted property is not logged by Caffeine with a stack trace per entry.
+ */
+@Component
+public class KosDetailsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(KosDetailsCache.class);
+
+    private final KosDetailsBatchLoader kosDetailsBatchLoader;
+    private final AsyncLoadingCache<UUID, KosLookup> cache;
+    // Outlives the main cache so a Kos outage does not turn every expired entry into a placeholder
+    private final Cache<UUID, KosDetailsDto> lastKnown;
+    private final Cache<UUID, Boolean> notFound;
+    private final Cache<UUID, KosLookup> failureBackoff;
+    private final Counter lastKnownFallbacks;
+    private final Counter notFoundHits;
+    private final Counter failureBackoffHits;
+
+    public KosDetailsCache(KosDetailsBatchLoader kosDetailsBatchLoader,
+                           @Qualifier("kosLookupExecutor") ExecutorService kosLookupExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${kos.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${kos.cache.refresh-after-ms:60000}") long refreshAfterMs,
+                           @Value("${kos.cache.expire-after-ms:600000}") long expireAfterMs,
+                           @Value("${kos.cache.last-known-expire-after-ms:86400000}") long lastKnownExpireAfterMs,
+                           @Value("${kos.cache.not-found-ttl-ms:60000}") long notFoundTtlMs,
+                           @Value("${kos.cache.failure-backoff-ms:5000}") long failureBackoffMs) {
+        this.kosDetailsBatchLoader = kosDetailsBatchLoader;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofMillis(refreshAfterMs))
+                .expireAfter(new SuccessfulLookupExpiry(Duration.ofMillis(expireAfterMs).toNanos()))
+                .executor(kosLookupExecutor)
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<UUID, KosLookup>() {
+                    @Override
+                    public CompletableFuture<KosLookup> asyncLoad(UUID kosId, Executor executor) {
+                        return fetch(kosId);
+                    }
+
+                    // A failed background refresh drops the entry; readers then get the remembered outcome, including the last known details
+                    @Override
+                    public CompletableFuture<KosLookup> asyncReload(UUID kosId, KosLookup oldValue, Executor executor) {
+                        return fetch(kosId).thenApply(reloaded -> {
+                            if (reloaded.succeeded()) {
+                                return reloaded;
+                            }
+                            log.debug("Refresh of Kos ID {} failed: {}", kosId, reloaded.describe());
+                            remember(kosId, reloaded);
+                            return null;
+                        });
+                    }
+                });
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(lastKnownExpireAfterMs))
+                .build();
+        this.notFound = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(notFoundTtlMs))
+                .build();
+        this.failureBackoff = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(failureBackoffMs))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "kos.details");
+        this.lastKnownFallbacks = Counter.builder("kos.details.cache.last-known")
+                .description("Kos lookups answered from the last known details because the Kos service failed")
+                .register(meterRegistry);
+        this.notFoundHits = Counter.builder("kos.details.cache.negative")
+                .description("Kos lookups answered from a remembered not-found or failure result")
+                .tag("result", "not-found")
+                .register(meterRegistry);
+        this.failureBackoffHits = Counter.builder("kos.details.cache.negative")
+                .description("Kos lookups answered from a remembered not-found or failure result")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<ApiResponseWrapper<KosDetailsDto>> load(UUID kosId) {
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> remembered = rememberedOutcome(kosId);
+        return remembered != null ? remembered : cache.get(kosId).thenApply(lookup -> toResponse(kosId, lookup));
+    }
+
+    /**
+     * Serves cached IDs directly and sends all misses to the batch loader together.
+     */
+    public Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> loadMany(Collection<UUID> kosIds) {
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> responses = new LinkedHashMap<>();
+        Map<UUID, CompletableFuture<KosLookup>> lookups = new LinkedHashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID kosId : kosIds) {
+            CompletableFuture<ApiResponseWrapper<KosDetailsDto>> remembered = rememberedOutcome(kosId);
+            if (remembered != null) {
+                responses.put(kosId, remembered);
+                continue;
+            }
+            CompletableFuture<KosLookup> cached = cache.getIfPresent(kosId);
+            lookups.put(kosId, cached);
+            if (cached == null) {
+                misses.add(kosId);
+            }
+        }
+        kosDetailsBatchLoader.loadMany(misses).forEach((kosId, response) -> {
+            CompletableFuture<KosLookup> loaded = settle(kosId, response);
+            cache.put(kosId, loaded);
+            lookups.put(kosId, loaded);
+        });
+
+        lookups.forEach((kosId, pending) -> responses.put(kosId, pending.thenApply(lookup -> toResponse(kosId, lookup))));
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> ordered = new LinkedHashMap<>();
+        for (UUID kosId : kosIds) {
+            ordered.put(kosId, responses.get(kosId));
+        }
+        return ordered;
+    }
+
+    public void invalidate(UUID kosId) {
+        cache.synchronous().invalidate(kosId);
+        lastKnown.invalidate(kosId);
+        notFound.invalidate(kosId);
+        failureBackoff.invalidate(kosId);
+    }
+
+    /**
+     * Fetches the details again, ignoring anything cached or remembered for this ID, and caches the result.
+     * Used when the Kos service announces an edit, so the caller sees the edited details.
+     */
+    public CompletableFuture<ApiResponseWrapper<KosDetailsDto>> reload(UUID kosId) {
+        notFound.invalidate(kosId);
+        failureBackoff.invalidate(kosId);
+        CompletableFuture<KosLookup> reloaded = fetch(kosId);
+        cache.put(kosId, reloaded);
+        return reloaded.thenApply(lookup -> toResponse(kosId, lookup));
+    }
+
+    /**
+     * @return the remembered not-found or failure outcome for this ID, or null if it should be looked up normally
+     */
+    private CompletableFuture<ApiResponseWrapper<KosDetailsDto>> rememberedOutcome(UUID kosId) {
+        if (notFound.getIfPresent(kosId) != null) {
+            notFoundHits.increment();
+            return CompletableFuture.completedFuture(ApiResponseWrapper.of(
+                    HttpStatus.NOT_FOUND.value(), "Kos not found (cached)", null));
+        }
+        KosLookup failure = failureBackoff.getIfPresent(kosId);
+        if (failure == null) {
+            return null;
+        }
+        failureBackoffHits.increment();
+        KosDetailsDto fallback = lastKnown.getIfPresent(kosId);
+        if (fallback != null) {
+            lastKnownFallbacks.increment();
+            return CompletableFuture.completedFuture(ApiResponseWrapper.of(HttpStatus.OK.value(), "Last known details", fallback));
+        }
+        return failure.error() == null
+                ? CompletableFuture.completedFuture(failure.response())
+                : CompletableFuture.failedFuture(failure.error());
+    }
+
+    private CompletableFuture<KosLookup> fetch(UUID kosId) {
+        return settle(kosId, kosDetailsBatchLoader.load(kosId));
+    }
+
+    // Never completes exceptionally: Caffeine logs every failed load, and these failures are expected
+    private CompletableFuture<KosLookup> settle(UUID kosId, CompletableFuture<ApiResponseWrapper<KosDetailsDto>> response) {
+        return response.handle((result, error) -> {
+            if (error != null) {
+                return new KosLookup(null, null, error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+            if (result != null && result.getStatus() == HttpStatus.OK.value() && result.getData() != null) {
+                lastKnown.put(kosId, result.getData());
+                failureBackoff.invalidate(kosId);
+                return new KosLookup(result.getData(), result, null);
+            }
+            return new KosLookup(null, result, null);
+        });
+    }
+
+    private ApiResponseWrapper<KosDetailsDto> toResponse(UUID kosId, KosLookup lookup) {
+        if (lookup.succeeded()) {
+            return ApiResponseWrapper.of(HttpStatus.OK.value(), "Success", lookup.details());
+        }
+        remember(kosId, lookup);
+        if (lookup.failed()) {
+            KosDetailsDto fallback = lastKnown.getIfPresent(kosId);
+            if (fallback != null) {
+                log.warn("Kos service failed for Kos ID {} ({}); serving last known details", kosId, lookup.describe());
+                lastKnownFallbacks.increment();
+                return ApiResponseWrapper.of(HttpStatus.OK.value(), "Last known details", fallback);
+            }
+        }
+        if (lookup.error() != null) {
+            throw new CompletionException(lookup.error());
+        }
+        // Only successful lookups are cached; a rejected response is handed back to the caller as is
+        return lookup.response();
+    }
+
+    private void remember(UUID kosId, KosLookup lookup) {
+        if (lookup.notFound()) {
+            lastKnown.invalidate(kosId);
+            notFound.put(kosId, Boolean.TRUE);
+        } else if (lookup.failed()) {
+            failureBackoff.put(kosId, lookup);
+        }
+    }
+
+    /**
+     * Outcome of one Kos lookup: the details, a non-OK response, or the exception the call failed with.
+     */
+    private record KosLookup(KosDetailsDto details, ApiResponseWrapper<KosDetailsDto> response, Throwable error) {
+
+        boolean succeeded() {
+            return details != null;
+        }
+
+        boolean notFound() {
+            return error == null
+                    ? response != null && response.getStatus() == HttpStatus.NOT_FOUND.value()
+                    : error instanceof FeignException feignError && feignError.status() == HttpStatus.NOT_FOUND.value();
+        }
+
+        // A downstream failure rather than an answer about this Kos: worth backing off from and falling back on
+        boolean failed() {
+            return !succeeded() && !notFound()
+                    && (error != null || response == null || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+
+        String describe() {
+            return error != null ? error.toString() : "status " + (response == null ? "none" : response.getStatus());
+        }
+    }
+
+    // Successful lookups live for the configured time; anything else expires at once, so the next lookup goes out again
+    private static class SuccessfulLookupExpiry implements Expiry<UUID, KosLookup> {
+        private final long expireAfterNanos;
+
+        SuccessfulLookupExpiry(long expireAfterNanos) {
+            this.expireAfterNanos = expireAfterNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(UUID kosId, KosLookup lookup, long currentTime) {
+            return lookup.succeeded() ? expireAfterNanos : 0;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID kosId, KosLookup lookup, long currentTime, long currentDuration) {
+            return expireAfterCreate(kosId, lookup, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID kosId, KosLookup lookup, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -4,6 +4,9 @@ import feign.Headers;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(name = "kos-service", url = "${kos.service.url:http://localhost:8081/api/v1}")
@@ -11,4 +14,8 @@ public interface KosServiceClient {
 
     @GetMapping("/{kosId}")
     ApiResponseWrapper<KosDetailsDto> getKosDetailsApiResponse(@PathVariable("kosId") UUID kosId);
-}
\ No newline at end of file
+
+    // Not every Kos service deployment has this; KosDetailsBatchLoader falls back to single lookups when it is missing
+    @GetMapping("/batch")
+    ApiResponseWrapper<List<KosDetailsDto>> getKosDetailsBatch(@RequestParam("ids") List<UUID> kosIds);
+}
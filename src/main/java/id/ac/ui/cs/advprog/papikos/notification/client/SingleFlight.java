@@ -0,0 +1,91 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Registry of outstanding downstream calls keyed by ID.
+ * While a call for a key is in flight, further callers for the same key share its result
+ * instead of issuing their own request; the entry is dropped as soon as the call completes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter suppressed;
+
+    public SingleFlight(String client, MeterRegistry meterRegistry) {
+        this.suppressed = Counter.builder("downstream.singleflight.suppressed")
+                .description("Downstream calls avoided by joining an identical call already in flight")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts {@code call} for the key unless one is already outstanding, in which case its future is returned.
+     */
+    public CompletableFuture<V> execute(K key, Function<K, CompletableFuture<V>> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            suppressed.increment();
+            return existing;
+        }
+        try {
+            call.apply(key).whenComplete((value, error) -> {
+                inFlight.remove(key, mine);
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(value);
+                }
+            });
+        } catch (Throwable e) {
+            // Errors included: waiters already hold this future and must not be left blocked on it
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+        return mine;
+    }
+
+    /**
+     * Blocking variant: the first caller runs {@code call} on its own thread, concurrent callers wait for its result.
+     * Anything thrown by the call, errors included, is rethrown to every waiting caller.
+     */
+    public V executeBlocking(K key, Function<K, V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            suppressed.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            V value = call.apply(key);
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+}
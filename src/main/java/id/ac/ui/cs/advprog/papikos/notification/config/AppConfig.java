@@ -3,10 +3,28 @@ package id.ac.ui.cs.advprog.papikos.notification.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import id.ac.ui.cs.advprog.papikos.notification.client.ApiResponseWrapper;
+import id.ac.ui.cs.advprog.papikos.notification.client.DownstreamGuard;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsDto;
+import id.ac.ui.cs.advprog.papikos.notification.client.RentalDetailsDto;
+import id.ac.ui.cs.advprog.papikos.notification.client.SingleFlight;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class AppConfig {
 
@@ -15,6 +33,47 @@ public class AppConfig {
         return new RestTemplate();
     }
 
+    // Kos lookups are blocking Feign calls, so each one gets its own cheap virtual thread
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService kosLookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Vacancy fan-out jobs hold a database connection per chunk, so they run on a small fixed pool with a bounded queue;
+    // submissions beyond the queue stay QUEUED in the database until the resume sweep picks them up
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService vacancyFanOutExecutor(MeterRegistry meterRegistry,
+                                                 @Value("${notification.fanout.jobs.pool-size:2}") int poolSize,
+                                                 @Value("${notification.fanout.jobs.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("vacancy-fan-out-", 0).factory());
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "vacancy.fanout");
+    }
+
+    @Bean
+    public SingleFlight<UUID, ApiResponseWrapper<KosDetailsDto>> kosSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("kos", meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<UUID, ApiResponseWrapper<RentalDetailsDto>> rentalSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("rental", meterRegistry);
+    }
+
+    @Bean
+    public DownstreamGuard kosGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                                    RetryRegistry retryRegistry) {
+        return new DownstreamGuard(circuitBreakerRegistry.circuitBreaker("kos"), bulkheadRegistry.bulkhead("kos"),
+                retryRegistry.retry("kos"));
+    }
+
+    @Bean
+    public DownstreamGuard rentalGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry,
+                                       RetryRegistry retryRegistry) {
+        return new DownstreamGuard(circuitBreakerRegistry.circuitBreaker("rental"), bulkheadRegistry.bulkhead("rental"),
+                retryRegistry.retry("rental"));
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -2,7 +2,13 @@ package id.ac.ui.cs.advprog.papikos.notification.config;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +16,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class GlobalFeignConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalFeignConfig.class);
+
     @Value("${internal.token.secret}")
     private String internalTokenSecret;
 
@@ -24,4 +32,18 @@ public class GlobalFeignConfig {
             }
         };
     }
-}
\ No newline at end of file
+
+    // Leased, available and pending connections of the pool shared by all Feign clients
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            HttpClientConnectionManager manager = connectionManager.getIfAvailable();
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            } else {
+                log.warn("Feign connection pool metrics not registered: expected a PoolingHttpClientConnectionManager, found {}",
+                        manager == null ? "none" : manager.getClass().getName());
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package id.ac.ui.cs.advprog.papikos.notification.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -17,6 +19,9 @@ public class RabbitMQConfig {
     public static final String TOPIC_EXCHANGE_NAME = "rental.topic";
     public static final String ROUTING_KEY_RENTAL_CREATED = "rental.created";
     public static final String KOS_QUEUE_NAME = "kos.rental.created.queue";
+    public static final String ROUTING_KEY_KOS_UPDATED = "kos.updated";
+    public static final String ROUTING_KEY_KOS_DELETED = "kos.deleted";
+    public static final String ROUTING_KEY_WISHLIST_CHANGED = "notification.wishlist.changed";
 
     @Bean
     public TopicExchange rentalTopicExchange() {
@@ -46,4 +51,31 @@ public class RabbitMQConfig {
     Binding kosBinding(Queue kosQueue, TopicExchange exchange) {
         return BindingBuilder.bind(kosQueue).to(exchange).with(ROUTING_KEY_RENTAL_CREATED);
     }
-}
\ No newline at end of file
+
+    // One auto-deleted queue per node, so every instance hears about Kos changes and can drop its own cache entries
+    @Bean
+    Queue kosCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("notification.kos.cache."));
+    }
+
+    @Bean
+    Binding kosUpdatedBinding(Queue kosCacheInvalidationQueue, TopicExchange exchange) {
+        return BindingBuilder.bind(kosCacheInvalidationQueue).to(exchange).with(ROUTING_KEY_KOS_UPDATED);
+    }
+
+    @Bean
+    Binding kosDeletedBinding(Queue kosCacheInvalidationQueue, TopicExchange exchange) {
+        return BindingBuilder.bind(kosCacheInvalidationQueue).to(exchange).with(ROUTING_KEY_KOS_DELETED);
+    }
+
+    // Likewise per node: wishlist changes made on any instance drop the tenant's membership set everywhere
+    @Bean
+    Queue wishlistMembershipInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("notification.wishlist.membership."));
+    }
+
+    @Bean
+    Binding wishlistChangedBinding(Queue wishlistMembershipInvalidationQueue, TopicExchange exchange) {
+        return BindingBuilder.bind(wishlistMembershipInvalidationQueue).to(exchange).with(ROUTING_KEY_WISHLIST_CHANGED);
+    }
+}
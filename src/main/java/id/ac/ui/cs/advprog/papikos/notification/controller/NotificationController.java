@@ -4,8 +4,10 @@ import id.ac.ui.cs.advprog.papikos.notification.dto.*;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ResourceNotFoundException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ServiceInteractionException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ServiceUnavailableException;
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
 import id.ac.ui.cs.advprog.papikos.notification.response.ApiResponse;
 import id.ac.ui.cs.advprog.papikos.notification.service.NotificationService;
+import id.ac.ui.cs.advprog.papikos.notification.service.VacancyFanOutJobService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +16,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 
@@ -25,6 +30,7 @@ public class NotificationController {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationController.class);
     private final NotificationService notificationService;
+    private final VacancyFanOutJobService vacancyFanOutJobService;
 
     // Helper method to extract user ID (replace with your actual principal details)
     private UUID getCurrentUserId(Object principal) {
@@ -69,14 +75,58 @@ public class NotificationController {
     @GetMapping("/wishlist")
     @PreAuthorize("hasAuthority('TENANT')")
     public ResponseEntity<ApiResponse<List<WishlistItemDto>>> getWishlist(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal Object principal) {
         UUID tenantUserId = getCurrentUserId(principal);
-        System.out.println(principal.toString());
-        log.info("API Request: Tenant {} retrieving wishlist", tenantUserId);
-        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId);
+        log.info("API Request: Tenant {} retrieving wishlist (cursor={}, limit={})", tenantUserId, cursor, limit);
+        CursorPage<WishlistItemDto> page = notificationService.getWishlist(tenantUserId, cursor, limit);
 
         ApiResponse<List<WishlistItemDto>> response = ApiResponse.<List<WishlistItemDto>>builder()
-                .ok(wishlist);
+                .status(HttpStatus.OK)
+                .message("Success")
+                .data(page.getItems())
+                .nextCursor(page.getNextCursor())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/wishlist/membership")
+    @PreAuthorize("hasAuthority('TENANT')")
+    public ResponseEntity<ApiResponse<Map<UUID, Boolean>>> getWishlistMembership(
+            @RequestParam List<UUID> propertyIds,
+            @AuthenticationPrincipal Object principal) {
+        UUID tenantUserId = getCurrentUserId(principal);
+        log.debug("API Request: Tenant {} checking wishlist membership of {} properties", tenantUserId, propertyIds.size());
+        Map<UUID, Boolean> membership = notificationService.getWishlistMembership(tenantUserId, propertyIds);
+
+        ApiResponse<Map<UUID, Boolean>> response = ApiResponse.<Map<UUID, Boolean>>builder()
+                .ok(membership);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/wishlist/counts")
+    @PreAuthorize("hasAnyAuthority('OWNER', 'ADMIN', 'INTERNAL')")
+    public ResponseEntity<ApiResponse<Map<UUID, Long>>> getWishlistCounts(@RequestParam List<UUID> propertyIds) {
+        log.debug("API Request: Wishlist counts for {} properties", propertyIds.size());
+        Map<UUID, Long> counts = notificationService.getWishlistCounts(propertyIds);
+
+        ApiResponse<Map<UUID, Long>> response = ApiResponse.<Map<UUID, Long>>builder()
+                .ok(counts);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/wishlist/bulk")
+    @PreAuthorize("hasAuthority('TENANT')")
+    public ResponseEntity<ApiResponse<List<WishlistOperationResult>>> bulkUpdateWishlist(
+            @RequestBody BulkWishlistRequest request,
+            @AuthenticationPrincipal Object principal) {
+        UUID tenantUserId = getCurrentUserId(principal);
+        log.info("API Request: Tenant {} applying bulk wishlist update", tenantUserId);
+        List<WishlistOperationResult> results = notificationService.bulkUpdateWishlist(tenantUserId, request);
+
+        ApiResponse<List<WishlistOperationResult>> response = ApiResponse.<List<WishlistOperationResult>>builder()
+                .ok(results);
         return ResponseEntity.ok(response);
     }
 
@@ -102,13 +152,60 @@ public class NotificationController {
     @PreAuthorize("isAuthenticated()") // Any authenticated user can get their notifications
     public ResponseEntity<ApiResponse<List<NotificationDto>>> getNotifications(
             @RequestParam(required = false, defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal Object principal) {
         UUID userId = getCurrentUserId(principal);
-        log.info("API Request: User {} retrieving notifications (unreadOnly={})", userId, unreadOnly);
-        List<NotificationDto> notifications = notificationService.getNotifications(userId, unreadOnly);
+        log.info("API Request: User {} retrieving notifications (unreadOnly={}, before={}, limit={})", userId, unreadOnly, before, limit);
+        CursorPage<NotificationDto> page = notificationService.getNotificationPage(userId, unreadOnly, before, limit);
 
         ApiResponse<List<NotificationDto>> response = ApiResponse.<List<NotificationDto>>builder()
-                .ok(notifications);
+                .status(HttpStatus.OK)
+                .message("Success")
+                .data(page.getItems())
+                .nextCursor(page.getNextCursor())
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/notifications/unread-count")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Long>> getUnreadCount(@AuthenticationPrincipal Object principal) {
+        UUID userId = getCurrentUserId(principal);
+        log.debug("API Request: User {} retrieving unread count", userId);
+        long unreadCount = notificationService.getUnreadCount(userId);
+
+        ApiResponse<Long> response = ApiResponse.<Long>builder()
+                .ok(unreadCount);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/notifications/read-all")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Integer>> markAllNotificationsAsRead(
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam(required = false) Instant upTo,
+            @AuthenticationPrincipal Object principal) {
+        UUID userId = getCurrentUserId(principal);
+        log.info("API Request: User {} marking all notifications as read (type={}, upTo={})", userId, type, upTo);
+        int marked = notificationService.markAllNotificationsAsRead(userId, type, upTo);
+
+        ApiResponse<Integer> response = ApiResponse.<Integer>builder()
+                .ok(marked);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/notifications/read")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Integer>> markNotificationsAsRead(
+            @RequestBody MarkNotificationsReadRequest request,
+            @AuthenticationPrincipal Object principal) {
+        UUID userId = getCurrentUserId(principal);
+        log.info("API Request: User {} marking notifications as read in bulk", userId);
+        int marked = notificationService.markNotificationsAsRead(userId, request.getNotificationIds());
+
+        ApiResponse<Integer> response = ApiResponse.<Integer>builder()
+                .ok(marked);
         return ResponseEntity.ok(response);
     }
 
@@ -145,15 +242,39 @@ public class NotificationController {
 
     @PostMapping("/notifications/vacancy")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<ApiResponse<List<NotificationDto>>> sendVacancyNotification(
+    public ResponseEntity<ApiResponse<VacancyFanOutJobDto>> sendVacancyNotification(
             @RequestBody VacancyUpdateNotification request,
-            @AuthenticationPrincipal Object principal) throws ServiceInteractionException, ServiceUnavailableException, ResourceNotFoundException {
+            @AuthenticationPrincipal Object principal) {
         log.info("API Request: User {} sending vacancy notification {}", principal, request);
-        List<NotificationDto> notifications = notificationService.notifyWishlistUsersOnVacancy(request);
+        VacancyFanOutJobDto job = vacancyFanOutJobService.submit(request, getCurrentUserId(principal));
 
-        ApiResponse<List<NotificationDto>> response = ApiResponse.<List<NotificationDto>>builder()
-                .ok(notifications);
-        return ResponseEntity.ok(response);
+        ApiResponse<VacancyFanOutJobDto> response = ApiResponse.<VacancyFanOutJobDto>builder()
+                .status(HttpStatus.ACCEPTED)
+                .message("Vacancy notification queued")
+                .data(job)
+                .build();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/notifications/vacancy/jobs/" + job.getJobId()))
+                .body(response);
+    }
+
+    @GetMapping("/notifications/vacancy/jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ApiResponse<VacancyFanOutJobDto>> getVacancyNotificationJob(@PathVariable UUID jobId) {
+        VacancyFanOutJobDto job = vacancyFanOutJobService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.<VacancyFanOutJobDto>builder().ok(job));
+    }
+
+    @PostMapping("/notifications/internal/bulk")
+    @PreAuthorize("hasAnyAuthority('ADMIN','INTERNAL')")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> sendInternalNotifications(
+            @RequestBody List<InternalNotificationRequest> requests) {
+        log.info("API Request: sending {} internal notifications", requests.size());
+        int sent = notificationService.sendInternalNotifications(requests);
+
+        ApiResponse<Map<String, Integer>> response = ApiResponse.<Map<String, Integer>>builder()
+                .created(Map.of("sent", sent));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PostMapping("/notifications/broadcast")
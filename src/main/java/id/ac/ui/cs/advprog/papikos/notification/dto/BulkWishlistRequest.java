@@ -0,0 +1,19 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Wishlist changes made by a tenant, applied together; used by clients syncing offline edits.
+ * If a property appears more than once, only its last operation is applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkWishlistRequest {
+
+    private List<WishlistOperation> operations;
+}
@@ -0,0 +1,24 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of a notification fan-out, returned instead of the notifications themselves.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanOutSummary {
+
+    private UUID propertyId;
+
+    private long recipientCount;
+
+    private int chunkCount;
+
+    private long durationMs;
+}
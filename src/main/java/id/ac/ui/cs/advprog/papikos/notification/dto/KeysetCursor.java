@@ -0,0 +1,65 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import id.ac.ui.cs.advprog.papikos.notification.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a list ordered by {@code (createdAt, id)}, handed to clients as an opaque URL-safe string.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private final Instant createdAt;
+    private final UUID id;
+
+    /**
+     * @return whether an entry at {@code (createdAt, id)} comes after this position in newest-first order
+     */
+    public boolean isFollowedBy(Instant createdAt, UUID id) {
+        int byTime = createdAt.compareTo(this.createdAt);
+        return byTime < 0 || (byTime == 0 && compareIds(id, this.id) < 0);
+    }
+
+    /**
+     * Compares IDs the way PostgreSQL orders {@code uuid} values, as unsigned bytes, so in-memory tie-breaks
+     * match {@code ORDER BY created_at, id} in the database. Also the order counter rows are locked in, so it must
+     * stay the single copy of this comparison.
+     */
+    public static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null when no cursor was given (first page)
+     * @throws BadRequestException if the cursor was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid page cursor");
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new KeysetCursor(createdAt, UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+}
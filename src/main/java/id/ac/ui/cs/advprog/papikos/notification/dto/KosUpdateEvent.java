@@ -0,0 +1,22 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published by the Kos service on {@code rental.topic} whenever a property is edited or removed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class KosUpdateEvent {
+
+    @JsonAlias("id")
+    private UUID kosId;
+}
@@ -0,0 +1,19 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inbox entries to mark read in one call: notification, vacancy event or broadcast IDs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkNotificationsReadRequest {
+
+    private List<UUID> notificationIds;
+}
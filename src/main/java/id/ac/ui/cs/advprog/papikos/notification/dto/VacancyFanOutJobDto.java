@@ -0,0 +1,60 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.FanOutJobState;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyFanOutJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacancyFanOutJobDto {
+
+    private UUID jobId;
+
+    private UUID propertyId;
+
+    private FanOutJobState state;
+
+    private long processedCount;
+
+    private long totalCount;
+
+    private int chunkCount;
+
+    private String errorMessage;
+
+    private int coalescedCount;
+
+    private Instant createdAt;
+
+    private Instant scheduledAt;
+
+    private Instant startedAt;
+
+    private Instant completedAt;
+
+    public static VacancyFanOutJobDto fromEntity(VacancyFanOutJob entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new VacancyFanOutJobDto(
+                entity.getJobId(),
+                entity.getPropertyId(),
+                entity.getState(),
+                entity.getProcessedCount(),
+                entity.getTotalCount(),
+                entity.getChunkCount(),
+                entity.getErrorMessage(),
+                entity.getCoalescedCount(),
+                entity.getCreatedAt(),
+                entity.getScheduledAt(),
+                entity.getStartedAt(),
+                entity.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Published on {@code rental.topic} after a tenant's wishlist changes, so every node drops its cached membership set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WishlistChangedEvent {
+
+    private UUID tenantUserId;
+}
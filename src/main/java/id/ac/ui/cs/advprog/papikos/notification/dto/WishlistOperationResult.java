@@ -0,0 +1,24 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one operation of a {@link BulkWishlistRequest}, returned in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WishlistOperationResult {
+
+    private WishlistOperationType type;
+
+    private UUID propertyId;
+
+    private WishlistOperationStatus status;
+
+    private UUID wishlistItemId; // Only set for ADDED
+}
@@ -0,0 +1,12 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+public enum WishlistOperationStatus {
+    ADDED,
+    ALREADY_PRESENT,
+    REMOVED,
+    NOT_IN_WISHLIST,
+    PROPERTY_NOT_FOUND,
+    PROPERTY_UNAVAILABLE, // Kos service could not confirm the property; the client may retry
+    SUPERSEDED, // A later operation in the same request targets the same property
+    INVALID
+}
@@ -0,0 +1,6 @@
+package id.ac.ui.cs.advprog.papikos.notification.dto;
+
+public enum WishlistOperationType {
+    ADD,
+    REMOVE
+}
@@ -0,0 +1,21 @@
+package id.ac.ui.cs.advprog.papikos.notification.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request parameter is malformed (e.g., an invalid page cursor).
+ * Results in an HTTP 400 Bad Request response.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST) // 400
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * Constructs a new BadRequestException with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
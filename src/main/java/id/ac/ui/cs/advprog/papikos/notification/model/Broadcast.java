@@ -0,0 +1,35 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An announcement to every user, stored once. Per-user read state is a {@link BroadcastWatermark}
+ * plus {@link BroadcastRead} rows for broadcasts read out of order.
+ */
+@Entity
+@Table(name = "broadcasts", indexes = {
+    @Index(name = "idx_broadcasts_created", columnList = "createdAt")
+})
+@Data
+@NoArgsConstructor
+public class Broadcast {
+
+    @Id
+    @TimeOrderedUuid
+    @Column(columnDefinition = "uuid")
+    private UUID broadcastId;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,26 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A broadcast newer than the user's {@link BroadcastWatermark} that the user has read anyway.
+ * Folded into the watermark once every older broadcast is read too.
+ */
+@Entity
+@Table(name = "broadcast_reads")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastRead {
+
+    @EmbeddedId
+    private BroadcastReadId id; // (userId, broadcastId): a user's exceptions are one index range
+
+    @Column(nullable = false)
+    private Instant readAt;
+}
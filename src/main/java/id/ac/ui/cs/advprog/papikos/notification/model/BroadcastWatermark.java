@@ -0,0 +1,35 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Every broadcast at or before {@code (readUpTo, readUpToId)}, ordered by creation time then ID as in the inbox,
+ * is read by the user; no row means none are.
+ */
+@Entity
+@Table(name = "broadcast_read_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastWatermark {
+
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private Instant readUpTo;
+
+    // Broadcasts created at readUpTo are read up to and including this ID; the default (highest uuid) covers them all
+    @Column(nullable = false, columnDefinition = "uuid default 'ffffffff-ffff-ffff-ffff-ffffffffffff'")
+    private UUID readUpToId;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
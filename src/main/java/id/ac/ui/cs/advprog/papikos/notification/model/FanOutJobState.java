@@ -0,0 +1,8 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+public enum FanOutJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
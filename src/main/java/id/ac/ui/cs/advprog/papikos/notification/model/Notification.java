@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
-import org.hibernate.annotations.UuidGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import lombok.Getter;
@@ -17,6 +16,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "notifications", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"notificationId", "relatedPropertyId","relatedRentalId", "recipientUserId"} )
+}, indexes = {
+        // Inbox pages; the unread-only partial index is created by NotificationIndexInitializer
+        @Index(name = "idx_notifications_recipient_created", columnList = "recipientUserId, createdAt, notificationId")
 })
 @Data
 @NoArgsConstructor
@@ -28,8 +30,7 @@ import java.time.Instant;
 public class Notification {
 
     @Id
-    @GeneratedValue
-    @UuidGenerator
+    @TimeOrderedUuid
     @Column(columnDefinition = "uuid")
     private UUID notificationId;
 
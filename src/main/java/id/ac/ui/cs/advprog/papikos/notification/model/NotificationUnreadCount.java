@@ -0,0 +1,37 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Number of unread rows in {@code notifications} and unread vacancy events for one user, kept in step by the
+ * transactions that insert notifications or record events and those that mark them read, and periodically
+ * reconciled against the rows themselves.
+ */
+@Entity
+@Table(name = "notification_unread_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationUnreadCount {
+
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long unreadCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long unreadEventCount; // Vacancy events (fan-out-on-read) visible to the user without a read marker
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,31 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Number of tenants that have a property in their wishlist, maintained incrementally
+ * from wishlist adds and removes rather than counted from {@code wishlist_items}.
+ */
+@Entity
+@Table(name = "property_wishlist_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyWishlistCount {
+
+    @Id
+    @Column(columnDefinition = "uuid")
+    private UUID propertyId;
+
+    @Column(nullable = false)
+    private long wishlistCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,18 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID primary key as assigned by {@link TimeOrderedUuidGenerator} in the application
+ * when the entity is persisted, in place of {@code @GeneratedValue @UuidGenerator}.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedUuid {
+}
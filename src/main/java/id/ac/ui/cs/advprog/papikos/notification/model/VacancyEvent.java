@@ -0,0 +1,43 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A vacancy announcement stored once for all of a property's wishlisters (fan-out-on-read).
+ * Inboxes pick it up through the reader's wishlist; per-user read state lives in {@link VacancyEventRead}.
+ */
+@Entity
+@Table(name = "vacancy_events", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_vacancy_events_announcement", columnNames = {"announcementId"})
+}, indexes = {
+    @Index(name = "idx_vacancy_events_property_created_id", columnList = "propertyId, createdAt, eventId")
+})
+@Data
+@NoArgsConstructor
+public class VacancyEvent {
+
+    @Id
+    @TimeOrderedUuid
+    @Column(columnDefinition = "uuid")
+    private UUID eventId;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID announcementId; // The fan-out job, or the direct request, that announced the vacancy
+
+    @Column(nullable = false, columnDefinition = "uuid")
+    private UUID propertyId;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message; // Already rendered with the property name
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
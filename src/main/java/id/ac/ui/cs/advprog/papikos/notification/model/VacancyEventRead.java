@@ -0,0 +1,25 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marks a {@link VacancyEvent} as read by one user; absence means unread.
+ */
+@Entity
+@Table(name = "vacancy_event_reads")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacancyEventRead {
+
+    @EmbeddedId
+    private VacancyEventReadId id; // (userId, eventId): a user's read events are one index range
+
+    @Column(nullable = false)
+    private Instant readAt;
+}
@@ -0,0 +1,23 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacancyEventReadId implements Serializable {
+
+    @Column(columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(columnDefinition = "uuid")
+    private UUID eventId;
+}
@@ -0,0 +1,81 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A vacancy fan-out running in the background. Progress is checkpointed with every chunk of
+ * notifications, so a job interrupted by a restart resumes after its last committed recipient.
+ * A queued job waits until {@code scheduledAt}: now for the first update of a property, or the end of the
+ * coalescing window for one following a recent job. Vacancy updates for the same property arriving
+ * before then are folded into it, and the latest title and message win.
+ */
+@Entity
+@Table(name = "vacancy_fan_out_jobs", indexes = {
+    @Index(name = "idx_vacancy_fan_out_jobs_state_updated", columnList = "state, updatedAt"),
+    @Index(name = "idx_vacancy_fan_out_jobs_state_scheduled", columnList = "state, scheduledAt"),
+    @Index(name = "idx_vacancy_fan_out_jobs_property_state", columnList = "propertyId, state"),
+    @Index(name = "idx_vacancy_fan_out_jobs_property_scheduled", columnList = "propertyId, scheduledAt")
+})
+@Data
+@NoArgsConstructor
+public class VacancyFanOutJob {
+
+    @Id
+    @TimeOrderedUuid
+    @Column(columnDefinition = "uuid")
+    private UUID jobId;
+
+    @Column(nullable = false, columnDefinition = "uuid")
+    private UUID propertyId;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String message; // As requested; rendered with the property name when the job runs
+
+    @Column(columnDefinition = "uuid")
+    private UUID requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private FanOutJobState state;
+
+    @Column(nullable = false)
+    private long processedCount;
+
+    @Column(nullable = false)
+    private long totalCount; // Wishlist count at submission; the final processed count once completed
+
+    @Column(nullable = false)
+    private int chunkCount;
+
+    @Column(columnDefinition = "uuid")
+    private UUID lastRecipientUserId; // Checkpoint: recipients up to this ID have been notified
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int coalescedCount; // Later vacancy updates folded into this job
+
+    private Instant scheduledAt; // End of the coalescing window; null means due immediately
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt; // Also the heartbeat of a running job
+
+    private Instant startedAt;
+
+    private Instant completedAt;
+}
@@ -7,10 +7,10 @@ import lombok.Setter;
 
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
-import org.hibernate.annotations.UuidGenerator;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import java.math.BigDecimal;
 import java.util.UUID;
 
 import java.time.Instant;
@@ -18,6 +18,9 @@ import java.time.Instant;
 @Entity
 @Table(name = "wishlist_items", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"tenantUserId", "propertyId"})
+}, indexes = {
+    @Index(name = "idx_wishlist_items_tenant_created", columnList = "tenantUserId, createdAt, wishlistItemId"),
+    @Index(name = "idx_wishlist_items_property_tenant", columnList = "propertyId, tenantUserId")
 })
 @Data
 @NoArgsConstructor
@@ -28,9 +31,8 @@ import java.time.Instant;
 public class WishlistItem {
 
     @Id
-    @UuidGenerator
+    @TimeOrderedUuid
     @Column(columnDefinition = "uuid")
-    @GeneratedValue
     private UUID wishlistItemId;
 
     @Column(nullable = false, columnDefinition = "uuid")
@@ -43,6 +45,18 @@ public class WishlistItem {
     @Column(updatable = false)
     private Instant createdAt;
 
+    // Snapshot of the Kos details taken from the Kos service, so the wishlist can be rendered without calling it
+    @Column(length = 255)
+    private String propertyName;
+
+    @Column(columnDefinition = "TEXT")
+    private String propertyAddress;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal propertyMonthlyRentPrice;
+
+    private Instant snapshotCapturedAt; // Null until the first snapshot has been taken; a captured snapshot without a name means the property was deleted
+
     // Constructor for service layer usage
     public WishlistItem(UUID tenantUserId, UUID propertyId) {
         this.tenantUserId = tenantUserId;
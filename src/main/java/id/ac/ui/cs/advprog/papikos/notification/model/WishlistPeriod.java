@@ -0,0 +1,26 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A wishlist entry the tenant has since removed. Vacancy events announced while it existed stay in the
+ * tenant's inbox (fan-out-on-read), as the notification rows written by fan-out-on-write would have.
+ */
+@Entity
+@Table(name = "wishlist_periods")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WishlistPeriod {
+
+    @EmbeddedId
+    private WishlistPeriodId id; // (tenantUserId, propertyId, wishlistedAt): a tenant's periods are one index range
+
+    @Column(nullable = false)
+    private Instant removedAt;
+}
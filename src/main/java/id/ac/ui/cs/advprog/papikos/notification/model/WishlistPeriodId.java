@@ -0,0 +1,26 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WishlistPeriodId implements Serializable {
+
+    @Column(columnDefinition = "uuid")
+    private UUID tenantUserId;
+
+    @Column(columnDefinition = "uuid")
+    private UUID propertyId;
+
+    private Instant wishlistedAt;
+}
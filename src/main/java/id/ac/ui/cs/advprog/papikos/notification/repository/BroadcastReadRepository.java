@@ -0,0 +1,24 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastRead;
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastReadId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BroadcastReadRepository extends JpaRepository<BroadcastRead, BroadcastReadId> {
+
+    @Query("SELECT r.id.broadcastId FROM BroadcastRead r WHERE r.id.userId = :userId")
+    List<UUID> findReadBroadcastIds(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM BroadcastRead r WHERE r.id.userId = :userId AND r.id.broadcastId IN :broadcastIds")
+    int deleteReads(@Param("userId") UUID userId, @Param("broadcastIds") Collection<UUID> broadcastIds);
+}
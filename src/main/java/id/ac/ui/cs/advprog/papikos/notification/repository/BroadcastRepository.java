@@ -0,0 +1,15 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.Broadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BroadcastRepository extends JpaRepository<Broadcast, UUID> {
+
+    List<Broadcast> findByCreatedAtAfterOrderByCreatedAtDesc(Instant cutoff);
+}
@@ -0,0 +1,38 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface BroadcastWatermarkRepository extends JpaRepository<BroadcastWatermark, UUID> {
+
+    // Serialises broadcast mark-read calls for one user across nodes, so each works from the committed read state;
+    // transaction-scoped, so it is released when the marking transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('broadcast_read_watermarks'), hashtext(CAST(:userId AS text)))",
+            nativeQuery = true)
+    int lockUser(@Param("userId") UUID userId);
+
+    /**
+     * Creates the user's watermark or moves it forward to {@code (readUpTo, readUpToId)}; a position at or behind
+     * the stored one is ignored, so the watermark never moves backwards. Returns 0 when nothing changed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO broadcast_read_watermarks (user_id, read_up_to, read_up_to_id, updated_at) " +
+            "VALUES (:userId, :readUpTo, :readUpToId, :now) " +
+            "ON CONFLICT (user_id) DO UPDATE SET read_up_to = EXCLUDED.read_up_to, " +
+            "read_up_to_id = EXCLUDED.read_up_to_id, updated_at = EXCLUDED.updated_at " +
+            "WHERE (broadcast_read_watermarks.read_up_to, broadcast_read_watermarks.read_up_to_id) " +
+            "< (EXCLUDED.read_up_to, EXCLUDED.read_up_to_id)",
+            nativeQuery = true)
+    int advance(@Param("userId") UUID userId,
+                @Param("readUpTo") Instant readUpTo,
+                @Param("readUpToId") UUID readUpToId,
+                @Param("now") Instant now);
+}
@@ -0,0 +1,157 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
+import id.ac.ui.cs.advprog.papikos.notification.model.TimeOrderedUuidGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes many notifications straight to {@code notifications}, bypassing the persistence context.
+ * Large writes are streamed with PostgreSQL's COPY protocol; smaller ones, and any database other than
+ * PostgreSQL, use a JDBC-batched INSERT. The {@link Notification}s passed in are only value holders:
+ * they are never attached to an EntityManager. Callers provide the transaction.
+ */
+@Repository
+public class NotificationBulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationBulkWriter.class);
+
+    private static final String COLUMNS = "notification_id, recipient_user_id, notification_type, title, message, " +
+            "is_read, related_property_id, related_rental_id, created_at";
+    private static final String COPY_SQL = "COPY notifications (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO notifications (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean copyEnabled;
+    private final long copyThreshold;
+    private final int batchSize;
+
+    public NotificationBulkWriter(JdbcTemplate jdbcTemplate,
+                                  @Value("${notification.bulk-writer.copy-enabled:true}") boolean copyEnabled,
+                                  @Value("${notification.bulk-writer.copy-threshold:1000}") long copyThreshold,
+                                  @Value("${notification.bulk-writer.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copyEnabled = copyEnabled;
+        this.copyThreshold = copyThreshold;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Whether a write of this many rows in total, possibly split over several calls, should use COPY.
+     */
+    public boolean prefersCopy(long expectedRows) {
+        return copyEnabled && expectedRows >= copyThreshold;
+    }
+
+    public int write(List<Notification> notifications) {
+        return write(notifications, prefersCopy(notifications.size()));
+    }
+
+    /**
+     * Assigns an ID and creation time to rows that lack them, then stores them all.
+     *
+     * @param useCopy stream with COPY when the connection is PostgreSQL; otherwise falls back to batched INSERTs
+     * @return the number of rows written
+     */
+    public int write(List<Notification> notifications, boolean useCopy) {
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        for (Notification notification : notifications) {
+            if (notification.getNotificationId() == null) {
+                notification.setNotificationId(TimeOrderedUuidGenerator.next());
+            }
+            if (notification.getCreatedAt() == null) {
+                notification.setCreatedAt(now);
+            }
+        }
+        Integer written = jdbcTemplate.execute((ConnectionCallback<Integer>) connection ->
+                useCopy && connection.isWrapperFor(PGConnection.class)
+                        ? copy(connection.unwrap(PGConnection.class), notifications)
+                        : insert(notifications));
+        return written == null ? 0 : written;
+    }
+
+    private int copy(PGConnection connection, List<Notification> notifications) throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder line = new StringBuilder(256);
+            for (Notification notification : notifications) {
+                line.setLength(0);
+                appendCsvRow(line, notification);
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            long rows = copyIn.endCopy();
+            log.debug("Copied {} notifications", rows);
+            return (int) rows;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private int insert(List<Notification> notifications) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, batchSize, (ps, notification) -> {
+            ps.setObject(1, notification.getNotificationId());
+            ps.setObject(2, notification.getRecipientUserId());
+            ps.setString(3, notification.getNotificationType().name());
+            ps.setString(4, notification.getTitle());
+            ps.setString(5, notification.getMessage());
+            ps.setBoolean(6, notification.isRead());
+            ps.setObject(7, notification.getRelatedPropertyId());
+            ps.setObject(8, notification.getRelatedRentalId());
+            ps.setObject(9, notification.getCreatedAt().atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+        });
+        return notifications.size();
+    }
+
+    private static void appendCsvRow(StringBuilder line, Notification notification) {
+        appendUuid(line, notification.getNotificationId()).append(',');
+        appendUuid(line, notification.getRecipientUserId()).append(',');
+        line.append(notification.getNotificationType().name()).append(',');
+        appendText(line, notification.getTitle()).append(',');
+        appendText(line, notification.getMessage()).append(',');
+        line.append(notification.isRead()).append(',');
+        appendUuid(line, notification.getRelatedPropertyId()).append(',');
+        appendUuid(line, notification.getRelatedRentalId()).append(',');
+        line.append(notification.getCreatedAt()).append('\n');
+    }
+
+    // An unquoted empty field is NULL in COPY's CSV format
+    private static StringBuilder appendUuid(StringBuilder line, UUID value) {
+        return value == null ? line : line.append(value);
+    }
+
+    // Quoted, so commas, quotes and line breaks in the text survive and an empty string stays distinct from NULL
+    private static StringBuilder appendText(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+}
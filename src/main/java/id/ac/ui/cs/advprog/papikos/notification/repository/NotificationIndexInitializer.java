@@ -0,0 +1,59 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes JPA cannot declare. The unread inbox index is partial ({@code WHERE is_read = false}),
+ * so it holds only unread rows and stays small as inboxes grow. Built concurrently so startup never blocks
+ * writes to {@code notifications}; skipped on databases other than PostgreSQL.
+ */
+@Component
+public class NotificationIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationIndexInitializer.class);
+
+    static final String UNREAD_INDEX_SQL = "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notifications_recipient_unread " +
+            "ON notifications (recipient_user_id, created_at DESC, notification_id DESC) WHERE is_read = false";
+    private static final String INVALID_UNREAD_INDEX_SQL = "SELECT EXISTS (SELECT 1 FROM pg_index i " +
+            "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'idx_notifications_recipient_unread' AND NOT i.indisvalid)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public NotificationIndexInitializer(JdbcTemplate jdbcTemplate,
+                                        @Value("${notification.indexes.create-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartialIndexes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+            if (!Boolean.TRUE.equals(postgres)) {
+                log.debug("Skipping partial notification indexes: not a PostgreSQL database");
+                return;
+            }
+            // An interrupted concurrent build leaves an invalid index that IF NOT EXISTS would keep forever
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(INVALID_UNREAD_INDEX_SQL, Boolean.class))) {
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS idx_notifications_recipient_unread");
+            }
+            // CONCURRENTLY cannot run in a transaction; JdbcTemplate statements run in autocommit here
+            jdbcTemplate.execute(UNREAD_INDEX_SQL);
+            log.info("Ensured partial index idx_notifications_recipient_unread");
+        } catch (RuntimeException e) {
+            log.warn("Failed to create partial notification indexes: {}", e.getMessage());
+        }
+    }
+}
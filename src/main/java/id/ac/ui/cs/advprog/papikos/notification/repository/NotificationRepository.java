@@ -2,13 +2,32 @@ package id.ac.ui.cs.advprog.papikos.notification.repository;
 
 import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
+    // Keyset pages, newest first. The whole inbox seeks on idx_notifications_recipient_created; the unread
+    // queries repeat the partial index's is_read = false predicate so the planner can use idx_notifications_recipient_unread
+    String FIRST_PAGE_SQL = "SELECT * FROM notifications WHERE recipient_user_id = :recipientUserId " +
+            "ORDER BY created_at DESC, notification_id DESC LIMIT :limit";
+    String PAGE_BEFORE_SQL = "SELECT * FROM notifications WHERE recipient_user_id = :recipientUserId " +
+            "AND (created_at, notification_id) < (:createdAt, :notificationId) " +
+            "ORDER BY created_at DESC, notification_id DESC LIMIT :limit";
+    String FIRST_UNREAD_PAGE_SQL = "SELECT * FROM notifications WHERE recipient_user_id = :recipientUserId AND is_read = false " +
+            "ORDER BY created_at DESC, notification_id DESC LIMIT :limit";
+    String UNREAD_PAGE_BEFORE_SQL = "SELECT * FROM notifications WHERE recipient_user_id = :recipientUserId AND is_read = false " +
+            "AND (created_at, notification_id) < (:createdAt, :notificationId) " +
+            "ORDER BY created_at DESC, notification_id DESC LIMIT :limit";
+
     List<Notification> findByRecipientUserIdOrderByCreatedAtDesc(UUID recipientUserId);
 
     List<Notification> findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(UUID recipientUserId);
@@ -16,4 +35,41 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     List<Notification> findByRecipientUserIdAndIsReadOrderByCreatedAtDesc(UUID recipientUserId, Boolean isRead);
 
     List<Notification> findByNotificationIdAndRecipientUserId(UUID notificationId, UUID recipientUserId);
+
+    @Query(value = FIRST_PAGE_SQL, nativeQuery = true)
+    List<Notification> findFirstPage(@Param("recipientUserId") UUID recipientUserId, @Param("limit") int limit);
+
+    @Query(value = PAGE_BEFORE_SQL, nativeQuery = true)
+    List<Notification> findPageBefore(@Param("recipientUserId") UUID recipientUserId,
+                                      @Param("createdAt") Instant createdAt,
+                                      @Param("notificationId") UUID notificationId,
+                                      @Param("limit") int limit);
+
+    @Query(value = FIRST_UNREAD_PAGE_SQL, nativeQuery = true)
+    List<Notification> findFirstUnreadPage(@Param("recipientUserId") UUID recipientUserId, @Param("limit") int limit);
+
+    @Query(value = UNREAD_PAGE_BEFORE_SQL, nativeQuery = true)
+    List<Notification> findUnreadPageBefore(@Param("recipientUserId") UUID recipientUserId,
+                                            @Param("createdAt") Instant createdAt,
+                                            @Param("notificationId") UUID notificationId,
+                                            @Param("limit") int limit);
+
+    // Set-based mark-read; every predicate starts with the partial unread index's recipient_user_id, is_read = false
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE notifications SET is_read = true WHERE recipient_user_id = :recipientUserId AND is_read = false " +
+            "AND created_at <= :upTo", nativeQuery = true)
+    int markAllRead(@Param("recipientUserId") UUID recipientUserId, @Param("upTo") Instant upTo);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE notifications SET is_read = true WHERE recipient_user_id = :recipientUserId AND is_read = false " +
+            "AND notification_type = :type AND created_at <= :upTo", nativeQuery = true)
+    int markAllReadOfType(@Param("recipientUserId") UUID recipientUserId,
+                          @Param("type") String type,
+                          @Param("upTo") Instant upTo);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE notifications SET is_read = true WHERE recipient_user_id = :recipientUserId AND is_read = false " +
+            "AND notification_id IN (:notificationIds)", nativeQuery = true)
+    int markRead(@Param("recipientUserId") UUID recipientUserId,
+                 @Param("notificationIds") Collection<UUID> notificationIds);
 }
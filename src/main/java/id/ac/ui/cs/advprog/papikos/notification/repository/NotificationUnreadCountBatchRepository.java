@@ -0,0 +1,48 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC-batched counter updates for {@code notification_unread_counts}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationUnreadCountBatchRepository {
+
+    private static final String ADD_DELTA_SQL = "INSERT INTO notification_unread_counts (user_id, unread_count, updated_at) " +
+            "VALUES (?, GREATEST(?, 0), ?) ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_count = GREATEST(notification_unread_counts.unread_count + ?, 0), " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds each delta to its user's counter, creating missing counters; counters never go below zero.
+     * Runs in the caller's transaction, so the counters commit or roll back with the rows they count.
+     */
+    public void addDeltas(Map<UUID, Long> deltas, Instant now) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Locked in PostgreSQL's uuid order (unsigned bytes), the order reconciliation locks them in, so neither deadlocks
+        List<Map.Entry<UUID, Long>> entries = new ArrayList<>(deltas.entrySet());
+        entries.sort(Map.Entry.comparingByKey(KeysetCursor::compareIds));
+        jdbcTemplate.batchUpdate(ADD_DELTA_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+            ps.setObject(3, now.atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setLong(4, entry.getValue());
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationUnreadCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationUnreadCountRepository extends JpaRepository<NotificationUnreadCount, UUID> {
+
+    // Locks a page of counters so writers that update them wait until the page is reconciled
+    @Query(value = "SELECT user_id FROM notification_unread_counts WHERE user_id > :after " +
+            "ORDER BY user_id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<UUID> lockPageAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    // Recounts the given users' unread notifications and vacancy events; only counters that drifted are written
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counts c SET unread_count = a.actual, unread_event_count = a.actual_events, " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "FROM (SELECT u.user_id, (SELECT COUNT(*) FROM notifications n " +
+            "WHERE n.recipient_user_id = u.user_id AND n.is_read = false) AS actual, " +
+            "(SELECT COUNT(*) FROM vacancy_events e JOIN (" +
+            "SELECT property_id, created_at AS visible_from, CAST(NULL AS TIMESTAMP WITH TIME ZONE) AS visible_until " +
+            "FROM wishlist_items WHERE tenant_user_id = u.user_id " +
+            "UNION ALL SELECT property_id, wishlisted_at, removed_at FROM wishlist_periods WHERE tenant_user_id = u.user_id) v " +
+            "ON " + VacancyEventRepository.VISIBLE_IN_PERIOD + " WHERE NOT EXISTS " +
+            "(SELECT 1 FROM vacancy_event_reads r WHERE r.user_id = u.user_id AND r.event_id = e.event_id)) AS actual_events " +
+            "FROM notification_unread_counts u WHERE u.user_id IN (:userIds)) a " +
+            "WHERE c.user_id = a.user_id AND (c.unread_count <> a.actual OR c.unread_event_count <> a.actual_events)",
+            nativeQuery = true)
+    int reconcile(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Counts a newly recorded vacancy event as unread for everyone wishlisting its property, creating missing
+     * counters, in the event's transaction. Counters are locked in {@code user_id} order, as everywhere else.
+     *
+     * @return the users whose counter was incremented
+     */
+    @Query(value = "WITH counted AS (INSERT INTO notification_unread_counts (user_id, unread_count, unread_event_count, updated_at) " +
+            "SELECT tenant_user_id, 0, 1, :now FROM wishlist_items WHERE property_id = :propertyId AND created_at <= :createdAt " +
+            "ORDER BY tenant_user_id ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_event_count = notification_unread_counts.unread_event_count + 1, updated_at = EXCLUDED.updated_at " +
+            "RETURNING user_id) SELECT user_id FROM counted", nativeQuery = true)
+    List<UUID> addVacancyEvent(@Param("propertyId") UUID propertyId,
+                               @Param("createdAt") Instant createdAt,
+                               @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "UPDATE notification_unread_counts SET unread_event_count = GREATEST(unread_event_count - :count, 0), " +
+            "updated_at = :now WHERE user_id = :userId", nativeQuery = true)
+    int subtractReadEvents(@Param("userId") UUID userId, @Param("count") long count, @Param("now") Instant now);
+
+    // Counters for users with unread notifications but no counter yet, e.g. rows written before counting began
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counts (user_id, unread_count, updated_at) " +
+            "SELECT n.recipient_user_id, COUNT(*), CURRENT_TIMESTAMP FROM notifications n WHERE n.is_read = false " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_unread_counts c WHERE c.user_id = n.recipient_user_id) " +
+            "GROUP BY n.recipient_user_id ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertMissing();
+
+    // Counters for wishlisters of properties with vacancy events, e.g. events recorded before they were counted;
+    // reconciliation then fills in their unread events
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counts (user_id, unread_count, unread_event_count, updated_at) " +
+            "SELECT DISTINCT w.tenant_user_id, 0, 0, CURRENT_TIMESTAMP FROM wishlist_items w " +
+            "WHERE EXISTS (SELECT 1 FROM vacancy_events e WHERE e.property_id = w.property_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM notification_unread_counts c WHERE c.user_id = w.tenant_user_id) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertMissingForVacancyEvents();
+}
@@ -0,0 +1,44 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC-batched counter updates for {@code property_wishlist_counts}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PropertyWishlistCountBatchRepository {
+
+    private static final String ADD_DELTA_SQL = "INSERT INTO property_wishlist_counts (property_id, wishlist_count, updated_at) " +
+            "VALUES (?, GREATEST(?, 0), ?) ON CONFLICT (property_id) DO UPDATE SET " +
+            "wishlist_count = GREATEST(property_wishlist_counts.wishlist_count + ?, 0), " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds each delta to its property's counter, creating missing counters; counters never go below zero.
+     */
+    public void addDeltas(Map<UUID, Long> deltas, Instant now) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, Long>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(ADD_DELTA_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setObject(1, entry.getKey());
+            ps.setLong(2, entry.getValue());
+            ps.setObject(3, now.atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setLong(4, entry.getValue());
+        });
+    }
+}
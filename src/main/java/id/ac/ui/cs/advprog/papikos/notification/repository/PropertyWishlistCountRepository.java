@@ -0,0 +1,27 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.PropertyWishlistCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+public interface PropertyWishlistCountRepository extends JpaRepository<PropertyWishlistCount, UUID> {
+
+    // Serialises backfills across nodes; transaction-scoped, so it is released when the backfill transaction ends
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('property_wishlist_counts'))", nativeQuery = true)
+    int lockForBackfill();
+
+    // Recomputes every counter from wishlist_items; counters of properties no longer wishlisted are left untouched
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO property_wishlist_counts (property_id, wishlist_count, updated_at) " +
+            "SELECT property_id, COUNT(*), CURRENT_TIMESTAMP FROM wishlist_items GROUP BY property_id " +
+            "ON CONFLICT (property_id) DO UPDATE SET wishlist_count = EXCLUDED.wishlist_count, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int backfillFromWishlistItems();
+}
@@ -0,0 +1,36 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyEventRead;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyEventReadId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VacancyEventReadRepository extends JpaRepository<VacancyEventRead, VacancyEventReadId> {
+
+    @Query("SELECT r.id.eventId FROM VacancyEventRead r WHERE r.id.userId = :userId AND r.id.eventId IN :eventIds")
+    List<UUID> findReadEventIds(@Param("userId") UUID userId, @Param("eventIds") Collection<UUID> eventIds);
+
+    // Read markers for every event visible to the user (see VacancyEventRepository.VISIBLE_IN_PERIOD) up to upTo, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO vacancy_event_reads (user_id, event_id, read_at) " +
+            "SELECT :userId, e.event_id, CURRENT_TIMESTAMP FROM vacancy_events e " +
+            "JOIN " + VacancyEventRepository.VISIBILITY_PERIODS + " ON " + VacancyEventRepository.VISIBLE_IN_PERIOD +
+            " WHERE e.created_at <= :upTo ON CONFLICT DO NOTHING", nativeQuery = true)
+    int markAllVisibleRead(@Param("userId") UUID userId, @Param("upTo") Instant upTo);
+
+    @Modifying
+    @Query(value = "INSERT INTO vacancy_event_reads (user_id, event_id, read_at) " +
+            "SELECT :userId, e.event_id, CURRENT_TIMESTAMP FROM vacancy_events e " +
+            "JOIN " + VacancyEventRepository.VISIBILITY_PERIODS + " ON " + VacancyEventRepository.VISIBLE_IN_PERIOD +
+            " WHERE e.event_id IN (:eventIds) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int markVisibleRead(@Param("userId") UUID userId, @Param("eventIds") Collection<UUID> eventIds);
+}
@@ -0,0 +1,72 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VacancyEventRepository extends JpaRepository<VacancyEvent, UUID> {
+
+    // The periods in which :userId wishlisted each property: the current wishlist entries (open-ended) and removed ones
+    String VISIBILITY_PERIODS = "(SELECT property_id, created_at AS visible_from, CAST(NULL AS TIMESTAMP WITH TIME ZONE) AS visible_until " +
+            "FROM wishlist_items WHERE tenant_user_id = :userId " +
+            "UNION ALL SELECT property_id, wishlisted_at, removed_at FROM wishlist_periods WHERE tenant_user_id = :userId) v";
+
+    // An event is visible to whoever wishlisted its property when it was announced, matching who fan-out-on-write
+    // would have notified; removing the property later does not take the event back out of the inbox
+    String VISIBLE_IN_PERIOD = "e.property_id = v.property_id AND e.created_at >= v.visible_from " +
+            "AND (v.visible_until IS NULL OR e.created_at < v.visible_until)";
+
+    String UNREAD = "NOT EXISTS (SELECT 1 FROM vacancy_event_reads r WHERE r.user_id = :userId AND r.event_id = e.event_id)";
+
+    // Keyset pages: each visibility period reads at most :limit rows from the (property_id, created_at, event_id)
+    // index, so a page costs the same however many events the user has seen
+    String PAGE_HEAD = "SELECT e.* FROM " + VISIBILITY_PERIODS + " CROSS JOIN LATERAL " +
+            "(SELECT * FROM vacancy_events e WHERE " + VISIBLE_IN_PERIOD;
+    String BEFORE_CURSOR = " AND (e.created_at, e.event_id) < (:createdAt, :eventId)";
+    String PAGE_TAIL = " ORDER BY e.created_at DESC, e.event_id DESC LIMIT :limit) e " +
+            "ORDER BY e.created_at DESC, e.event_id DESC LIMIT :limit";
+
+    @Query(value = PAGE_HEAD + PAGE_TAIL, nativeQuery = true)
+    List<VacancyEvent> findFirstVisiblePage(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    @Query(value = PAGE_HEAD + BEFORE_CURSOR + PAGE_TAIL, nativeQuery = true)
+    List<VacancyEvent> findVisiblePageBefore(@Param("userId") UUID userId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("eventId") UUID eventId,
+                                             @Param("limit") int limit);
+
+    @Query(value = PAGE_HEAD + " AND " + UNREAD + PAGE_TAIL, nativeQuery = true)
+    List<VacancyEvent> findFirstUnreadVisiblePage(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    @Query(value = PAGE_HEAD + BEFORE_CURSOR + " AND " + UNREAD + PAGE_TAIL, nativeQuery = true)
+    List<VacancyEvent> findUnreadVisiblePageBefore(@Param("userId") UUID userId,
+                                                   @Param("createdAt") Instant createdAt,
+                                                   @Param("eventId") UUID eventId,
+                                                   @Param("limit") int limit);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM vacancy_events e JOIN " + VISIBILITY_PERIODS + " ON " + VISIBLE_IN_PERIOD +
+            " WHERE e.event_id = :eventId)", nativeQuery = true)
+    boolean isVisibleTo(@Param("eventId") UUID eventId, @Param("userId") UUID userId);
+
+    // One event per announcement: a resumed or re-run fan-out job finds its event already recorded and inserts nothing
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO vacancy_events (event_id, announcement_id, property_id, title, message, created_at) " +
+            "VALUES (:eventId, :announcementId, :propertyId, :title, :message, :createdAt) " +
+            "ON CONFLICT (announcement_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") UUID eventId,
+                       @Param("announcementId") UUID announcementId,
+                       @Param("propertyId") UUID propertyId,
+                       @Param("title") String title,
+                       @Param("message") String message,
+                       @Param("createdAt") Instant createdAt);
+}
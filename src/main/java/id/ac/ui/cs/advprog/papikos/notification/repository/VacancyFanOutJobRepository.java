@@ -0,0 +1,100 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.FanOutJobState;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyFanOutJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface VacancyFanOutJobRepository extends JpaRepository<VacancyFanOutJob, UUID> {
+
+    // Jobs in the given states that have not moved since the cutoff: never started, or abandoned by a stopped node
+    @Query("SELECT j.jobId FROM VacancyFanOutJob j WHERE j.state IN :states AND j.updatedAt < :staleBefore " +
+            "ORDER BY j.createdAt")
+    List<UUID> findIdleJobIds(@Param("states") Collection<FanOutJobState> states,
+                              @Param("staleBefore") Instant staleBefore,
+                              Pageable pageable);
+
+    @Query("SELECT j.jobId FROM VacancyFanOutJob j WHERE j.state = :queued " +
+            "AND (j.scheduledAt IS NULL OR j.scheduledAt <= :now) ORDER BY j.scheduledAt")
+    List<UUID> findDueJobIds(@Param("queued") FanOutJobState queued, @Param("now") Instant now, Pageable pageable);
+
+    Optional<VacancyFanOutJob> findFirstByPropertyIdAndStateOrderByScheduledAtDesc(UUID propertyId, FanOutJobState state);
+
+    Optional<VacancyFanOutJob> findFirstByPropertyIdOrderByScheduledAtDesc(UUID propertyId);
+
+    // Serialises submits for one property across nodes, so two concurrent updates cannot both queue a job;
+    // transaction-scoped, so it is released when the submit commits
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('vacancy_fan_out_jobs'), hashtext(CAST(:propertyId AS text)))",
+            nativeQuery = true)
+    int lockProperty(@Param("propertyId") UUID propertyId);
+
+    /**
+     * Folds a vacancy update into the property's queued job if its coalescing window is still open;
+     * the latest title and message replace the earlier ones. Returns 0 when there is no such job.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE VacancyFanOutJob j SET j.title = :title, j.message = :message, j.requestedBy = :requestedBy, " +
+            "j.coalescedCount = j.coalescedCount + 1, j.updatedAt = :now WHERE j.propertyId = :propertyId " +
+            "AND j.state = :queued AND j.scheduledAt > :now")
+    int coalesceInto(@Param("propertyId") UUID propertyId,
+                     @Param("title") String title,
+                     @Param("message") String message,
+                     @Param("requestedBy") UUID requestedBy,
+                     @Param("queued") FanOutJobState queued,
+                     @Param("now") Instant now);
+
+    /**
+     * Moves a due queued job, or a running job whose heartbeat is older than {@code staleBefore}, to RUNNING.
+     * Returns 0 when another worker already owns the job or its coalescing window is still open.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE VacancyFanOutJob j SET j.state = :running, j.attempts = j.attempts + 1, j.updatedAt = :now, " +
+            "j.startedAt = COALESCE(j.startedAt, :now) WHERE j.jobId = :jobId " +
+            "AND ((j.state = :queued AND (j.scheduledAt IS NULL OR j.scheduledAt <= :now)) " +
+            "OR (j.state = :running AND j.updatedAt < :staleBefore))")
+    int claim(@Param("jobId") UUID jobId,
+              @Param("queued") FanOutJobState queued,
+              @Param("running") FanOutJobState running,
+              @Param("now") Instant now,
+              @Param("staleBefore") Instant staleBefore);
+
+    // Runs inside the chunk's transaction, so the checkpoint commits with the chunk's notifications
+    @Transactional
+    @Modifying
+    @Query("UPDATE VacancyFanOutJob j SET j.processedCount = j.processedCount + :processed, " +
+            "j.chunkCount = j.chunkCount + 1, j.lastRecipientUserId = :lastRecipientUserId, j.updatedAt = :now " +
+            "WHERE j.jobId = :jobId")
+    int recordProgress(@Param("jobId") UUID jobId,
+                       @Param("processed") long processed,
+                       @Param("lastRecipientUserId") UUID lastRecipientUserId,
+                       @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VacancyFanOutJob j SET j.state = :state, j.totalCount = j.processedCount, " +
+            "j.updatedAt = :now, j.completedAt = :now WHERE j.jobId = :jobId")
+    int markCompleted(@Param("jobId") UUID jobId, @Param("state") FanOutJobState state, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VacancyFanOutJob j SET j.state = :state, j.errorMessage = :errorMessage, " +
+            "j.updatedAt = :now, j.completedAt = :now WHERE j.jobId = :jobId")
+    int markFailed(@Param("jobId") UUID jobId,
+                   @Param("state") FanOutJobState state,
+                   @Param("errorMessage") String errorMessage,
+                   @Param("now") Instant now);
+}
@@ -0,0 +1,72 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.WishlistItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC-batched writes to {@code wishlist_items}: one prepared statement, many parameter sets, one round trip.
+ * Callers provide the transaction. The returned arrays hold the affected row count per parameter set.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WishlistItemBatchRepository {
+
+    private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO wishlist_items (wishlist_item_id, tenant_user_id, " +
+            "property_id, created_at, property_name, property_address, property_monthly_rent_price, snapshot_captured_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (tenant_user_id, property_id) DO NOTHING";
+
+    // The removed entry's period is kept so vacancy events announced during it stay visible (fan-out-on-read)
+    private static final String DELETE_SQL = "WITH removed AS (DELETE FROM wishlist_items WHERE tenant_user_id = ? AND property_id = ? " +
+            "RETURNING tenant_user_id, property_id, created_at) " +
+            "INSERT INTO wishlist_periods (tenant_user_id, property_id, wishlisted_at, removed_at) " +
+            "SELECT tenant_user_id, property_id, created_at, ? FROM removed";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return per item, 1 if it was inserted and 0 if the tenant already had the property
+     */
+    public int[] insertIfAbsent(List<WishlistItem> items) {
+        if (items.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, items, items.size(), (ps, item) -> {
+            ps.setObject(1, item.getWishlistItemId());
+            ps.setObject(2, item.getTenantUserId());
+            ps.setObject(3, item.getPropertyId());
+            ps.setObject(4, toTimestamp(item.getCreatedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setString(5, item.getPropertyName());
+            ps.setString(6, item.getPropertyAddress());
+            ps.setBigDecimal(7, item.getPropertyMonthlyRentPrice());
+            ps.setObject(8, toTimestamp(item.getSnapshotCapturedAt()), Types.TIMESTAMP_WITH_TIMEZONE);
+        })[0];
+    }
+
+    /**
+     * @return per property, 1 if it was removed and 0 if it was not in the tenant's wishlist
+     */
+    public int[] delete(UUID tenantUserId, List<UUID> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return new int[0];
+        }
+        OffsetDateTime removedAt = toTimestamp(Instant.now());
+        return jdbcTemplate.batchUpdate(DELETE_SQL, propertyIds, propertyIds.size(), (ps, propertyId) -> {
+            ps.setObject(1, tenantUserId);
+            ps.setObject(2, propertyId);
+            ps.setObject(3, removedAt, Types.TIMESTAMP_WITH_TIMEZONE);
+        })[0];
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -1,10 +1,16 @@
 package id.ac.ui.cs.advprog.papikos.notification.repository;
 
 import id.ac.ui.cs.advprog.papikos.notification.model.WishlistItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,15 +20,92 @@ public interface WishlistItemRepository extends JpaRepository<WishlistItem, UUID
 
     List<WishlistItem> findByTenantUserId(UUID tenantUserId);
 
+    @Query("select w.propertyId from WishlistItem w where w.tenantUserId = :tenantUserId")
+    List<UUID> findPropertyIdsByTenantUserId(@Param("tenantUserId") UUID tenantUserId);
+
     boolean existsByTenantUserIdAndPropertyId(UUID tenantUserId, UUID propertyId);
 
-    @Transactional 
-    int deleteByTenantUserIdAndPropertyId(UUID tenantUserId, UUID propertyId);
+    // Removes the entry and records its period in one statement: returns 1 if it was removed, 0 if it was not wishlisted
+    @Transactional
+    @Modifying
+    @Query(value = "WITH removed AS (DELETE FROM wishlist_items WHERE tenant_user_id = :tenantUserId AND property_id = :propertyId " +
+            "RETURNING tenant_user_id, property_id, created_at) " +
+            "INSERT INTO wishlist_periods (tenant_user_id, property_id, wishlisted_at, removed_at) " +
+            "SELECT tenant_user_id, property_id, created_at, :removedAt FROM removed", nativeQuery = true)
+    int removeKeepingPeriod(@Param("tenantUserId") UUID tenantUserId,
+                            @Param("propertyId") UUID propertyId,
+                            @Param("removedAt") Instant removedAt);
 
     List<WishlistItem> findByPropertyId(UUID propertyId);
 
+    Optional<WishlistItem> findFirstByPropertyIdAndPropertyNameIsNotNullOrderBySnapshotCapturedAtDesc(UUID propertyId);
+
+    // Insert-if-absent in one statement: returns 1 if the row was created, 0 if the tenant already has the property
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO wishlist_items (wishlist_item_id, tenant_user_id, property_id, created_at, " +
+            "property_name, property_address, property_monthly_rent_price, snapshot_captured_at) " +
+            "VALUES (:wishlistItemId, :tenantUserId, :propertyId, :createdAt, :name, :address, :monthlyRentPrice, :capturedAt) " +
+            "ON CONFLICT (tenant_user_id, property_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("wishlistItemId") UUID wishlistItemId,
+                       @Param("tenantUserId") UUID tenantUserId,
+                       @Param("propertyId") UUID propertyId,
+                       @Param("createdAt") Instant createdAt,
+                       @Param("name") String name,
+                       @Param("address") String address,
+                       @Param("monthlyRentPrice") BigDecimal monthlyRentPrice,
+                       @Param("capturedAt") Instant capturedAt);
+
     Optional<WishlistItem> findByTenantUserIdAndPropertyId(UUID tenantUserId, UUID propertyId);
 
     Optional<List<WishlistItem>> findByTenantUserIdOrderByCreatedAtDesc(UUID tenantUserId);
     Optional<List<UUID>> findTenantUserIdsByPropertyId(UUID propertyId);
+
+    // Keyset pages of the tenants wishlisting a property, for fan-out; served by (property_id, tenant_user_id)
+    @Query(value = "SELECT tenant_user_id FROM wishlist_items WHERE property_id = :propertyId " +
+            "ORDER BY tenant_user_id LIMIT :limit", nativeQuery = true)
+    List<UUID> findFirstRecipientPage(@Param("propertyId") UUID propertyId, @Param("limit") int limit);
+
+    @Query(value = "SELECT tenant_user_id FROM wishlist_items WHERE property_id = :propertyId " +
+            "AND tenant_user_id > :after ORDER BY tenant_user_id LIMIT :limit", nativeQuery = true)
+    List<UUID> findRecipientPageAfter(@Param("propertyId") UUID propertyId,
+                                      @Param("after") UUID after,
+                                      @Param("limit") int limit);
+
+    // Keyset pages, newest first; the row-value comparison lets the planner seek on (tenant_user_id, created_at, wishlist_item_id)
+    @Query(value = "SELECT * FROM wishlist_items WHERE tenant_user_id = :tenantUserId " +
+            "ORDER BY created_at DESC, wishlist_item_id DESC LIMIT :limit", nativeQuery = true)
+    List<WishlistItem> findFirstPageByTenantUserId(@Param("tenantUserId") UUID tenantUserId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM wishlist_items WHERE tenant_user_id = :tenantUserId " +
+            "AND (created_at, wishlist_item_id) < (:createdAt, :wishlistItemId) " +
+            "ORDER BY created_at DESC, wishlist_item_id DESC LIMIT :limit", nativeQuery = true)
+    List<WishlistItem> findPageByTenantUserIdBefore(@Param("tenantUserId") UUID tenantUserId,
+                                                    @Param("createdAt") Instant createdAt,
+                                                    @Param("wishlistItemId") UUID wishlistItemId,
+                                                    @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update WishlistItem w set w.propertyName = :name, w.propertyAddress = :address, " +
+            "w.propertyMonthlyRentPrice = :monthlyRentPrice, w.snapshotCapturedAt = :capturedAt " +
+            "where w.propertyId = :propertyId")
+    int updatePropertySnapshot(@Param("propertyId") UUID propertyId,
+                               @Param("name") String name,
+                               @Param("address") String address,
+                               @Param("monthlyRentPrice") BigDecimal monthlyRentPrice,
+                               @Param("capturedAt") Instant capturedAt);
+
+    // Tombstone for a property the Kos service no longer has: the snapshot is emptied but stays captured, so reads
+    // render the "details unavailable" placeholder without looking the property up again
+    @Transactional
+    @Modifying
+    @Query("update WishlistItem w set w.propertyName = null, w.propertyAddress = null, " +
+            "w.propertyMonthlyRentPrice = null, w.snapshotCapturedAt = :capturedAt " +
+            "where w.propertyId = :propertyId")
+    int clearPropertySnapshot(@Param("propertyId") UUID propertyId, @Param("capturedAt") Instant capturedAt);
+
+    @Query("select distinct w.propertyId from WishlistItem w " +
+            "where w.snapshotCapturedAt is null or w.snapshotCapturedAt < :capturedBefore")
+    List<UUID> findPropertyIdsWithSnapshotOlderThan(@Param("capturedBefore") Instant capturedBefore, Pageable pageable);
 }
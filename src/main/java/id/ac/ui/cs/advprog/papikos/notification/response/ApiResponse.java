@@ -11,6 +11,7 @@ public class ApiResponse<T> {
     private final int status;  // HTTP status code
     private final String message;
     private final T data;
+    private final String nextCursor; // Opaque cursor of the next page, for paginated responses only
     private final long timestamp;
 
     // Private constructor to enforce usage of the builder
@@ -18,6 +19,7 @@ public class ApiResponse<T> {
         this.status = builder.status.value(); // Get integer value from HttpStatus
         this.message = builder.message;
         this.data = builder.data;
+        this.nextCursor = builder.nextCursor;
         this.timestamp = System.currentTimeMillis();
     }
 
@@ -31,6 +33,7 @@ public class ApiResponse<T> {
         private HttpStatus status;
         private String message;
         private T data;
+        private String nextCursor;
 
         // Private constructor for the builder
         private Builder() {
@@ -51,6 +54,11 @@ public class ApiResponse<T> {
             return this;
         }
 
+        public Builder<T> nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
         // The final build method creates the ApiResponse instance
         public ApiResponse<T> build() {
             // Basic validation (optional)
@@ -0,0 +1,154 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.KeysetCursor;
+import id.ac.ui.cs.advprog.papikos.notification.model.Broadcast;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The broadcasts still shown in inboxes, those created within the last {@code notification.broadcast.active-days},
+ * held in memory so merging them into an inbox needs no query. Reloaded on a fixed interval; a broadcast sent
+ * from this node is added as soon as it commits, and broadcasts from other nodes appear at the next reload.
+ */
+@Component
+public class ActiveBroadcastCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveBroadcastCache.class);
+
+    // Inbox order, ties broken by ID as in the database, so inbox pages can seek into the list by cursor
+    static final Comparator<Broadcast> NEWEST_FIRST = Comparator
+            .comparing(Broadcast::getCreatedAt)
+            .thenComparing(Broadcast::getBroadcastId, KeysetCursor::compareIds)
+            .reversed();
+
+    private final BroadcastRepository broadcastRepository;
+    private final Duration activeFor;
+    private volatile Snapshot snapshot;
+
+    public ActiveBroadcastCache(BroadcastRepository broadcastRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${notification.broadcast.active-days:30}") long activeDays) {
+        this.broadcastRepository = broadcastRepository;
+        this.activeFor = Duration.ofDays(activeDays);
+        Gauge.builder("notification.broadcast.active", this, cache -> cache.snapshot == null ? 0 : cache.snapshot.newestFirst().size())
+                .description("Broadcasts currently merged into inboxes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the active broadcasts, newest first, ordered by {@link #NEWEST_FIRST}
+     */
+    public List<Broadcast> active() {
+        return current().newestFirst();
+    }
+
+    /**
+     * Broadcasts created at or before this instant are no longer shown and count as read.
+     */
+    public Instant cutoff() {
+        return current().cutoff();
+    }
+
+    public Optional<Broadcast> find(UUID broadcastId) {
+        return Optional.ofNullable(current().byId().get(broadcastId));
+    }
+
+    /**
+     * @return how many active broadcasts come after {@code (createdAt, id)} in inbox order, found by binary search
+     */
+    public int countNewerThan(Instant createdAt, UUID id) {
+        List<Broadcast> newestFirst = active();
+        int low = 0;
+        int high = newestFirst.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Broadcast broadcast = newestFirst.get(mid);
+            int byTime = broadcast.getCreatedAt().compareTo(createdAt);
+            if (byTime > 0 || (byTime == 0 && KeysetCursor.compareIds(broadcast.getBroadcastId(), id) > 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Scheduled(initialDelayString = "${notification.broadcast.refresh-interval-ms:30000}",
+            fixedDelayString = "${notification.broadcast.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            // Keep serving the previous set; the next refresh tries again
+            log.warn("Failed to reload active broadcasts: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a newly stored broadcast once its transaction commits, or immediately outside a transaction.
+     */
+    public void add(Broadcast broadcast) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    prepend(broadcast);
+                }
+            });
+        } else {
+            prepend(broadcast);
+        }
+    }
+
+    private synchronized void prepend(Broadcast broadcast) {
+        Snapshot current = current();
+        List<Broadcast> newestFirst = new ArrayList<>(current.newestFirst().size() + 1);
+        newestFirst.add(broadcast);
+        current.newestFirst().stream()
+                .filter(existing -> !existing.getBroadcastId().equals(broadcast.getBroadcastId()))
+                .forEach(newestFirst::add);
+        newestFirst.sort(NEWEST_FIRST);
+        snapshot = new Snapshot(newestFirst, current.cutoff());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private synchronized Snapshot load() {
+        Instant cutoff = Instant.now().minus(activeFor);
+        List<Broadcast> newestFirst = new ArrayList<>(broadcastRepository.findByCreatedAtAfterOrderByCreatedAtDesc(cutoff));
+        newestFirst.sort(NEWEST_FIRST);
+        Snapshot loaded = new Snapshot(newestFirst, cutoff);
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private record Snapshot(List<Broadcast> newestFirst, Map<UUID, Broadcast> byId, Instant cutoff) {
+
+        Snapshot(List<Broadcast> newestFirst, Instant cutoff) {
+            this(List.copyOf(newestFirst), newestFirst.stream()
+                    .collect(Collectors.toUnmodifiableMap(Broadcast::getBroadcastId, Function.identity())), cutoff);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import id.ac.ui.cs.advprog.papikos.notification.dto.KeysetCursor;
+import id.ac.ui.cs.advprog.papikos.notification.dto.NotificationDto;
+import id.ac.ui.cs.advprog.papikos.notification.model.Broadcast;
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastRead;
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastReadId;
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastReadRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastWatermarkRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Broadcasts as seen from one user's inbox. A broadcast is read when it is at or before the user's
+ * watermark, a (created at, ID) position in inbox order, or has an exception row; marking broadcasts read
+ * in order just moves the watermark, so a user's read state stays one row plus the few broadcasts read out
+ * of order. Marking is serialised per user and the watermark only ever moves forward. Each user's state is cached
+ * until they mark something read, and the broadcasts themselves come from {@link ActiveBroadcastCache},
+ * so a warm inbox read merges broadcasts without touching the database.
+ */
+@Component
+public class BroadcastInbox {
+
+    private static final Logger log = LoggerFactory.getLogger(BroadcastInbox.class);
+
+    private static final UUID HIGHEST_UUID = new UUID(-1L, -1L);
+
+    private final BroadcastRepository broadcastRepository;
+    private final BroadcastWatermarkRepository watermarkRepository;
+    private final BroadcastReadRepository readRepository;
+    private final ActiveBroadcastCache activeBroadcasts;
+    private final LoadingCache<UUID, ReadState> readStates;
+
+    public BroadcastInbox(BroadcastRepository broadcastRepository,
+                          BroadcastWatermarkRepository watermarkRepository,
+                          BroadcastReadRepository readRepository,
+                          ActiveBroadcastCache activeBroadcasts,
+                          MeterRegistry meterRegistry,
+                          @Value("${notification.broadcast.read-state.cache.maximum-size:50000}") long maximumSize,
+                          @Value("${notification.broadcast.read-state.cache.expire-after-access-ms:600000}") long expireAfterAccessMs) {
+        this.broadcastRepository = broadcastRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.readRepository = readRepository;
+        this.activeBroadcasts = activeBroadcasts;
+        this.readStates = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+                .recordStats()
+                .build(this::loadReadState);
+        CaffeineCacheMetrics.monitor(meterRegistry, readStates, "notification.broadcast.read-state");
+    }
+
+    public NotificationDto publish(String title, String message) {
+        Broadcast broadcast = new Broadcast();
+        broadcast.setTitle(title);
+        broadcast.setMessage(message);
+        // Stored with PostgreSQL's precision, so every node orders and compares the same instant
+        broadcast.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        Broadcast saved = broadcastRepository.save(broadcast);
+        activeBroadcasts.add(saved);
+        return toNotificationDto(saved, null, false);
+    }
+
+    /**
+     * @return the user's unread active broadcasts: those above the watermark, found by binary search,
+     *         less the exceptions read out of order
+     */
+    public long unreadCount(UUID userId) {
+        ReadState state = readStates.get(userId);
+        Watermark watermark = state.watermark();
+        long readAbove = state.readAboveWatermark().stream()
+                .flatMap(broadcastId -> activeBroadcasts.find(broadcastId).stream())
+                .filter(broadcast -> !watermark.covers(broadcast))
+                .count();
+        return activeBroadcasts.countNewerThan(watermark.readUpTo(), watermark.readUpToId()) - readAbove;
+    }
+
+    /**
+     * Seeks to {@code before} in the newest-first active list and returns the next entries for the user.
+     *
+     * @param before position of the last entry already shown, or null for the first page
+     * @return at most {@code limit} entries after {@code before}, newest first
+     */
+    public List<NotificationDto> page(UUID userId, boolean unreadOnly, KeysetCursor before, int limit) {
+        List<Broadcast> active = activeBroadcasts.active();
+        int from = before == null ? 0 : firstAfter(active, before);
+        if (from == active.size()) {
+            return List.of();
+        }
+        ReadState state = readStates.get(userId);
+        List<NotificationDto> entries = new ArrayList<>(Math.min(limit, active.size() - from));
+        for (int i = from; i < active.size() && entries.size() < limit; i++) {
+            Broadcast broadcast = active.get(i);
+            boolean read = state.isRead(broadcast);
+            if (!unreadOnly || !read) {
+                entries.add(toNotificationDto(broadcast, userId, read));
+            }
+        }
+        return entries;
+    }
+
+    // Binary search for the first broadcast that comes after the cursor
+    private static int firstAfter(List<Broadcast> newestFirst, KeysetCursor before) {
+        int low = 0;
+        int high = newestFirst.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Broadcast broadcast = newestFirst.get(mid);
+            if (before.isFollowedBy(broadcast.getCreatedAt(), broadcast.getBroadcastId())) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Marks a broadcast read for the user, folding any now-contiguous exceptions into the watermark.
+     * Must run inside a transaction.
+     *
+     * @return the broadcast as the user's inbox entry, or empty when no broadcast has this ID
+     */
+    public Optional<NotificationDto> markRead(UUID userId, UUID broadcastId) {
+        Optional<Broadcast> found = activeBroadcasts.find(broadcastId).or(() -> broadcastRepository.findById(broadcastId));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Broadcast broadcast = found.get();
+        watermarkRepository.lockUser(userId);
+        ReadState state = loadReadState(userId);
+        // Broadcasts past the active window are no longer shown and count as read
+        if (broadcast.getCreatedAt().isAfter(activeBroadcasts.cutoff()) && !state.isRead(broadcast)) {
+            recordRead(userId, state, Set.of(broadcastId));
+            log.info("Broadcast {} marked as read for user {}", broadcastId, userId);
+        }
+        invalidate(userId);
+        return Optional.of(toNotificationDto(broadcast, userId, true));
+    }
+
+    /**
+     * Marks every active broadcast created at or before {@code upTo} (all of them when null) read for the user.
+     * Must run inside a transaction.
+     *
+     * @return the number of broadcasts that were unread
+     */
+    public int markAllRead(UUID userId, Instant upTo) {
+        return markSelectedRead(userId, broadcast -> upTo == null || !broadcast.getCreatedAt().isAfter(upTo));
+    }
+
+    /**
+     * Marks the active broadcasts among {@code ids} read for the user; other IDs are ignored.
+     * Must run inside a transaction.
+     *
+     * @return the number of broadcasts that were unread
+     */
+    public int markRead(UUID userId, Collection<UUID> ids) {
+        Set<UUID> wanted = new HashSet<>(ids);
+        return markSelectedRead(userId, broadcast -> wanted.contains(broadcast.getBroadcastId()));
+    }
+
+    private int markSelectedRead(UUID userId, Predicate<Broadcast> selected) {
+        List<Broadcast> active = activeBroadcasts.active();
+        if (active.isEmpty()) {
+            return 0;
+        }
+        watermarkRepository.lockUser(userId);
+        ReadState state = loadReadState(userId);
+        Set<UUID> newlyRead = new HashSet<>();
+        for (Broadcast broadcast : active) {
+            if (selected.test(broadcast) && !state.isRead(broadcast)) {
+                newlyRead.add(broadcast.getBroadcastId());
+            }
+        }
+        if (!newlyRead.isEmpty()) {
+            recordRead(userId, state, newlyRead);
+            invalidate(userId);
+        }
+        return newlyRead.size();
+    }
+
+    // Folds what it can into the watermark and stores exceptions for the rest
+    private void recordRead(UUID userId, ReadState state, Set<UUID> newlyRead) {
+        Set<UUID> read = new HashSet<>(state.readAboveWatermark());
+        read.addAll(newlyRead);
+        Set<UUID> stillAbove = compact(userId, state, read);
+        Instant now = Instant.now();
+        List<BroadcastRead> exceptions = newlyRead.stream()
+                .filter(stillAbove::contains)
+                .map(broadcastId -> new BroadcastRead(new BroadcastReadId(userId, broadcastId), now))
+                .toList();
+        if (!exceptions.isEmpty()) {
+            readRepository.saveAll(exceptions);
+        }
+    }
+
+    /**
+     * Moves the watermark past the oldest unread-free run of active broadcasts and drops the exceptions it
+     * covers, along with exceptions for broadcasts that are no longer active.
+     *
+     * @return the IDs in {@code read} that remain above the watermark and still need an exception row
+     */
+    private Set<UUID> compact(UUID userId, ReadState state, Set<UUID> read) {
+        Watermark watermark = state.watermark();
+        List<Broadcast> active = activeBroadcasts.active();
+        Set<UUID> stillAbove = new HashSet<>();
+        boolean contiguous = true;
+        boolean moved = false;
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Broadcast broadcast = active.get(i);
+            if (watermark.covers(broadcast)) {
+                continue;
+            }
+            if (contiguous && read.contains(broadcast.getBroadcastId())) {
+                watermark = new Watermark(broadcast.getCreatedAt(), broadcast.getBroadcastId());
+                moved = true;
+            } else {
+                contiguous = false;
+                if (read.contains(broadcast.getBroadcastId())) {
+                    stillAbove.add(broadcast.getBroadcastId());
+                }
+            }
+        }
+        if (moved) {
+            watermarkRepository.advance(userId, watermark.readUpTo(), watermark.readUpToId(), Instant.now());
+        }
+        Set<UUID> obsolete = new HashSet<>(state.readAboveWatermark());
+        obsolete.removeAll(stillAbove);
+        if (!obsolete.isEmpty()) {
+            readRepository.deleteReads(userId, obsolete);
+        }
+        return stillAbove;
+    }
+
+    private ReadState loadReadState(UUID userId) {
+        Watermark watermark = watermarkRepository.findById(userId)
+                .map(stored -> new Watermark(stored.getReadUpTo(), stored.getReadUpToId()))
+                .orElse(new Watermark(Instant.EPOCH, HIGHEST_UUID));
+        return new ReadState(watermark, Set.copyOf(readRepository.findReadBroadcastIds(userId)));
+    }
+
+    // Dropped now and again after the transaction completes, so a concurrent read cannot re-cache the old state
+    private void invalidate(UUID userId) {
+        readStates.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    readStates.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static NotificationDto toNotificationDto(Broadcast broadcast, UUID userId, boolean read) {
+        return new NotificationDto(broadcast.getBroadcastId(), userId, NotificationType.BROADCAST, broadcast.getTitle(),
+                broadcast.getMessage(), read, null, null, broadcast.getCreatedAt());
+    }
+
+    // Ties on created-at are broken by ID in uuid order, as in the inbox, so reading one broadcast never covers its twins
+    private record Watermark(Instant readUpTo, UUID readUpToId) {
+
+        boolean covers(Broadcast broadcast) {
+            int byTime = broadcast.getCreatedAt().compareTo(readUpTo);
+            return byTime < 0 || (byTime == 0 && KeysetCursor.compareIds(broadcast.getBroadcastId(), readUpToId) <= 0);
+        }
+    }
+
+    private record ReadState(Watermark watermark, Set<UUID> readAboveWatermark) {
+
+        boolean isRead(Broadcast broadcast) {
+            return watermark.covers(broadcast) || readAboveWatermark.contains(broadcast.getBroadcastId());
+        }
+    }
+}
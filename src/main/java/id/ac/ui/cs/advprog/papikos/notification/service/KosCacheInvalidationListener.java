@@ -0,0 +1,105 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsCache;
+import id.ac.ui.cs.advprog.papikos.notification.config.RabbitMQConfig;
+import id.ac.ui.cs.advprog.papikos.notification.dto.KosUpdateEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node's {@link KosDetailsCache}, and the property snapshots on wishlist rows, in step with the Kos service.
+ * Deletions are evicted and tombstoned straight away; updates are debounced per property so a burst of edits
+ * results in a single background refresh once the burst has settled.
+ */
+@Component
+public class KosCacheInvalidationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(KosCacheInvalidationListener.class);
+
+    private final KosDetailsCache kosDetailsCache;
+    private final WishlistSnapshotRefresher wishlistSnapshotRefresher;
+    private final long debounceMs;
+    private final ScheduledExecutorService refreshScheduler;
+    private final Map<UUID, ScheduledFuture<?>> pendingRefreshes = new ConcurrentHashMap<>();
+    private final Counter collapsedUpdates;
+
+    public KosCacheInvalidationListener(KosDetailsCache kosDetailsCache,
+                                        WishlistSnapshotRefresher wishlistSnapshotRefresher,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${kos.cache.invalidation.debounce-ms:500}") long debounceMs) {
+        this.kosDetailsCache = kosDetailsCache;
+        this.wishlistSnapshotRefresher = wishlistSnapshotRefresher;
+        this.debounceMs = debounceMs;
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("kos-cache-refresh").daemon().factory());
+        this.collapsedUpdates = Counter.builder("kos.details.cache.invalidation.collapsed")
+                .description("Kos update events absorbed into an already scheduled refresh")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshScheduler.shutdownNow();
+    }
+
+    @RabbitListener(queues = "#{kosCacheInvalidationQueue.name}")
+    public void onKosEvent(KosUpdateEvent event,
+                           @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        if (event == null || event.getKosId() == null) {
+            log.warn("Ignoring Kos event without kosId on routing key {}", routingKey);
+            return;
+        }
+        if (RabbitMQConfig.ROUTING_KEY_KOS_DELETED.equals(routingKey)) {
+            onKosDeleted(event.getKosId());
+        } else {
+            onKosUpdated(event.getKosId());
+        }
+    }
+
+    void onKosDeleted(UUID kosId) {
+        log.info("Kos {} deleted; evicting cached details and wishlist snapshots", kosId);
+        ScheduledFuture<?> pending = pendingRefreshes.remove(kosId);
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        kosDetailsCache.invalidate(kosId);
+        wishlistSnapshotRefresher.markDeleted(kosId);
+    }
+
+    void onKosUpdated(UUID kosId) {
+        boolean[] scheduled = {false};
+        pendingRefreshes.computeIfAbsent(kosId, id -> {
+            scheduled[0] = true;
+            return refreshScheduler.schedule(() -> refresh(id), debounceMs, TimeUnit.MILLISECONDS);
+        });
+        if (!scheduled[0]) {
+            collapsedUpdates.increment();
+        }
+    }
+
+    private void refresh(UUID kosId) {
+        pendingRefreshes.remove(kosId);
+        log.debug("Refreshing cached details and wishlist snapshots for updated Kos {}", kosId);
+        try {
+            wishlistSnapshotRefresher.refreshNow(kosId);
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh cached details for Kos {}: {}", kosId, e.getMessage());
+        }
+    }
+}
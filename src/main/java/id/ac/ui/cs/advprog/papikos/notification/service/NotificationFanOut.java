@@ -0,0 +1,105 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.FanOutSummary;
+import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationBulkWriter;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Sends one notification to every tenant wishlisting a property without holding them all in memory.
+ * Recipients are read in keyset pages of {@code notification.fanout.chunk-size} tenant IDs, and each
+ * page of notifications is written by the {@link NotificationBulkWriter} in its own transaction, so neither
+ * the heap, a transaction nor a persistence context grows with the number of recipients. Properties whose
+ * wishlist count reaches the COPY threshold are written with COPY for the whole fan-out.
+ */
+@Component
+public class NotificationFanOut {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationFanOut.class);
+
+    private final WishlistItemRepository wishlistItemRepository;
+    private final NotificationBulkWriter notificationBulkWriter;
+    private final PropertyWishlistCounter propertyWishlistCounter;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+
+    public NotificationFanOut(WishlistItemRepository wishlistItemRepository,
+                              NotificationBulkWriter notificationBulkWriter,
+                              PropertyWishlistCounter propertyWishlistCounter,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${notification.fanout.chunk-size:500}") int chunkSize) {
+        this.wishlistItemRepository = wishlistItemRepository;
+        this.notificationBulkWriter = notificationBulkWriter;
+        this.propertyWishlistCounter = propertyWishlistCounter;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        // A chunk commits on its own even if the caller has a transaction open
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * @param notificationFor builds the notification for one recipient tenant ID
+     */
+    public FanOutSummary fanOutToWishlisters(UUID propertyId, Function<UUID, Notification> notificationFor) {
+        return fanOutToWishlisters(propertyId, null, notificationFor, recipientUserIds -> { });
+    }
+
+    /**
+     * Resumable form of the fan-out: recipients up to and including {@code resumeAfter} are skipped,
+     * and {@code onChunk} runs inside each chunk's transaction, so a checkpoint it writes commits
+     * together with that chunk's notifications.
+     *
+     * @return counts for the recipients processed by this call only
+     */
+    public FanOutSummary fanOutToWishlisters(UUID propertyId, UUID resumeAfter,
+                                             Function<UUID, Notification> notificationFor, ChunkListener onChunk) {
+        long started = System.nanoTime();
+        long recipients = 0;
+        int chunks = 0;
+        UUID after = resumeAfter;
+        boolean useCopy = notificationBulkWriter.prefersCopy(propertyWishlistCounter.getCount(propertyId));
+        while (true) {
+            List<UUID> tenantUserIds = after == null
+                    ? wishlistItemRepository.findFirstRecipientPage(propertyId, chunkSize)
+                    : wishlistItemRepository.findRecipientPageAfter(propertyId, after, chunkSize);
+            if (tenantUserIds.isEmpty()) {
+                break;
+            }
+            List<Notification> chunk = tenantUserIds.stream().map(notificationFor).toList();
+            chunkTransaction.executeWithoutResult(status -> {
+                notificationBulkWriter.write(chunk, useCopy);
+                onChunk.onChunk(tenantUserIds);
+            });
+            recipients += tenantUserIds.size();
+            chunks++;
+            log.debug("Fan-out for property {}: chunk {} stored {} notifications", propertyId, chunks, tenantUserIds.size());
+            if (tenantUserIds.size() < chunkSize) {
+                break;
+            }
+            after = tenantUserIds.get(tenantUserIds.size() - 1);
+        }
+        return new FanOutSummary(propertyId, recipients, chunks,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @FunctionalInterface
+    public interface ChunkListener {
+
+        /**
+         * @param recipientUserIds the chunk's recipients, in ascending order
+         */
+        void onChunk(List<UUID> recipientUserIds);
+    }
+}
@@ -2,6 +2,7 @@ package id.ac.ui.cs.advprog.papikos.notification.service;
 
 import id.ac.ui.cs.advprog.papikos.notification.client.*;
 import id.ac.ui.cs.advprog.papikos.notification.dto.*;
+import id.ac.ui.cs.advprog.papikos.notification.exception.BadRequestException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ConflictException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ForbiddenException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ResourceNotFoundException;
@@ -9,23 +10,49 @@ import id.ac.ui.cs.advprog.papikos.notification.exception.ServiceInteractionExce
 import id.ac.ui.cs.advprog.papikos.notification.exception.ServiceUnavailableException; // Custom one
 import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
 import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import id.ac.ui.cs.advprog.papikos.notification.model.TimeOrderedUuidGenerator;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyEvent;
 import id.ac.ui.cs.advprog.papikos.notification.model.WishlistItem;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationBulkWriter;
 import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.VacancyEventReadRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.VacancyEventRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemBatchRepository;
 import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,22 +61,86 @@ public class NotificationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
+    // Same order as the keyset queries: created_at DESC, notification_id DESC (PostgreSQL compares uuids as unsigned bytes)
+    private static final Comparator<NotificationDto> INBOX_ORDER = Comparator
+            .comparing(NotificationDto::getCreatedAt)
+            .thenComparing(NotificationDto::getNotificationId, KeysetCursor::compareIds)
+            .reversed();
+
     private final WishlistItemRepository wishlistItemRepository;
+    private final WishlistItemBatchRepository wishlistItemBatchRepository;
     private final NotificationRepository notificationRepository;
-    private final KosServiceClient kosServiceClient;
     private final RentalServiceClient rentalServiceClient;
+    private final SingleFlight<UUID, ApiResponseWrapper<RentalDetailsDto>> rentalSingleFlight;
+    private final DownstreamGuard rentalGuard;
+    private final KosDetailsCache kosDetailsCache;
+    private final WishlistSnapshotRefresher wishlistSnapshotRefresher;
+    private final WishlistMembershipCache wishlistMembershipCache;
+    private final PropertyWishlistCounter propertyWishlistCounter;
+    private final NotificationFanOut notificationFanOut;
+    private final NotificationBulkWriter notificationBulkWriter;
+    private final VacancyEventRepository vacancyEventRepository;
+    private final VacancyEventReadRepository vacancyEventReadRepository;
+    private final NotificationTemplates notificationTemplates;
+    private final BroadcastInbox broadcastInbox;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // "concurrent" hands all Kos lookups to the cache and batch loader at once, "sequential" keeps the old one-by-one behaviour
+    @Value("${wishlist.enrichment.mode:concurrent}")
+    private String enrichmentMode;
+
+    // Overall budget for enriching one wishlist; items still pending afterwards get the placeholder summary
+    @Value("${wishlist.enrichment.deadline-ms:2000}")
+    private long enrichmentDeadlineMs;
+
+    @Value("${wishlist.page.default-size:20}")
+    private int wishlistDefaultPageSize;
+
+    @Value("${wishlist.page.max-size:100}")
+    private int wishlistMaxPageSize;
+
+    @Value("${wishlist.bulk.max-operations:100}")
+    private int wishlistBulkMaxOperations;
+
+    @Value("${wishlist.membership.max-ids:200}")
+    private int wishlistMembershipMaxIds;
+
+    @Value("${wishlist.counts.max-ids:200}")
+    private int wishlistCountsMaxIds;
+
+    @Value("${notification.page.default-size:20}")
+    private int notificationDefaultPageSize;
+
+    @Value("${notification.page.max-size:100}")
+    private int notificationMaxPageSize;
+
+    @Value("${notification.mark-read.max-ids:500}")
+    private int markReadMaxIds;
+
+    @Value("${notification.internal.bulk.max-size:10000}")
+    private int internalBulkMaxSize;
+
+    // write: one notification row per wishlister | read: one vacancy event, merged into inboxes when they are read
+    @Value("${notification.fanout.mode:write}")
+    private String fanOutMode;
 
     RentalDetailsDto fetchRentalDetails(UUID rentalId) throws ResourceNotFoundException, ServiceUnavailableException, ServiceInteractionException {
         ApiResponseWrapper<RentalDetailsDto> responseWrapper;
         try {
-            responseWrapper = rentalServiceClient.getRentalDetail(rentalId);
+            responseWrapper = rentalSingleFlight.executeBlocking(rentalId,
+                    id -> rentalGuard.call(() -> rentalServiceClient.getRentalDetail(id)));
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Rental lookup for ID {} rejected locally: {}", rentalId, e.getMessage());
+            throw new ServiceUnavailableException("Rental service is currently unavailable: " + e.getMessage());
         } catch (FeignException e) {
             log.error("FeignException while fetching Rental details for ID {}: Status {}, Body {}",
                     rentalId, e.status(), e.contentUTF8(), e);
             if (e.status() == HttpStatus.NOT_FOUND.value()) {
-                throw new ResourceNotFoundException("Kos not found with ID: " + rentalId + " (via Kos Service Feign 404).", e);
+                throw new ResourceNotFoundException("Rental not found with ID: " + rentalId + " (via Rental Service Feign 404).", e);
             }
-            throw new ServiceUnavailableException("Error fetching Kos details: Kos service unavailable or unexpected Feign error. " + e.getMessage());
+            throw new ServiceUnavailableException("Error fetching Rental details: Rental service unavailable or unexpected Feign error. " + e.getMessage());
         }
         if (responseWrapper == null) {
             throw new ServiceUnavailableException("No response from Rental service for Rental ID: " + rentalId);
@@ -71,15 +162,26 @@ public class NotificationService {
     }
 
     KosDetailsDto fetchKosDetails(UUID kosId) throws ResourceNotFoundException, ServiceUnavailableException, ServiceInteractionException {
+        return readKosDetails(kosId, kosDetailsCache.load(kosId));
+    }
+
+    private KosDetailsDto readKosDetails(UUID kosId, CompletableFuture<ApiResponseWrapper<KosDetailsDto>> pendingResponse)
+            throws ResourceNotFoundException, ServiceUnavailableException, ServiceInteractionException {
         ApiResponseWrapper<KosDetailsDto> responseWrapper;
         try {
-            responseWrapper = kosServiceClient.getKosDetailsApiResponse(kosId);
+            responseWrapper = KosDetailsBatchLoader.await(pendingResponse);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Kos lookup for ID {} rejected locally: {}", kosId, e.getMessage());
+            throw new ServiceUnavailableException("Kos service is currently unavailable: " + e.getMessage());
         } catch (FeignException e) {
-            log.error("FeignException while fetching Kos details for ID {}: Status {}, Body {}",
-                    kosId, e.status(), e.contentUTF8(), e);
             if (e.status() == HttpStatus.NOT_FOUND.value()) {
+                // A deleted Kos is an expected outcome, not a fault worth a stack trace
+                log.debug("Kos service returned 404 for Kos ID {}", kosId);
                 throw new ResourceNotFoundException("Kos not found with ID: " + kosId + " (via Kos Service Feign 404).", e);
             }
+            log.error("FeignException while fetching Kos details for ID {}: Status {}, Body {}",
+                    kosId, e.status(), e.contentUTF8());
+            log.debug("Kos lookup failure for ID {}", kosId, e);
             throw new ServiceUnavailableException("Error fetching Kos details: Kos service unavailable or unexpected Feign error. " + e.getMessage());
         }
 
@@ -88,11 +190,12 @@ public class NotificationService {
         }
 
         if (responseWrapper.getStatus() != HttpStatus.OK.value()) {
-            log.warn("Kos service returned non-OK status ({}) for Kos ID {}: {}",
-                    responseWrapper.getStatus(), kosId, responseWrapper.getMessage());
             if (responseWrapper.getStatus() == HttpStatus.NOT_FOUND.value()) {
+                log.debug("Kos service reported Kos ID {} as not found: {}", kosId, responseWrapper.getMessage());
                 throw new ResourceNotFoundException("Kos not found with ID: " + kosId + " (Reported by Kos Service wrapper: " + responseWrapper.getMessage() + ")", null);
             }
+            log.warn("Kos service returned non-OK status ({}) for Kos ID {}: {}",
+                    responseWrapper.getStatus(), kosId, responseWrapper.getMessage());
             throw new ServiceInteractionException("Kos service reported an issue for Kos ID " + kosId + ": " +
                     responseWrapper.getStatus() + " - " + responseWrapper.getMessage());
         }
@@ -105,8 +208,12 @@ public class NotificationService {
     }
 
     private Optional<PropertySummaryDto> getKosAsPropertySummary(UUID kosId) {
+        return getKosAsPropertySummary(kosId, kosDetailsCache.load(kosId));
+    }
+
+    private Optional<PropertySummaryDto> getKosAsPropertySummary(UUID kosId, CompletableFuture<ApiResponseWrapper<KosDetailsDto>> pendingResponse) {
         try {
-            KosDetailsDto kosDetails = fetchKosDetails(kosId);
+            KosDetailsDto kosDetails = readKosDetails(kosId, pendingResponse);
             PropertySummaryDto propertySummary = new PropertySummaryDto(
                     kosDetails.getId(),
                     kosDetails.getName(),
@@ -123,51 +230,120 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Adds the property with a single insert-if-absent statement, so a repeated or concurrent add
+     * is reported as a conflict rather than failing on the unique constraint.
+     * The property is validated through the Kos details cache; if the Kos service is unavailable,
+     * a snapshot already stored on another wishlist row for the property is accepted instead.
+     */
     @Transactional
     public WishlistItemDto addToWishlist(UUID tenantUserId, AddToWishlistRequest request)
             throws ResourceNotFoundException, ServiceUnavailableException, ServiceInteractionException, ConflictException {
         log.info("Tenant {} attempting to add property {} to wishlist", tenantUserId, request.getPropertyId());
 
-        KosDetailsDto kosDetails;
+        PropertySummaryDto propertySummary;
+        Instant snapshotCapturedAt;
         try {
-            kosDetails = fetchKosDetails(request.getPropertyId());
+            KosDetailsDto kosDetails = fetchKosDetails(request.getPropertyId());
+            propertySummary = new PropertySummaryDto(
+                    kosDetails.getId(),
+                    kosDetails.getName(),
+                    kosDetails.getAddress(),
+                    kosDetails.getMonthlyRentPrice()
+            );
+            snapshotCapturedAt = Instant.now();
         } catch (ResourceNotFoundException e) {
             log.warn("Wishlist add failed: Property {} not found. Details: {}", request.getPropertyId(), e.getMessage());
             throw new ResourceNotFoundException("Property not found with ID: " + request.getPropertyId() + ". Cannot add to wishlist.", e);
-        } // ServiceUnavailableException and ServiceInteractionException will propagate as they are declared
-
-        if (wishlistItemRepository.existsByTenantUserIdAndPropertyId(tenantUserId, request.getPropertyId())) {
+        } catch (ServiceUnavailableException e) {
+            WishlistItem snapshotSource = wishlistItemRepository
+                    .findFirstByPropertyIdAndPropertyNameIsNotNullOrderBySnapshotCapturedAtDesc(request.getPropertyId())
+                    .orElseThrow(() -> e);
+            log.warn("Kos service unavailable; validating property {} from an existing snapshot", request.getPropertyId());
+            propertySummary = snapshotPropertySummary(snapshotSource);
+            snapshotCapturedAt = snapshotSource.getSnapshotCapturedAt();
+        } // ServiceInteractionException will propagate as it is declared
+
+        UUID wishlistItemId = TimeOrderedUuidGenerator.next();
+        Instant createdAt = Instant.now();
+        int inserted;
+        try {
+            inserted = wishlistItemRepository.insertIfAbsent(wishlistItemId, tenantUserId, request.getPropertyId(), createdAt,
+                    propertySummary.getName(), propertySummary.getAddress(), propertySummary.getMonthlyRentPrice(),
+                    snapshotCapturedAt);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Wishlist add for tenant {} and property {} violated a constraint: {}",
+                    tenantUserId, request.getPropertyId(), e.getMostSpecificCause().getMessage());
+            throw new ConflictException("Property " + request.getPropertyId() + " is already in the wishlist.");
+        }
+        if (inserted == 0) {
             log.warn("Wishlist add failed: Tenant {} already has property {} in wishlist", tenantUserId, request.getPropertyId());
             throw new ConflictException("Property " + request.getPropertyId() + " is already in the wishlist.");
         }
-
-        WishlistItem newItem = new WishlistItem(tenantUserId, request.getPropertyId());
-        WishlistItem savedItem = wishlistItemRepository.save(newItem);
+        wishlistMembershipCache.invalidate(tenantUserId);
+        propertyWishlistCounter.recordAdded(request.getPropertyId());
         log.info("Property {} added to wishlist for tenant {}", request.getPropertyId(), tenantUserId);
 
-        PropertySummaryDto propertySummary = new PropertySummaryDto(
-                kosDetails.getId(),
-                kosDetails.getName(),
-                kosDetails.getAddress(),
-                kosDetails.getMonthlyRentPrice()
-        );
-
         return new WishlistItemDto(
-                savedItem.getWishlistItemId(),
-                savedItem.getTenantUserId(),
+                wishlistItemId,
+                tenantUserId,
                 propertySummary,
-                savedItem.getCreatedAt()
+                createdAt
         );
     }
 
+    /**
+     * Returns one page of the tenant's wishlist, newest first. Only the rows on the page are enriched.
+     *
+     * @param cursor opaque cursor from the previous page, or null for the first page
+     * @param limit  page size; the configured default is used when null, and it is capped at the configured maximum
+     */
     @Transactional(readOnly = true)
-    public List<WishlistItemDto> getWishlist(UUID tenantUserId) {
-        log.debug("Fetching wishlist for tenant {}", tenantUserId);
-        List<WishlistItem> items = wishlistItemRepository.findByTenantUserId(tenantUserId);
+    public CursorPage<WishlistItemDto> getWishlist(UUID tenantUserId, String cursor, Integer limit) {
+        log.debug("Fetching wishlist page for tenant {} (cursor={}, limit={})", tenantUserId, cursor, limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = limit == null || limit <= 0 ? wishlistDefaultPageSize : Math.min(limit, wishlistMaxPageSize);
+
+        // One extra row tells us whether there is a next page
+        List<WishlistItem> rows = after == null
+                ? wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, pageSize + 1)
+                : wishlistItemRepository.findPageByTenantUserIdBefore(tenantUserId, after.getCreatedAt(), after.getId(), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<WishlistItem> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            WishlistItem last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getWishlistItemId()).encode();
+        }
+        return new CursorPage<>(toWishlistItemDtos(items), nextCursor);
+    }
+
+    private List<WishlistItemDto> toWishlistItemDtos(List<WishlistItem> items) {
+        // Rows carry a snapshot of the property; only rows that never had one need a Kos lookup right now
+        List<UUID> withoutSnapshot = items.stream()
+                .filter(item -> item.getSnapshotCapturedAt() == null)
+                .map(WishlistItem::getPropertyId)
+                .distinct()
+                .toList();
+        List<UUID> staleSnapshots = items.stream()
+                .filter(item -> wishlistSnapshotRefresher.isStale(item.getSnapshotCapturedAt()))
+                .map(WishlistItem::getPropertyId)
+                .toList();
+        Map<UUID, PropertySummaryDto> summaries = enrichPropertySummaries(withoutSnapshot);
+        if (!staleSnapshots.isEmpty()) {
+            wishlistSnapshotRefresher.refreshAsync(staleSnapshots);
+        }
 
         return items.stream().map(item -> {
-            PropertySummaryDto propertySummary = getKosAsPropertySummary(item.getPropertyId())
-                    .orElse(new PropertySummaryDto(item.getPropertyId(), "Property " + item.getPropertyId() + " (details unavailable)", "N/A", BigDecimal.ZERO));
+            PropertySummaryDto propertySummary;
+            if (item.getSnapshotCapturedAt() == null) {
+                propertySummary = summaries.getOrDefault(item.getPropertyId(), unavailablePropertySummary(item.getPropertyId()));
+            } else if (item.getPropertyName() == null) {
+                propertySummary = unavailablePropertySummary(item.getPropertyId()); // Tombstoned: the property was deleted
+            } else {
+                propertySummary = snapshotPropertySummary(item);
+            }
 
             return new WishlistItemDto(
                     item.getWishlistItemId(),
@@ -178,6 +354,78 @@ public class NotificationService {
         }).collect(Collectors.toList());
     }
 
+    private PropertySummaryDto snapshotPropertySummary(WishlistItem item) {
+        return new PropertySummaryDto(item.getPropertyId(), item.getPropertyName(),
+                item.getPropertyAddress(), item.getPropertyMonthlyRentPrice());
+    }
+
+    private PropertySummaryDto unavailablePropertySummary(UUID propertyId) {
+        return new PropertySummaryDto(propertyId, "Property " + propertyId + " (details unavailable)", "N/A", BigDecimal.ZERO);
+    }
+
+    /**
+     * Looks up the summaries of the given properties, either one after another or all at once through
+     * the batch loader (batched, or in parallel on virtual threads) bounded by a single deadline.
+     * Properties whose lookup failed or did not finish in time are absent from the returned map. A late lookup is
+     * only no longer waited for, not cancelled: its future is shared through the cache and in-flight registry, so it
+     * keeps running in the background and its result still reaches the cache for later requests.
+     */
+    Map<UUID, PropertySummaryDto> enrichPropertySummaries(List<UUID> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return Map.of();
+        }
+        boolean concurrent = !"sequential".equalsIgnoreCase(enrichmentMode);
+        Timer timer = Timer.builder("wishlist.enrichment")
+                .description("Time spent enriching a wishlist with Kos property details")
+                .tag("mode", concurrent ? "concurrent" : "sequential")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        return timer.record(() -> concurrent
+                ? enrichConcurrently(propertyIds)
+                : enrichSequentially(propertyIds));
+    }
+
+    private Map<UUID, PropertySummaryDto> enrichSequentially(List<UUID> propertyIds) {
+        Map<UUID, PropertySummaryDto> summaries = new HashMap<>();
+        for (UUID propertyId : propertyIds) {
+            getKosAsPropertySummary(propertyId).ifPresent(summary -> summaries.put(propertyId, summary));
+        }
+        return summaries;
+    }
+
+    private Map<UUID, PropertySummaryDto> enrichConcurrently(List<UUID> propertyIds) {
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> pending = kosDetailsCache.loadMany(propertyIds);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enrichmentDeadlineMs);
+        Map<UUID, PropertySummaryDto> summaries = new HashMap<>();
+        int timedOut = 0;
+        for (Map.Entry<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> entry : pending.entrySet()) {
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                entry.getValue().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Left running rather than cancelled: other requests may be waiting on the same future
+                timedOut++;
+                continue;
+            } catch (ExecutionException e) {
+                // Failure is mapped to the usual exceptions by getKosAsPropertySummary below
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            getKosAsPropertySummary(entry.getKey(), entry.getValue())
+                    .ifPresent(summary -> summaries.put(entry.getKey(), summary));
+        }
+        if (timedOut > 0) {
+            log.warn("{} of {} property lookups missed the {} ms enrichment deadline; using placeholders",
+                    timedOut, propertyIds.size(), enrichmentDeadlineMs);
+            meterRegistry.counter("wishlist.enrichment.deadline.missed").increment(timedOut);
+        }
+        return summaries;
+    }
+
     @Transactional
     public void sendUserNotification(String recipientId, NotificationType type, String title, String message, Object something, String relatedId) {
         log.warn("sendUserNotification is a generic method. Consider using more specific notification methods if possible.");
@@ -200,73 +448,323 @@ public class NotificationService {
         }
         notification.setRead(false);
         notificationRepository.save(notification);
+        unreadNotificationCounter.recordInserted(List.of(notification.getRecipientUserId()));
         log.info("Sent user notification of type {} to {} with title '{}'", type, recipientId, title);
     }
 
     @Transactional
     public void removeFromWishlist(UUID tenantUserId, UUID propertyId) {
         log.info("Tenant {} attempting to remove property {} from wishlist", tenantUserId, propertyId);
-        int deleteCount = wishlistItemRepository.deleteByTenantUserIdAndPropertyId(tenantUserId, propertyId);
+        int deleteCount = wishlistItemRepository.removeKeepingPeriod(tenantUserId, propertyId, Instant.now());
+        wishlistMembershipCache.invalidate(tenantUserId);
         if (0 == deleteCount) {
             log.warn("Wishlist remove failed: Tenant {} did not have property {} in wishlist", tenantUserId.toString(), propertyId.toString());
             throw new ResourceNotFoundException("Property " + propertyId + " not found in wishlist for this user.", null);
         }
+        propertyWishlistCounter.recordRemoved(propertyId);
         log.info("Property {} removed from wishlist for tenant {}", propertyId.toString(), tenantUserId.toString());
     }
 
+    /**
+     * Tells which of the given properties the tenant has wishlisted, from the in-memory membership set.
+     */
+    public Map<UUID, Boolean> getWishlistMembership(UUID tenantUserId, List<UUID> propertyIds) {
+        if (propertyIds == null || propertyIds.isEmpty()) {
+            return Map.of();
+        }
+        if (propertyIds.size() > wishlistMembershipMaxIds) {
+            throw new BadRequestException("At most " + wishlistMembershipMaxIds + " property IDs can be checked per request");
+        }
+        return wishlistMembershipCache.contains(tenantUserId, propertyIds);
+    }
+
+    /**
+     * Number of tenants that have wishlisted each property, from the incrementally maintained counters.
+     */
+    public Map<UUID, Long> getWishlistCounts(List<UUID> propertyIds) {
+        if (propertyIds == null || propertyIds.isEmpty()) {
+            return Map.of();
+        }
+        if (propertyIds.size() > wishlistCountsMaxIds) {
+            throw new BadRequestException("At most " + wishlistCountsMaxIds + " property IDs can be counted per request");
+        }
+        return propertyWishlistCounter.getCounts(propertyIds);
+    }
+
+    /**
+     * Applies a tenant's wishlist adds and removes in one transaction.
+     * All added properties are validated with one batched Kos lookup, and inserts and deletes are each sent
+     * as a single JDBC batch. Failures are reported per operation instead of aborting the request.
+     *
+     * @return one result per operation, in request order
+     */
+    @Transactional
+    public List<WishlistOperationResult> bulkUpdateWishlist(UUID tenantUserId, BulkWishlistRequest request) {
+        List<WishlistOperation> operations = request == null || request.getOperations() == null
+                ? List.of() : request.getOperations();
+        if (operations.size() > wishlistBulkMaxOperations) {
+            throw new BadRequestException("At most " + wishlistBulkMaxOperations + " wishlist operations are allowed per request");
+        }
+        log.info("Tenant {} applying {} bulk wishlist operations", tenantUserId, operations.size());
+
+        WishlistOperationResult[] results = new WishlistOperationResult[operations.size()];
+        // Only the last operation per property is applied
+        Map<UUID, Integer> effective = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            WishlistOperation operation = operations.get(i);
+            if (operation == null || operation.getType() == null || operation.getPropertyId() == null) {
+                results[i] = operationResult(operation, WishlistOperationStatus.INVALID, null);
+                continue;
+            }
+            Integer previous = effective.put(operation.getPropertyId(), i);
+            if (previous != null) {
+                results[previous] = operationResult(operations.get(previous), WishlistOperationStatus.SUPERSEDED, null);
+            }
+        }
+
+        List<Integer> adds = new ArrayList<>();
+        List<Integer> removes = new ArrayList<>();
+        effective.values().forEach(i -> (operations.get(i).getType() == WishlistOperationType.ADD ? adds : removes).add(i));
+
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> lookups = kosDetailsCache.loadMany(
+                adds.stream().map(i -> operations.get(i).getPropertyId()).toList());
+        List<WishlistItem> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i : adds) {
+            UUID propertyId = operations.get(i).getPropertyId();
+            try {
+                KosDetailsDto kosDetails = readKosDetails(propertyId, lookups.get(propertyId));
+                WishlistItem item = new WishlistItem(tenantUserId, propertyId);
+                item.setWishlistItemId(TimeOrderedUuidGenerator.next());
+                item.setCreatedAt(now);
+                item.setPropertyName(kosDetails.getName());
+                item.setPropertyAddress(kosDetails.getAddress());
+                item.setPropertyMonthlyRentPrice(kosDetails.getMonthlyRentPrice());
+                item.setSnapshotCapturedAt(now);
+                toInsert.add(item);
+                insertIndexes.add(i);
+            } catch (ResourceNotFoundException e) {
+                results[i] = operationResult(operations.get(i), WishlistOperationStatus.PROPERTY_NOT_FOUND, null);
+            } catch (ServiceUnavailableException | ServiceInteractionException e) {
+                results[i] = operationResult(operations.get(i), WishlistOperationStatus.PROPERTY_UNAVAILABLE, null);
+            }
+        }
+
+        int[] inserted = wishlistItemBatchRepository.insertIfAbsent(toInsert);
+        for (int j = 0; j < insertIndexes.size(); j++) {
+            int i = insertIndexes.get(j);
+            if (inserted[j] == 0) {
+                results[i] = operationResult(operations.get(i), WishlistOperationStatus.ALREADY_PRESENT, null);
+            } else {
+                results[i] = operationResult(operations.get(i), WishlistOperationStatus.ADDED, toInsert.get(j).getWishlistItemId());
+                propertyWishlistCounter.recordAdded(toInsert.get(j).getPropertyId());
+            }
+        }
+
+        int[] deleted = wishlistItemBatchRepository.delete(tenantUserId,
+                removes.stream().map(i -> operations.get(i).getPropertyId()).toList());
+        for (int j = 0; j < removes.size(); j++) {
+            int i = removes.get(j);
+            if (deleted[j] == 0) {
+                results[i] = operationResult(operations.get(i), WishlistOperationStatus.NOT_IN_WISHLIST, null);
+            } else {
+                results[i] = operationResult(operations.get(i), WishlistOperationStatus.REMOVED, null);
+                propertyWishlistCounter.recordRemoved(operations.get(i).getPropertyId());
+            }
+        }
+
+        wishlistMembershipCache.invalidate(tenantUserId);
+        log.info("Tenant {} bulk wishlist update: {} added, {} removed", tenantUserId,
+                Arrays.stream(results).filter(r -> r.getStatus() == WishlistOperationStatus.ADDED).count(),
+                Arrays.stream(results).filter(r -> r.getStatus() == WishlistOperationStatus.REMOVED).count());
+        return Arrays.asList(results);
+    }
+
+    private static WishlistOperationResult operationResult(WishlistOperation operation, WishlistOperationStatus status,
+                                                           UUID wishlistItemId) {
+        return new WishlistOperationResult(operation == null ? null : operation.getType(),
+                operation == null ? null : operation.getPropertyId(), status, wishlistItemId);
+    }
+
+    /**
+     * Returns one page of the user's inbox, newest first: their notifications merged with vacancy events and
+     * active broadcasts. Every source is read by keyset from the same {@code (createdAt, id)} position, one row
+     * more than the page, so the merged pages neither skip nor repeat entries and each costs the same however
+     * long the inbox is.
+     *
+     * @param before opaque cursor from the previous page, or null for the first page
+     * @param limit  page size; the configured default is used when null, and it is capped at the configured maximum
+     */
     @Transactional(readOnly = true)
-    public List<NotificationDto> getNotifications(UUID userId, boolean unreadOnly) {
-        log.debug("Fetching notifications for user {}, unreadOnly={}", userId, unreadOnly);
-        List<Notification> notifications;
-        if (unreadOnly) {
-            notifications = notificationRepository.findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+    public CursorPage<NotificationDto> getNotificationPage(UUID userId, boolean unreadOnly, String before, Integer limit) {
+        log.debug("Fetching notification page for user {} (unreadOnly={}, before={}, limit={})", userId, unreadOnly, before, limit);
+        KeysetCursor cursor = KeysetCursor.decode(before);
+        int pageSize = limit == null || limit <= 0 ? notificationDefaultPageSize : Math.min(limit, notificationMaxPageSize);
+
+        // One extra row from each source tells us whether there is a next page
+        List<Notification> rows;
+        if (cursor == null) {
+            rows = unreadOnly
+                    ? notificationRepository.findFirstUnreadPage(userId, pageSize + 1)
+                    : notificationRepository.findFirstPage(userId, pageSize + 1);
         } else {
-            notifications = notificationRepository.findByRecipientUserIdOrderByCreatedAtDesc(userId);
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadPageBefore(userId, cursor.getCreatedAt(), cursor.getId(), pageSize + 1)
+                    : notificationRepository.findPageBefore(userId, cursor.getCreatedAt(), cursor.getId(), pageSize + 1);
+        }
+        List<NotificationDto> merged = rows.stream().map(NotificationDto::fromEntity).collect(Collectors.toList());
+
+        List<VacancyEvent> events;
+        if (cursor == null) {
+            events = unreadOnly
+                    ? vacancyEventRepository.findFirstUnreadVisiblePage(userId, pageSize + 1)
+                    : vacancyEventRepository.findFirstVisiblePage(userId, pageSize + 1);
+        } else {
+            events = unreadOnly
+                    ? vacancyEventRepository.findUnreadVisiblePageBefore(userId, cursor.getCreatedAt(), cursor.getId(), pageSize + 1)
+                    : vacancyEventRepository.findVisiblePageBefore(userId, cursor.getCreatedAt(), cursor.getId(), pageSize + 1);
+        }
+        if (!events.isEmpty()) {
+            Set<UUID> readEventIds = unreadOnly ? Set.of() : new HashSet<>(vacancyEventReadRepository.findReadEventIds(userId,
+                    events.stream().map(VacancyEvent::getEventId).toList()));
+            events.forEach(event -> merged.add(toNotificationDto(event, userId, readEventIds.contains(event.getEventId()))));
         }
-        return notifications.stream().map(NotificationDto::fromEntity).collect(Collectors.toList());
+        merged.addAll(broadcastInbox.page(userId, unreadOnly, cursor, pageSize + 1));
+
+        merged.sort(INBOX_ORDER);
+        boolean hasMore = merged.size() > pageSize;
+        List<NotificationDto> items = hasMore ? merged.subList(0, pageSize) : merged;
+        String nextCursor = null;
+        if (hasMore) {
+            NotificationDto last = items.get(items.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getNotificationId()).encode();
+        }
+        return new CursorPage<>(new ArrayList<>(items), nextCursor);
+    }
+
+    private static NotificationDto toNotificationDto(VacancyEvent event, UUID userId, boolean read) {
+        return new NotificationDto(event.getEventId(), userId, NotificationType.WISHLIST_VACANCY, event.getTitle(),
+                event.getMessage(), read, event.getPropertyId(), null, event.getCreatedAt());
+    }
+
+    /**
+     * Unread notifications, vacancy events and broadcasts in the user's inbox, served from the maintained counter.
+     */
+    public long getUnreadCount(UUID userId) {
+        return unreadNotificationCounter.getUnreadCount(userId);
     }
 
     @Transactional
     public NotificationDto markNotificationAsRead(UUID userId, UUID notificationId) {
         log.info("User {} attempting to mark notification {} as read", userId, notificationId);
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> {
-                    log.warn("Mark as read failed: Notification {} not found", notificationId);
-                    return new ResourceNotFoundException("Notification not found with ID: " + notificationId, new NoSuchElementException("Notification not found"));
-                });
+        // Conditional UPDATE: of two concurrent requests only one flips the row, so the counter drops once
+        int marked = notificationRepository.markRead(userId, Set.of(notificationId));
+        if (marked > 0) {
+            unreadNotificationCounter.recordRead(userId, marked);
+            log.info("Notification {} marked as read for user {}", notificationId, userId);
+        }
+        Optional<Notification> stored = notificationRepository.findById(notificationId);
+        if (stored.isEmpty()) {
+            // The ID may be a broadcast or, with fan-out-on-read, a vacancy event shown in the user's inbox
+            unreadNotificationCounter.invalidate(userId);
+            return broadcastInbox.markRead(userId, notificationId)
+                    .or(() -> vacancyEventRepository.findById(notificationId).map(event -> markVacancyEventAsRead(userId, event)))
+                    .orElseThrow(() -> {
+                        log.warn("Mark as read failed: Notification {} not found", notificationId);
+                        return new ResourceNotFoundException("Notification not found with ID: " + notificationId, new NoSuchElementException("Notification not found"));
+                    });
+        }
+        Notification notification = stored.get();
 
-        if (notification.getRecipientUserId() != null && !notification.getRecipientUserId().equals(userId)) {
+        if (!notification.getRecipientUserId().equals(userId)) {
             log.warn("Mark as read failed: User {} is not the recipient of notification {}", userId, notificationId);
             throw new ForbiddenException("User is not the recipient of this notification.");
-        } else if (notification.getRecipientUserId() == null && notification.getNotificationType() == NotificationType.BROADCAST) {
-            log.warn("Mark as read attempt on BROADCAST notification {} by user {}. This operation is not supported for broadcasts via this endpoint.", notificationId, userId);
-            throw new ForbiddenException("Broadcast notifications cannot be marked as read by individual users through this endpoint.");
         }
-
-        if (!notification.isRead()) {
-            notification.setRead(true);
-            notification = notificationRepository.save(notification);
-            log.info("Notification {} marked as read for user {}", notificationId, userId);
-        } else {
+        if (marked == 0) {
             log.debug("Notification {} was already read for user {}", notificationId, userId);
         }
-
         return NotificationDto.fromEntity(notification);
     }
 
+    /**
+     * Marks the user's whole inbox read, optionally only one type of entry, and only entries created at or before
+     * {@code upTo} (now when null). Notifications are updated with one UPDATE and vacancy events with one INSERT
+     * of read markers; broadcasts just move the user's watermark.
+     *
+     * @return the number of entries that were unread
+     */
+    @Transactional
+    public int markAllNotificationsAsRead(UUID userId, NotificationType type, Instant upTo) {
+        log.info("User {} marking all notifications as read (type={}, upTo={})", userId, type, upTo);
+        Instant cutoff = upTo != null ? upTo : Instant.now();
+        int notifications = type == null
+                ? notificationRepository.markAllRead(userId, cutoff)
+                : notificationRepository.markAllReadOfType(userId, type.name(), cutoff);
+        unreadNotificationCounter.recordRead(userId, notifications);
+
+        int events = type == null || type == NotificationType.WISHLIST_VACANCY
+                ? vacancyEventReadRepository.markAllVisibleRead(userId, cutoff)
+                : 0;
+        unreadNotificationCounter.recordEventsRead(userId, events);
+        int broadcasts = type == null || type == NotificationType.BROADCAST
+                ? broadcastInbox.markAllRead(userId, cutoff)
+                : 0;
+        log.info("User {} marked {} notifications, {} vacancy events and {} broadcasts as read", userId, notifications, events, broadcasts);
+        return notifications + events + broadcasts;
+    }
+
+    /**
+     * Marks the given inbox entries read; IDs that are not in the user's inbox, or already read, are skipped.
+     *
+     * @return the number of entries that were unread
+     */
+    @Transactional
+    public int markNotificationsAsRead(UUID userId, List<UUID> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            throw new BadRequestException("At least one notification ID is required");
+        }
+        if (notificationIds.size() > markReadMaxIds) {
+            throw new BadRequestException("At most " + markReadMaxIds + " notifications can be marked at once");
+        }
+        Set<UUID> ids = new HashSet<>(notificationIds);
+        log.info("User {} marking {} notifications as read", userId, ids.size());
+        int notifications = notificationRepository.markRead(userId, ids);
+        unreadNotificationCounter.recordRead(userId, notifications);
+
+        // The other entry types only need a pass when some IDs were not unread notifications of this user
+        int events = 0;
+        int broadcasts = 0;
+        if (notifications < ids.size()) {
+            events = vacancyEventReadRepository.markVisibleRead(userId, ids);
+            unreadNotificationCounter.recordEventsRead(userId, events);
+            broadcasts = broadcastInbox.markRead(userId, ids);
+        }
+        return notifications + events + broadcasts;
+    }
+
+    private NotificationDto markVacancyEventAsRead(UUID userId, VacancyEvent event) {
+        // Inserts the read marker only if the event is in the user's inbox and has none yet
+        int marked = vacancyEventReadRepository.markVisibleRead(userId, Set.of(event.getEventId()));
+        if (marked == 0 && !vacancyEventRepository.isVisibleTo(event.getEventId(), userId)) {
+            log.warn("Mark as read failed: Vacancy event {} is not in user {}'s inbox", event.getEventId(), userId);
+            throw new ForbiddenException("User is not the recipient of this notification.");
+        }
+        if (marked > 0) {
+            unreadNotificationCounter.recordEventsRead(userId, marked);
+            log.info("Vacancy event {} marked as read for user {}", event.getEventId(), userId);
+        }
+        return toNotificationDto(event, userId, true);
+    }
+
     @Transactional
     public NotificationDto sendBroadcastNotification(BroadcastNotificationRequest request) {
         log.info("Sending broadcast notification: Title='{}'", request.getTitle());
-        Notification notification = new Notification();
-        notification.setRecipientUserId(null);
-        notification.setNotificationType(NotificationType.BROADCAST);
-        notification.setTitle(request.getTitle());
-        notification.setMessage(request.getMessage());
-        notification.setRead(false);
-
-        Notification saved = notificationRepository.save(notification);
+        // Stored once; inboxes merge it in and track who has read it
+        NotificationDto saved = broadcastInbox.publish(notificationTemplates.title(NotificationType.BROADCAST, request.getTitle()),
+                notificationTemplates.message(NotificationType.BROADCAST, request.getMessage(), Map.of()));
         log.info("Broadcast notification {} saved", saved.getNotificationId());
-        return NotificationDto.fromEntity(saved);
+        return saved;
     }
 
     @Transactional
@@ -282,20 +780,58 @@ public class NotificationService {
         notification.setRelatedRentalId(request.getRelatedRentalId());
 
         Notification saved = notificationRepository.save(notification);
+        unreadNotificationCounter.recordInserted(List.of(saved.getRecipientUserId()));
         log.info("Internal notification {} for user {} saved", saved.getNotificationId(), request.getRecipientUserId());
         return NotificationDto.fromEntity(saved);
     }
 
+    /**
+     * Stores many internal notifications in one transaction through the bulk writer,
+     * without loading them into the persistence context.
+     *
+     * @return the number of notifications stored
+     */
+    @Transactional
+    public int sendInternalNotifications(List<InternalNotificationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one notification is required");
+        }
+        if (requests.size() > internalBulkMaxSize) {
+            throw new BadRequestException("At most " + internalBulkMaxSize + " notifications can be sent at once");
+        }
+        List<Notification> notifications = new ArrayList<>(requests.size());
+        for (InternalNotificationRequest request : requests) {
+            if (request.getRecipientUserId() == null || request.getType() == null
+                    || request.getTitle() == null || request.getMessage() == null) {
+                throw new BadRequestException("recipientUserId, type, title and message are required");
+            }
+            Notification notification = new Notification();
+            notification.setRecipientUserId(request.getRecipientUserId());
+            notification.setNotificationType(request.getType());
+            notification.setTitle(request.getTitle());
+            notification.setMessage(request.getMessage());
+            notification.setRead(false);
+            notification.setRelatedPropertyId(request.getRelatedPropertyId());
+            notification.setRelatedRentalId(request.getRelatedRentalId());
+            notifications.add(notification);
+        }
+        int written = notificationBulkWriter.write(notifications);
+        unreadNotificationCounter.recordInserted(notifications.stream().map(Notification::getRecipientUserId).toList());
+        log.info("Stored {} internal notifications", written);
+        return written;
+    }
+
     @Transactional
     public void notifyApprovedAccount(UUID recipientId) {
         log.info("Notifying approved account for recipient {}", recipientId);
         Notification notification = new Notification();
         notification.setRecipientUserId(recipientId);
         notification.setNotificationType(NotificationType.ACCOUNT_APPROVED);
-        notification.setTitle("Account Approved");
-        notification.setMessage("Congratulations! Your Papikos account has been approved.");
+        notification.setTitle(notificationTemplates.title(NotificationType.ACCOUNT_APPROVED, null));
+        notification.setMessage(notificationTemplates.message(NotificationType.ACCOUNT_APPROVED, null, Map.of()));
         notification.setRead(false);
         notificationRepository.save(notification);
+        unreadNotificationCounter.recordInserted(List.of(recipientId));
         log.info("Account approved notification sent to {}", recipientId);
     }
 
@@ -310,13 +846,15 @@ public class NotificationService {
         Notification notification = new Notification();
         notification.setRecipientUserId(request.getRecipientId());
         notification.setNotificationType(NotificationType.RENTAL_UPDATE);
-        notification.setTitle(request.getTitle());
-        notification.setMessage(request.getMessage());
+        notification.setTitle(notificationTemplates.title(NotificationType.RENTAL_UPDATE, request.getTitle()));
+        notification.setMessage(notificationTemplates.message(NotificationType.RENTAL_UPDATE, request.getMessage(),
+                Map.of(NotificationTemplates.PROPERTY_NAME, kosDetails.getName() != null ? kosDetails.getName() : "your property")));
         notification.setRelatedRentalId(request.getRelatedRentalId());
         notification.setRelatedPropertyId(request.getRelatedPropertyId());
         notification.setRead(false);
 
         Notification savedNotification = notificationRepository.save(notification);
+        unreadNotificationCounter.recordInserted(List.of(savedNotification.getRecipientUserId()));
         log.info("Rental update notification {} created for rental {} concerning property {} (Name: {})",
                 savedNotification.getNotificationId(), request.getRelatedRentalId(), kosDetails.getId(), kosDetails.getName());
 
@@ -330,56 +868,92 @@ public class NotificationService {
         Notification notification = new Notification();
         notification.setRecipientUserId(recipientId);
         notification.setNotificationType(NotificationType.PAYMENT_UPDATE);
-        notification.setTitle(title);
-        notification.setMessage(message);
+        notification.setTitle(notificationTemplates.title(NotificationType.PAYMENT_UPDATE, title));
+        notification.setMessage(notificationTemplates.message(NotificationType.PAYMENT_UPDATE, message, Map.of()));
         notification.setRelatedRentalId(rentalId);
         notification.setRead(false);
 
         notificationRepository.save(notification);
+        unreadNotificationCounter.recordInserted(List.of(recipientId));
         log.info("Payment update notification sent for rental {} to recipient {}", rentalId, recipientId);
     }
 
-    @Transactional
-    public List<NotificationDto> notifyWishlistUsersOnVacancy(VacancyUpdateNotification request) {
-        log.info("Processing vacancy notification for property {}", request.getRelatedPropertyId());
+    /**
+     * Notifies every tenant wishlisting the property. Recipients are streamed and written in chunks,
+     * each in its own transaction, so the method deliberately runs outside a transaction.
+     */
+    public FanOutSummary notifyWishlistUsersOnVacancy(VacancyUpdateNotification request) {
+        return notifyWishlistUsersOnVacancy(TimeOrderedUuidGenerator.next(), request, null, recipientUserIds -> { });
+    }
 
-        String propertyName = getKosAsPropertySummary(request.getRelatedPropertyId())
+    /**
+     * Resumable fan-out used by vacancy fan-out jobs: starts after the {@code resumeAfter} recipient and
+     * reports each committed chunk to {@code onChunk} from inside that chunk's transaction. Fan-out-on-read
+     * records at most one event per {@code announcementId}, so re-running an announcement is harmless.
+     */
+    public FanOutSummary notifyWishlistUsersOnVacancy(UUID announcementId, VacancyUpdateNotification request,
+                                                      UUID resumeAfter, NotificationFanOut.ChunkListener onChunk) {
+        UUID propertyId = request.getRelatedPropertyId();
+        log.info("Processing vacancy notification for property {}", propertyId);
+
+        String propertyName = getKosAsPropertySummary(propertyId)
                 .map(PropertySummaryDto::getName)
-                .orElse("Property " + request.getRelatedPropertyId() + " (details unavailable)");
+                .orElse("Property " + propertyId + " (details unavailable)");
 
-        List<WishlistItem> wishlistItems = wishlistItemRepository.findByPropertyId(request.getRelatedPropertyId());
+        // Rendered once for the whole fan-out; every recipient's row shares the same strings
+        String title = notificationTemplates.title(NotificationType.WISHLIST_VACANCY, request.getTitle());
+        String renderedMessage = notificationTemplates.message(NotificationType.WISHLIST_VACANCY, request.getMessage(),
+                Map.of(NotificationTemplates.PROPERTY_NAME, propertyName));
 
-        if (wishlistItems.isEmpty()) {
-            log.info("No users found wishlisting property {} (Name: {})", request.getRelatedPropertyId(), propertyName);
-            return List.of();
+        if ("read".equalsIgnoreCase(fanOutMode)) {
+            return recordVacancyEvent(announcementId, propertyId, title, renderedMessage);
         }
 
-        log.info("Found {} users wishlisting property {} (Name: {}). Preparing notifications.",
-                wishlistItems.size(), request.getRelatedPropertyId(), propertyName);
-
-        List<Notification> notificationsToSend = wishlistItems.stream().map(item -> {
+        FanOutSummary summary = notificationFanOut.fanOutToWishlisters(propertyId, resumeAfter, recipientUserId -> {
             Notification notification = new Notification();
-            notification.setRecipientUserId(item.getTenantUserId());
+            notification.setRecipientUserId(recipientUserId);
             notification.setNotificationType(NotificationType.WISHLIST_VACANCY);
-            notification.setTitle(request.getTitle());
-
-            String message = request.getMessage();
-            if (message != null && message.contains("%s")) {
-                message = String.format(message, propertyName);
-            } else if (message == null || message.isBlank()) { // Use default if message is null or blank
-                message = "A property on your wishlist, " + propertyName + ", now has a vacancy!";
-            } // else use the provided message as is
-
-            notification.setMessage(message);
+            notification.setTitle(title);
+            notification.setMessage(renderedMessage);
             notification.setRead(false);
-            notification.setRelatedPropertyId(request.getRelatedPropertyId());
+            notification.setRelatedPropertyId(propertyId);
             return notification;
-        }).collect(Collectors.toList());
+        }, recipientUserIds -> {
+            // Inside the chunk's transaction, after its rows are written
+            unreadNotificationCounter.recordInserted(recipientUserIds);
+            onChunk.onChunk(recipientUserIds);
+        });
+
+        if (summary.getRecipientCount() == 0) {
+            log.info("No users found wishlisting property {} (Name: {})", propertyId, propertyName);
+        } else {
+            log.info("Sent {} vacancy notifications for property {} (Name: {}) in {} chunks, {} ms",
+                    summary.getRecipientCount(), propertyId, propertyName, summary.getChunkCount(), summary.getDurationMs());
+        }
+        return summary;
+    }
 
-        if (!notificationsToSend.isEmpty()) {
-            notificationRepository.saveAll(notificationsToSend);
-            log.info("Sent {} vacancy notifications for property {} (Name: {})", notificationsToSend.size(), request.getRelatedPropertyId(), propertyName);
+    /**
+     * Fan-out-on-read: stores the vacancy once; wishlisters see it through {@link #getNotificationPage}.
+     */
+    private FanOutSummary recordVacancyEvent(UUID announcementId, UUID propertyId, String title, String message) {
+        long started = System.nanoTime();
+        UUID eventId = TimeOrderedUuidGenerator.next();
+        long audience = propertyWishlistCounter.getCount(propertyId);
+        // The event and its wishlisters' unread counts commit together
+        Boolean recorded = transactionTemplate.execute(status -> {
+            Instant createdAt = Instant.now();
+            if (vacancyEventRepository.insertIfAbsent(eventId, announcementId, propertyId, title, message, createdAt) == 0) {
+                return false;
+            }
+            unreadNotificationCounter.recordVacancyEvent(propertyId, createdAt);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(recorded)) {
+            log.info("Vacancy event for announcement {} of property {} was already recorded", announcementId, propertyId);
+        } else {
+            log.info("Recorded vacancy event {} for property {} (~{} wishlisters)", eventId, propertyId, audience);
         }
-        return notificationsToSend.stream().map(NotificationDto::fromEntity).collect(Collectors.toList());
+        return new FanOutSummary(propertyId, audience, 1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A notification text parsed once into literal segments and named {@code {parameter}} placeholders.
+ * {@code {{} and {@code }}} stand for literal braces, and {@code %s} is accepted as the older spelling of
+ * {@code {propertyName}}. A template without placeholders renders to the same shared string every time.
+ * Placeholders with no value in the parameter map are left in the output as written.
+ */
+public final class NotificationTemplate {
+
+    static final String LEGACY_POSITIONAL_PARAMETER = "propertyName";
+
+    private final String[] literals; // One more than parameters: literal, parameter, literal, ...
+    private final String[] parameters;
+    private final String constant;
+    private final int literalLength;
+
+    private NotificationTemplate(List<String> literals, List<String> parameters) {
+        this.literals = literals.toArray(String[]::new);
+        this.parameters = parameters.toArray(String[]::new);
+        this.constant = parameters.isEmpty() ? this.literals[0] : null;
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static NotificationTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if ((c == '{' || c == '}') && i + 1 < source.length() && source.charAt(i + 1) == c) {
+                literal.append(c);
+                i += 2;
+            } else if (c == '%' && source.startsWith("%s", i)) {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                parameters.add(LEGACY_POSITIONAL_PARAMETER);
+                i += 2;
+            } else if (c == '{' && parameterEnd(source, i) > 0) {
+                int end = parameterEnd(source, i);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                parameters.add(source.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+        return new NotificationTemplate(literals, parameters);
+    }
+
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    public String render(Map<String, ?> values) {
+        if (constant != null) {
+            return constant;
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(parameters[i]);
+            if (value != null) {
+                out.append(value);
+            } else {
+                out.append('{').append(parameters[i]).append('}');
+            }
+        }
+        return out.append(literals[parameters.length]).toString();
+    }
+
+    // Index of the closing brace of a {name} placeholder starting at open, or -1 if there is none
+    private static int parameterEnd(String source, int open) {
+        int i = open + 1;
+        if (i >= source.length() || !Character.isLetter(source.charAt(i))) {
+            return -1;
+        }
+        while (i < source.length() && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) {
+            i++;
+        }
+        return i < source.length() && source.charAt(i) == '}' ? i : -1;
+    }
+}
@@ -0,0 +1,67 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Default title and message per {@link NotificationType}, compiled once at startup. Callers may supply
+ * their own text instead. Only vacancy alerts, whose text is written for the property name to be filled in,
+ * treat it as a template, compiled on first use and cached so a text sent repeatedly is parsed once; every
+ * other type keeps the caller's text exactly as sent.
+ */
+@Component
+public class NotificationTemplates {
+
+    public static final String PROPERTY_NAME = "propertyName";
+
+    private static final Set<NotificationType> TEMPLATED_SUPPLIED_TEXT = EnumSet.of(NotificationType.WISHLIST_VACANCY);
+
+    private final Map<NotificationType, NotificationTemplate> titles = new EnumMap<>(NotificationType.class);
+    private final Map<NotificationType, NotificationTemplate> messages = new EnumMap<>(NotificationType.class);
+    private final Cache<String, NotificationTemplate> supplied = Caffeine.newBuilder().maximumSize(1_000).build();
+
+    public NotificationTemplates() {
+        register(NotificationType.BROADCAST, "Announcement", "");
+        register(NotificationType.WISHLIST_VACANCY, "Vacancy Alert",
+                "A property on your wishlist, {propertyName}, now has a vacancy!");
+        register(NotificationType.RENTAL_UPDATE, "Rental Update",
+                "There is an update on your rental at {propertyName}.");
+        register(NotificationType.PAYMENT_UPDATE, "Payment Update",
+                "There is an update on the payment for your rental.");
+        register(NotificationType.ACCOUNT_APPROVED, "Account Approved",
+                "Congratulations! Your Papikos account has been approved.");
+    }
+
+    /**
+     * @return {@code supplied} when it is not blank, otherwise the type's default title
+     */
+    public String title(NotificationType type, String supplied) {
+        return supplied != null && !supplied.isBlank() ? supplied : titles.get(type).render(Map.of());
+    }
+
+    /**
+     * @return {@code supplied} when it is not blank, rendered as a template for vacancy alerts and verbatim
+     *         otherwise; the type's default message rendered with {@code values} when it is blank
+     */
+    public String message(NotificationType type, String supplied, Map<String, ?> values) {
+        if (supplied == null || supplied.isBlank()) {
+            return messages.get(type).render(values);
+        }
+        if (!TEMPLATED_SUPPLIED_TEXT.contains(type)) {
+            return supplied;
+        }
+        return this.supplied.get(supplied, NotificationTemplate::compile).render(values);
+    }
+
+    private void register(NotificationType type, String title, String message) {
+        titles.put(type, NotificationTemplate.compile(title));
+        messages.put(type, NotificationTemplate.compile(message));
+    }
+}
@@ -0,0 +1,201 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.PropertyWishlistCount;
+import id.ac.ui.cs.advprog.papikos.notification.repository.PropertyWishlistCountBatchRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.PropertyWishlistCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-property wishlist counts, maintained incrementally instead of counted from {@code wishlist_items}.
+ * Adds and removes land in a striped {@link LongAdder} per property once their transaction commits,
+ * and the accumulated deltas are written to {@code property_wishlist_counts} in one batch per flush.
+ * Reads are a primary-key lookup plus this node's unflushed delta; deltas held by other nodes
+ * become visible after their next flush. Accumulators of properties idle for a whole flush interval are dropped.
+ */
+@Component
+public class PropertyWishlistCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyWishlistCounter.class);
+
+    private final PropertyWishlistCountRepository countRepository;
+    private final PropertyWishlistCountBatchRepository countBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter flushedProperties;
+    private final boolean backfillOnStartup;
+
+    private final ConcurrentMap<UUID, LongAdder> pending = new ConcurrentHashMap<>();
+    // Accumulators pruned by the previous flush, drained once more by the next one: an update that fetched the
+    // accumulator just before it was removed lands within microseconds, long before that next flush
+    private Map<UUID, LongAdder> retired = Map.of();
+    // Until this node's startup backfill check has run, deltas are held rather than flushed
+    private volatile boolean backfillPending;
+
+    public PropertyWishlistCounter(PropertyWishlistCountRepository countRepository,
+                                   PropertyWishlistCountBatchRepository countBatchRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${wishlist.counts.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.countRepository = countRepository;
+        this.countBatchRepository = countBatchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillOnStartup = backfillOnStartup;
+        this.backfillPending = backfillOnStartup;
+        this.flushedProperties = Counter.builder("wishlist.counts.flushed")
+                .description("Property counters updated by wishlist count flushes")
+                .register(meterRegistry);
+    }
+
+    public void recordAdded(UUID propertyId) {
+        record(propertyId, 1);
+    }
+
+    public void recordRemoved(UUID propertyId) {
+        record(propertyId, -1);
+    }
+
+    public long getCount(UUID propertyId) {
+        return getCounts(List.of(propertyId)).get(propertyId);
+    }
+
+    /**
+     * @return the wishlist count of each requested property, in request order; unknown properties count zero
+     */
+    public Map<UUID, Long> getCounts(Collection<UUID> propertyIds) {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        propertyIds.forEach(propertyId -> counts.put(propertyId, 0L));
+        for (PropertyWishlistCount stored : countRepository.findAllById(counts.keySet())) {
+            counts.put(stored.getPropertyId(), stored.getWishlistCount());
+        }
+        counts.replaceAll((propertyId, count) -> {
+            LongAdder delta = pending.get(propertyId);
+            return Math.max(0L, delta == null ? count : count + delta.sum());
+        });
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${wishlist.counts.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        if (backfillPending) {
+            return;
+        }
+        Map<UUID, Long> deltas = new HashMap<>();
+        retired.forEach((propertyId, adder) -> collect(deltas, propertyId, adder.sumThenReset()));
+        retired = Map.of();
+        List<UUID> idle = new ArrayList<>();
+        pending.forEach((propertyId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                collect(deltas, propertyId, delta);
+            } else {
+                idle.add(propertyId);
+            }
+        });
+        if (!deltas.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> countBatchRepository.addDeltas(deltas, Instant.now()));
+                flushedProperties.increment(deltas.size());
+            } catch (RuntimeException e) {
+                // Put the deltas back so the next flush retries them
+                log.warn("Failed to flush wishlist counts for {} properties: {}", deltas.size(), e.getMessage());
+                deltas.forEach(this::accumulate);
+                return;
+            }
+        }
+        prune(idle);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Seeds the counter table from {@code wishlist_items} the first time the service starts with an empty table.
+     * Nodes starting together take an advisory lock, so only the first one seeds and the others see the seeded table.
+     * Deltas this node recorded before seeding are already in {@code wishlist_items}, so they are dropped rather
+     * than flushed on top of the seed; nodes report ready only after this listener returns.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            Integer properties = transactionTemplate.execute(status -> {
+                countRepository.lockForBackfill();
+                if (countRepository.count() > 0) {
+                    return null;
+                }
+                pending.values().forEach(LongAdder::reset);
+                return countRepository.backfillFromWishlistItems();
+            });
+            if (properties != null) {
+                log.info("Backfilled wishlist counts for {} properties", properties);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Wishlist count backfill failed: {}", e.getMessage());
+        } finally {
+            backfillPending = false;
+        }
+    }
+
+    private void record(UUID propertyId, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(propertyId, delta);
+                }
+            });
+        } else {
+            accumulate(propertyId, delta);
+        }
+    }
+
+    private void accumulate(UUID propertyId, long delta) {
+        pending.computeIfAbsent(propertyId, id -> new LongAdder()).add(delta);
+    }
+
+    private static void collect(Map<UUID, Long> deltas, UUID propertyId, long delta) {
+        if (delta != 0) {
+            deltas.merge(propertyId, delta, Long::sum);
+        }
+    }
+
+    // Drops accumulators with nothing to flush for a whole interval; the removed ones are drained again next flush
+    private void prune(List<UUID> idle) {
+        Map<UUID, LongAdder> pruned = new HashMap<>();
+        for (UUID propertyId : idle) {
+            LongAdder adder = pending.get(propertyId);
+            if (adder != null && adder.sum() == 0 && pending.remove(propertyId, adder)) {
+                pruned.put(propertyId, adder);
+            }
+        }
+        retired = pruned;
+    }
+}
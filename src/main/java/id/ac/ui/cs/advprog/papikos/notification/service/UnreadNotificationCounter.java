@@ -0,0 +1,186 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationUnreadCountBatchRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationUnreadCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The unread badge. Unread notification rows and unread vacancy events are counted in
+ * {@code notification_unread_counts}, updated in the same transaction that inserts notifications or records an
+ * event and in the one that marks them read. Unread broadcasts are counted in memory from the user's broadcast
+ * watermark. Loading a badge is therefore one primary-key read; loaded badges are cached per user and dropped
+ * whenever this node changes that user's inbox, so repeated badge reads do not touch the database; changes made
+ * on other nodes show up once the entry expires.
+ * <p>
+ * A reconciliation pass recounts every counter from the rows. It locks a page of counters before counting, so a
+ * writer that changes a counter during the pass waits for it and then applies its delta on top of the recount.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+    private static final UUID LOWEST_UUID = new UUID(0L, 0L);
+
+    private final NotificationUnreadCountRepository countRepository;
+    private final NotificationUnreadCountBatchRepository countBatchRepository;
+    private final BroadcastInbox broadcastInbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter repairedCounters;
+    private final int reconcileBatchSize;
+    private final LoadingCache<UUID, Long> badges;
+
+    public UnreadNotificationCounter(NotificationUnreadCountRepository countRepository,
+                                     NotificationUnreadCountBatchRepository countBatchRepository,
+                                     BroadcastInbox broadcastInbox,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notification.unread-count.cache.maximum-size:100000}") long maximumSize,
+                                     @Value("${notification.unread-count.cache.expire-after-write-ms:30000}") long expireAfterWriteMs,
+                                     @Value("${notification.unread-count.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.countRepository = countRepository;
+        this.countBatchRepository = countBatchRepository;
+        this.broadcastInbox = broadcastInbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.repairedCounters = Counter.builder("notification.unread-count.repaired")
+                .description("Unread counters corrected by reconciliation")
+                .register(meterRegistry);
+        this.badges = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build(this::loadBadge);
+        CaffeineCacheMetrics.monitor(meterRegistry, badges, "notification.unread-count");
+    }
+
+    public long getUnreadCount(UUID userId) {
+        return badges.get(userId);
+    }
+
+    /**
+     * Counts newly inserted unread notifications, one per entry. Call inside the inserting transaction.
+     */
+    public void recordInserted(Collection<UUID> recipientUserIds) {
+        if (recipientUserIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Long> deltas = new HashMap<>();
+        recipientUserIds.forEach(userId -> deltas.merge(userId, 1L, Long::sum));
+        countBatchRepository.addDeltas(deltas, Instant.now());
+        invalidate(deltas.keySet());
+    }
+
+    /**
+     * Uncounts notifications that the user just marked read. Call inside the updating transaction.
+     */
+    public void recordRead(UUID userId, long count) {
+        if (count > 0) {
+            countBatchRepository.addDeltas(Map.of(userId, -count), Instant.now());
+        }
+        invalidate(Set.of(userId));
+    }
+
+    /**
+     * Counts a vacancy event just recorded at {@code createdAt} as unread for the property's wishlisters.
+     * Call inside the recording transaction.
+     */
+    public void recordVacancyEvent(UUID propertyId, Instant createdAt) {
+        List<UUID> counted = countRepository.addVacancyEvent(propertyId, createdAt, Instant.now());
+        invalidate(Set.copyOf(counted));
+    }
+
+    /**
+     * Uncounts vacancy events that the user just marked read. Call inside the updating transaction.
+     */
+    public void recordEventsRead(UUID userId, long count) {
+        if (count > 0) {
+            countRepository.subtractReadEvents(userId, count, Instant.now());
+        }
+        invalidate(Set.of(userId));
+    }
+
+    /**
+     * Drops the user's cached badge, for changes the counter table does not track (broadcasts).
+     */
+    public void invalidate(UUID userId) {
+        invalidate(Set.of(userId));
+    }
+
+    @Scheduled(initialDelayString = "${notification.unread-count.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${notification.unread-count.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            Integer created = transactionTemplate.execute(status ->
+                    countRepository.insertMissing() + countRepository.insertMissingForVacancyEvents());
+            long repaired = 0;
+            UUID after = LOWEST_UUID;
+            while (true) {
+                UUID pageAfter = after;
+                ReconciledPage page = transactionTemplate.execute(status -> {
+                    List<UUID> userIds = countRepository.lockPageAfter(pageAfter, reconcileBatchSize);
+                    return new ReconciledPage(userIds, userIds.isEmpty() ? 0 : countRepository.reconcile(userIds));
+                });
+                if (page == null || page.userIds().isEmpty()) {
+                    break;
+                }
+                repaired += page.repaired();
+                after = page.userIds().get(page.userIds().size() - 1);
+                if (page.userIds().size() < reconcileBatchSize) {
+                    break;
+                }
+            }
+            repairedCounters.increment(repaired);
+            if (repaired > 0 || (created != null && created > 0)) {
+                log.info("Unread count reconciliation: {} counters created, {} corrected", created, repaired);
+                badges.invalidateAll();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unread count reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private long loadBadge(UUID userId) {
+        long counted = countRepository.findById(userId)
+                .map(count -> count.getUnreadCount() + count.getUnreadEventCount())
+                .orElse(0L);
+        return counted + broadcastInbox.unreadCount(userId);
+    }
+
+    // Dropped now and again after the transaction completes, so a concurrent read cannot re-cache the old count
+    private void invalidate(Set<UUID> userIds) {
+        badges.invalidateAll(userIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    badges.invalidateAll(userIds);
+                }
+            });
+        }
+    }
+
+    private record ReconciledPage(List<UUID> userIds, int repaired) {
+    }
+}
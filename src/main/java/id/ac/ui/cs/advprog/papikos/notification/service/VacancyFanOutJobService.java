@@ -0,0 +1,238 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.FanOutSummary;
+import id.ac.ui.cs.advprog.papikos.notification.dto.VacancyFanOutJobDto;
+import id.ac.ui.cs.advprog.papikos.notification.dto.VacancyUpdateNotification;
+import id.ac.ui.cs.advprog.papikos.notification.exception.BadRequestException;
+import id.ac.ui.cs.advprog.papikos.notification.exception.ResourceNotFoundException;
+import id.ac.ui.cs.advprog.papikos.notification.model.FanOutJobState;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyFanOutJob;
+import id.ac.ui.cs.advprog.papikos.notification.repository.VacancyFanOutJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs vacancy fan-outs as persisted background jobs on the bounded {@code vacancyFanOutExecutor}.
+ * The first update for a property is dispatched at once; updates following it within the coalescing
+ * window wait for the window to close in one queued job, which later updates only replace the message of,
+ * so rooms freeing up one by one produce one more fan-out rather than one each. Each chunk commits together
+ * with the job's checkpoint, and jobs abandoned by a stopped node are picked up again by the resume
+ * sweep, continuing after their last checkpoint.
+ */
+@Service
+public class VacancyFanOutJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(VacancyFanOutJobService.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final VacancyFanOutJobRepository jobRepository;
+    private final NotificationService notificationService;
+    private final PropertyWishlistCounter propertyWishlistCounter;
+    private final ExecutorService vacancyFanOutExecutor;
+    private final long staleAfterMs;
+    private final int resumeBatchSize;
+    private final long coalesceWindowMs;
+    private final Set<UUID> dispatched = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+
+    public VacancyFanOutJobService(VacancyFanOutJobRepository jobRepository,
+                                   NotificationService notificationService,
+                                   PropertyWishlistCounter propertyWishlistCounter,
+                                   @Qualifier("vacancyFanOutExecutor") ExecutorService vacancyFanOutExecutor,
+                                   @Value("${notification.fanout.jobs.stale-after-ms:60000}") long staleAfterMs,
+                                   @Value("${notification.fanout.jobs.resume-batch-size:20}") int resumeBatchSize,
+                                   @Value("${notification.fanout.coalesce.window-ms:30000}") long coalesceWindowMs) {
+        this.jobRepository = jobRepository;
+        this.notificationService = notificationService;
+        this.propertyWishlistCounter = propertyWishlistCounter;
+        this.vacancyFanOutExecutor = vacancyFanOutExecutor;
+        this.staleAfterMs = staleAfterMs;
+        this.resumeBatchSize = resumeBatchSize;
+        this.coalesceWindowMs = coalesceWindowMs;
+    }
+
+    /**
+     * Folds the request into the property's pending job when its coalescing window is still open.
+     * Otherwise persists a new job, due at the end of the window when the property's previous job was
+     * scheduled within it, and due now, handed to the executor once the job row has committed, when not.
+     */
+    @Transactional
+    public VacancyFanOutJobDto submit(VacancyUpdateNotification request, UUID requestedBy) {
+        if (request.getRelatedPropertyId() == null || request.getTitle() == null || request.getTitle().isBlank()) {
+            throw new BadRequestException("relatedPropertyId and title are required");
+        }
+        UUID propertyId = request.getRelatedPropertyId();
+        jobRepository.lockProperty(propertyId);
+        Instant now = Instant.now();
+        if (coalesceWindowMs > 0 && jobRepository.coalesceInto(propertyId, request.getTitle(), request.getMessage(),
+                requestedBy, FanOutJobState.QUEUED, now) > 0) {
+            VacancyFanOutJob pending = jobRepository
+                    .findFirstByPropertyIdAndStateOrderByScheduledAtDesc(propertyId, FanOutJobState.QUEUED)
+                    .orElseThrow();
+            log.info("Coalesced vacancy update for property {} into job {} ({} folded so far)",
+                    propertyId, pending.getJobId(), pending.getCoalescedCount());
+            return VacancyFanOutJobDto.fromEntity(pending);
+        }
+
+        Instant scheduledAt = now;
+        if (coalesceWindowMs > 0) {
+            Instant windowStart = now.minusMillis(coalesceWindowMs);
+            scheduledAt = jobRepository.findFirstByPropertyIdOrderByScheduledAtDesc(propertyId)
+                    .map(VacancyFanOutJob::getScheduledAt)
+                    .filter(previous -> previous.isAfter(windowStart))
+                    .map(previous -> previous.plusMillis(coalesceWindowMs))
+                    .orElse(now);
+        }
+
+        VacancyFanOutJob job = new VacancyFanOutJob();
+        job.setPropertyId(propertyId);
+        job.setTitle(request.getTitle());
+        job.setMessage(request.getMessage());
+        job.setRequestedBy(requestedBy);
+        job.setState(FanOutJobState.QUEUED);
+        job.setTotalCount(propertyWishlistCounter.getCount(propertyId));
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        job.setScheduledAt(scheduledAt);
+        VacancyFanOutJob saved = jobRepository.save(job);
+        log.info("Queued vacancy fan-out job {} for property {} (~{} recipients), due at {}",
+                saved.getJobId(), propertyId, saved.getTotalCount(), saved.getScheduledAt());
+
+        if (!scheduledAt.isAfter(now)) {
+            UUID jobId = saved.getJobId();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        dispatch(jobId);
+                    }
+                });
+            } else {
+                dispatch(jobId);
+            }
+        }
+        return VacancyFanOutJobDto.fromEntity(saved);
+    }
+
+    public VacancyFanOutJobDto getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .map(VacancyFanOutJobDto::fromEntity)
+                .orElseThrow(() -> new ResourceNotFoundException("Vacancy fan-out job not found: " + jobId, null));
+    }
+
+    /**
+     * Dispatches queued jobs whose coalescing window has closed, including any the executor turned away.
+     */
+    @Scheduled(fixedDelayString = "${notification.fanout.coalesce.dispatch-interval-ms:1000}")
+    public void dispatchDueJobs() {
+        jobRepository.findDueJobIds(FanOutJobState.QUEUED, Instant.now(), PageRequest.ofSize(resumeBatchSize))
+                .forEach(this::dispatch);
+    }
+
+    /**
+     * Re-dispatches running jobs without progress for longer than the stale timeout, i.e. abandoned by a stopped node.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notification.fanout.jobs.resume-interval-ms:30000}",
+            fixedDelayString = "${notification.fanout.jobs.resume-interval-ms:30000}")
+    public void resumeIdleJobs() {
+        List<UUID> idle = jobRepository.findIdleJobIds(List.of(FanOutJobState.RUNNING),
+                staleBefore(), PageRequest.ofSize(resumeBatchSize));
+        if (!idle.isEmpty()) {
+            log.info("Resuming {} idle vacancy fan-out jobs", idle.size());
+            idle.forEach(this::dispatch);
+        }
+    }
+
+    void run(UUID jobId) {
+        if (jobRepository.claim(jobId, FanOutJobState.QUEUED, FanOutJobState.RUNNING, Instant.now(), staleBefore()) == 0) {
+            log.debug("Vacancy fan-out job {} is owned by another worker or already finished", jobId);
+            return;
+        }
+        VacancyFanOutJob job = jobRepository.findById(jobId).orElseThrow();
+        if (job.getLastRecipientUserId() != null) {
+            log.info("Resuming vacancy fan-out job {} after {} notified recipients", jobId, job.getProcessedCount());
+        }
+        VacancyUpdateNotification request =
+                new VacancyUpdateNotification(job.getTitle(), job.getMessage(), job.getPropertyId());
+        try {
+            AtomicLong chunksInRun = new AtomicLong();
+            FanOutSummary summary = notificationService.notifyWishlistUsersOnVacancy(jobId, request,
+                    job.getLastRecipientUserId(), recipientUserIds -> {
+                        chunksInRun.incrementAndGet();
+                        jobRepository.recordProgress(jobId, recipientUserIds.size(),
+                                recipientUserIds.get(recipientUserIds.size() - 1), Instant.now());
+                    });
+            if (chunksInRun.get() == 0 && summary.getChunkCount() > 0) {
+                // Fan-out-on-read wrote a single event for the whole audience instead of per-recipient chunks
+                jobRepository.recordProgress(jobId, summary.getRecipientCount(), null, Instant.now());
+            }
+            jobRepository.markCompleted(jobId, FanOutJobState.COMPLETED, Instant.now());
+            log.info("Vacancy fan-out job {} completed: {} recipients in this run", jobId, summary.getRecipientCount());
+        } catch (RuntimeException e) {
+            if (shuttingDown) {
+                // Left RUNNING; another node, or this one after restart, resumes it from the checkpoint
+                log.warn("Vacancy fan-out job {} interrupted by shutdown: {}", jobId, e.getMessage());
+                return;
+            }
+            log.error("Vacancy fan-out job {} failed: {}", jobId, e.getMessage(), e);
+            jobRepository.markFailed(jobId, FanOutJobState.FAILED, truncate(e.getMessage()), Instant.now());
+        }
+    }
+
+    @PreDestroy
+    void stopAcceptingFailures() {
+        shuttingDown = true;
+    }
+
+    private void dispatch(UUID jobId) {
+        // A job already waiting in, or running on, this node's executor is not queued twice by the sweeps
+        if (!dispatched.add(jobId)) {
+            return;
+        }
+        try {
+            vacancyFanOutExecutor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    dispatched.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatched.remove(jobId);
+            // Stays QUEUED; the due-job sweep dispatches it once the executor has room
+            log.warn("Vacancy fan-out executor is full; job {} will be picked up by the next sweep", jobId);
+        }
+    }
+
+    private Instant staleBefore() {
+        return Instant.now().minusMillis(staleAfterMs);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
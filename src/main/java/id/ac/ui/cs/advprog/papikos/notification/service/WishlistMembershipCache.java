@@ -0,0 +1,154 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import id.ac.ui.cs.advprog.papikos.notification.config.RabbitMQConfig;
+import id.ac.ui.cs.advprog.papikos.notification.dto.WishlistChangedEvent;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory set of wishlisted property IDs per tenant, for "is this wishlisted" checks on search results.
+ * A tenant's set is loaded with one ID-only query and dropped whenever that tenant's wishlist changes, on every
+ * node via {@code rental.topic}; it never calls the Kos service. Sets also expire a fixed time after loading,
+ * which bounds how long a node that missed an invalidation message can serve a stale set.
+ */
+@Component
+public class WishlistMembershipCache {
+
+    private static final Logger log = LoggerFactory.getLogger(WishlistMembershipCache.class);
+
+    private final LoadingCache<UUID, PropertyIdSet> cache;
+    private final RabbitTemplate rabbitTemplate;
+
+    public WishlistMembershipCache(WishlistItemRepository wishlistItemRepository,
+                                   RabbitTemplate rabbitTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${wishlist.membership.cache.maximum-size:50000}") long maximumSize,
+                                   @Value("${wishlist.membership.cache.expire-after-write-ms:60000}") long expireAfterWriteMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build(tenantUserId -> PropertyIdSet.of(wishlistItemRepository.findPropertyIdsByTenantUserId(tenantUserId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "wishlist.membership");
+    }
+
+    /**
+     * @return each requested property ID mapped to whether the tenant has it wishlisted, in request order
+     */
+    public Map<UUID, Boolean> contains(UUID tenantUserId, Collection<UUID> propertyIds) {
+        PropertyIdSet wishlisted = cache.get(tenantUserId);
+        Map<UUID, Boolean> membership = new LinkedHashMap<>();
+        for (UUID propertyId : propertyIds) {
+            membership.put(propertyId, wishlisted.contains(propertyId));
+        }
+        return membership;
+    }
+
+    /**
+     * Drops the tenant's set now and, when called inside a transaction, again after it commits,
+     * so a concurrent read cannot re-cache the state from before the change. Other nodes are told
+     * once the change is committed (or straight away outside a transaction).
+     */
+    public void invalidate(UUID tenantUserId) {
+        cache.invalidate(tenantUserId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishChange(tenantUserId);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(tenantUserId);
+                }
+            });
+        } else {
+            publishChange(tenantUserId);
+        }
+    }
+
+    @RabbitListener(queues = "#{wishlistMembershipInvalidationQueue.name}")
+    public void onWishlistChanged(WishlistChangedEvent event) {
+        if (event == null || event.getTenantUserId() == null) {
+            log.warn("Ignoring wishlist change event without tenantUserId");
+            return;
+        }
+        cache.invalidate(event.getTenantUserId());
+    }
+
+    // Best effort: the change is already committed, and a node that misses the message catches up on expiry
+    private void publishChange(UUID tenantUserId) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.TOPIC_EXCHANGE_NAME,
+                    RabbitMQConfig.ROUTING_KEY_WISHLIST_CHANGED, new WishlistChangedEvent(tenantUserId));
+        } catch (AmqpException e) {
+            log.warn("Could not publish wishlist change for tenant {}: {}", tenantUserId, e.getMessage());
+        }
+    }
+
+    /**
+     * Sorted (most significant, least significant) bit pairs: 16 bytes per ID, looked up by binary search.
+     */
+    static final class PropertyIdSet {
+
+        private final long[] bits;
+
+        private PropertyIdSet(long[] bits) {
+            this.bits = bits;
+        }
+
+        static PropertyIdSet of(List<UUID> propertyIds) {
+            UUID[] sorted = propertyIds.stream().distinct().sorted().toArray(UUID[]::new);
+            long[] bits = new long[sorted.length * 2];
+            for (int i = 0; i < sorted.length; i++) {
+                bits[2 * i] = sorted[i].getMostSignificantBits();
+                bits[2 * i + 1] = sorted[i].getLeastSignificantBits();
+            }
+            return new PropertyIdSet(bits);
+        }
+
+        boolean contains(UUID propertyId) {
+            long msb = propertyId.getMostSignificantBits();
+            long lsb = propertyId.getLeastSignificantBits();
+            int low = 0;
+            int high = bits.length / 2 - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                // Same signed ordering as UUID.compareTo, which produced the sort
+                int cmp = Long.compare(bits[2 * mid], msb);
+                if (cmp == 0) {
+                    cmp = Long.compare(bits[2 * mid + 1], lsb);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import feign.FeignException;
+import id.ac.ui.cs.advprog.papikos.notification.client.ApiResponseWrapper;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsCache;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsDto;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Keeps the property snapshot stored on wishlist rows current.
+ * Kos update and delete events refresh or tombstone a property's snapshot as soon as they arrive; snapshots that
+ * still went stale (a missed event, say) are re-enriched in the background, either when a wishlist read notices
+ * them or from the periodic sweep. Each refresh updates every row of that property in one statement.
+ */
+@Component
+public class WishlistSnapshotRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(WishlistSnapshotRefresher.class);
+
+    private final WishlistItemRepository wishlistItemRepository;
+    private final KosDetailsCache kosDetailsCache;
+    private final ExecutorService kosLookupExecutor;
+    private final Set<UUID> refreshing = ConcurrentHashMap.newKeySet();
+
+    @Value("${wishlist.snapshot.max-age-ms:600000}")
+    private long maxAgeMs;
+
+    @Value("${wishlist.snapshot.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    public WishlistSnapshotRefresher(WishlistItemRepository wishlistItemRepository,
+                                     KosDetailsCache kosDetailsCache,
+                                     @Qualifier("kosLookupExecutor") ExecutorService kosLookupExecutor) {
+        this.wishlistItemRepository = wishlistItemRepository;
+        this.kosDetailsCache = kosDetailsCache;
+        this.kosLookupExecutor = kosLookupExecutor;
+    }
+
+    public boolean isStale(Instant capturedAt) {
+        return capturedAt == null || capturedAt.isBefore(Instant.now().minusMillis(maxAgeMs));
+    }
+
+    /**
+     * Re-enriches the given properties without blocking the caller; properties already being refreshed are skipped.
+     */
+    public void refreshAsync(Collection<UUID> propertyIds) {
+        List<UUID> toRefresh = propertyIds.stream().distinct().filter(refreshing::add).toList();
+        if (toRefresh.isEmpty()) {
+            return;
+        }
+        kosDetailsCache.loadMany(toRefresh).forEach((propertyId, pending) ->
+                pending.whenCompleteAsync((response, error) -> {
+                    try {
+                        storeSnapshot(propertyId, response, error);
+                    } finally {
+                        refreshing.remove(propertyId);
+                    }
+                }, kosLookupExecutor));
+    }
+
+    /**
+     * Re-reads an edited property from the Kos service, bypassing cached details, and stores the new snapshot.
+     */
+    public void refreshNow(UUID propertyId) {
+        kosDetailsCache.reload(propertyId).whenCompleteAsync(
+                (response, error) -> storeSnapshot(propertyId, response, error), kosLookupExecutor);
+    }
+
+    /**
+     * Tombstones the snapshot of a deleted property, so its wishlist rows render the "details unavailable" placeholder.
+     */
+    public void markDeleted(UUID propertyId) {
+        int cleared = wishlistItemRepository.clearPropertySnapshot(propertyId, Instant.now());
+        log.debug("Cleared wishlist snapshot of deleted property {} on {} rows", propertyId, cleared);
+    }
+
+    @Scheduled(initialDelayString = "${wishlist.snapshot.sweep-interval-ms:300000}",
+            fixedDelayString = "${wishlist.snapshot.sweep-interval-ms:300000}")
+    public void refreshStaleSnapshots() {
+        List<UUID> stale = wishlistItemRepository.findPropertyIdsWithSnapshotOlderThan(
+                Instant.now().minusMillis(maxAgeMs), PageRequest.ofSize(sweepBatchSize));
+        if (!stale.isEmpty()) {
+            log.info("Refreshing wishlist snapshots for {} properties", stale.size());
+            refreshAsync(stale);
+        }
+    }
+
+    private void storeSnapshot(UUID propertyId, ApiResponseWrapper<KosDetailsDto> response, Throwable error) {
+        if (isNotFound(response, error)) {
+            markDeleted(propertyId);
+            return;
+        }
+        if (error != null || response == null || response.getStatus() != HttpStatus.OK.value() || response.getData() == null) {
+            // Transient: the Kos service may be down, so the last good snapshot is still the best answer
+            log.debug("Keeping existing wishlist snapshot for property {}: lookup failed ({})", propertyId,
+                    error != null ? error.getMessage() : response == null ? "no response" : response.getStatus());
+            return;
+        }
+        KosDetailsDto kos = response.getData();
+        int updated = wishlistItemRepository.updatePropertySnapshot(
+                propertyId, kos.getName(), kos.getAddress(), kos.getMonthlyRentPrice(), Instant.now());
+        log.debug("Refreshed wishlist snapshot of property {} on {} rows", propertyId, updated);
+    }
+
+    private static boolean isNotFound(ApiResponseWrapper<KosDetailsDto> response, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause != null) {
+            return cause instanceof FeignException feignError && feignError.status() == HttpStatus.NOT_FOUND.value();
+        }
+        return response != null && response.getStatus() == HttpStatus.NOT_FOUND.value();
+    }
+}
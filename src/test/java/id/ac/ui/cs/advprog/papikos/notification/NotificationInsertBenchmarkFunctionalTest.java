@@ -0,0 +1,141 @@
+package id.ac.ui.cs.advprog.papikos.notification;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import id.ac.ui.cs.advprog.papikos.notification.model.TimeOrderedUuidGenerator;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert throughput of a 100k-row vacancy fan-out against a real PostgreSQL: JDBC-batched versus
+ * row-by-row notification inserts, and time-ordered versus random primary keys.
+ * Run with {@code ./gradlew functionalTest}; needs Docker.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "wishlist.counts.backfill-on-startup=false"
+})
+@Testcontainers
+class NotificationInsertBenchmarkFunctionalTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationInsertBenchmarkFunctionalTest.class);
+    private static final int ROWS = 100_000;
+    private static final int CHUNK_SIZE = 500; // Same as notification.fanout.chunk-size
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ConnectionFactory rabbitConnectionFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchedNotificationInsertsOutpaceRowByRow() {
+        double rowByRow = insertNotifications(1);
+        double batched = insertNotifications(100);
+
+        log.info("Notification inserts, {} rows in chunks of {}: row-by-row {} rows/s, batched {} rows/s ({}x)",
+                ROWS, CHUNK_SIZE, Math.round(rowByRow), Math.round(batched), String.format("%.1f", batched / rowByRow));
+        assertTrue(batched > rowByRow);
+    }
+
+    @Test
+    void timeOrderedKeysKeepThePrimaryKeyIndexCompact() {
+        KeyedInsert random = insertKeys("uuid_bench_random", UUID::randomUUID);
+        KeyedInsert timeOrdered = insertKeys("uuid_bench_time_ordered", TimeOrderedUuidGenerator::next);
+
+        log.info("Primary key inserts, {} rows: random {} rows/s, {} KiB index; time-ordered {} rows/s, {} KiB index",
+                ROWS, Math.round(random.rowsPerSecond()), random.indexBytes() / 1024,
+                Math.round(timeOrdered.rowsPerSecond()), timeOrdered.indexBytes() / 1024);
+        // Appends fill leaf pages; random keys split pages and leave them partly empty
+        assertTrue(timeOrdered.indexBytes() < random.indexBytes());
+    }
+
+    private double insertNotifications(int jdbcBatchSize) {
+        notificationRepository.deleteAllInBatch();
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += CHUNK_SIZE) {
+            chunkTransaction.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    entityManager.persist(notification());
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        assertEquals(ROWS, notificationRepository.count());
+        return ROWS / seconds;
+    }
+
+    private KeyedInsert insertKeys(String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, recipient_user_id uuid NOT NULL)");
+        long started = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += CHUNK_SIZE) {
+            List<Object[]> rows = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                rows.add(new Object[]{ids.get(), UUID.randomUUID()});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, recipient_user_id) VALUES (?, ?)", rows);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+        return new KeyedInsert(ROWS / seconds, indexBytes);
+    }
+
+    private static Notification notification() {
+        Notification notification = new Notification();
+        notification.setRecipientUserId(UUID.randomUUID());
+        notification.setNotificationType(NotificationType.WISHLIST_VACANCY);
+        notification.setTitle("Vacancy Alert");
+        notification.setMessage("A property on your wishlist, Cozy Room, now has a vacancy!");
+        notification.setRelatedPropertyId(UUID.randomUUID());
+        return notification;
+    }
+
+    private record KeyedInsert(double rowsPerSecond, long indexBytes) {
+    }
+}
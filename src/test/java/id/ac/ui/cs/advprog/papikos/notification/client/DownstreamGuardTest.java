@@ -0,0 +1,124 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private Retry retry;
+    private DownstreamGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.of("kos", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .recordExceptions(FeignException.FeignServerException.class)
+                .build());
+        bulkhead = Bulkhead.of("kos", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        retry = Retry.of("kos", RetryConfig.custom()
+                .maxAttempts(2)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(FeignException.ServiceUnavailable.class)
+                .build());
+        guard = new DownstreamGuard(circuitBreaker, bulkhead, retry);
+    }
+
+    private static FeignException status(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/kos", Collections.emptyMap(), null, feign.Util.UTF_8);
+        return FeignException.errorStatus("getKosDetailsApiResponse",
+                feign.Response.builder().status(status).reason("error").request(request).headers(Collections.emptyMap()).build());
+    }
+
+    @Test
+    @DisplayName("Transient failures are retried once, then the failure is rethrown")
+    void call_RetriesTransientFailureOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(FeignException.ServiceUnavailable.class, () -> guard.call(() -> {
+            attempts.incrementAndGet();
+            throw status(503);
+        }));
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("A 404 is neither retried nor recorded as a failure")
+    void call_NotFoundIsNotAFailure() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.NotFound.class, () -> guard.call(() -> {
+                attempts.incrementAndGet();
+                throw status(404);
+            }));
+        }
+
+        assertEquals(4, attempts.get());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Repeated server errors open the breaker, after which calls fail without reaching the service")
+    void call_OpenBreakerFailsFast() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.InternalServerError.class, () -> guard.call(() -> {
+                throw status(500);
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        AtomicInteger attempts = new AtomicInteger();
+        assertThrows(CallNotPermittedException.class, () -> guard.call(attempts::incrementAndGet));
+        assertEquals(0, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Calls beyond the bulkhead limit are rejected instead of queueing")
+    void call_FullBulkheadRejects() throws InterruptedException {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> guard.call(() -> {
+            inCall.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertTrue(inCall.await(1, TimeUnit.SECONDS));
+
+        assertThrows(BulkheadFullException.class, () -> guard.call(() -> "second"));
+
+        release.countDown();
+        holder.join();
+        assertEquals("third", guard.call(() -> "third"));
+    }
+}
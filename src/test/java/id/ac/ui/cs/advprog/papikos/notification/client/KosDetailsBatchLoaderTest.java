@@ -0,0 +1,158 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KosDetailsBatchLoaderTest {
+
+    @Mock
+    private KosServiceClient kosServiceClient;
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private KosDetailsBatchLoader loader;
+
+    private UUID kosId1;
+    private UUID kosId2;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        DownstreamGuard kosGuard = new DownstreamGuard(CircuitBreaker.ofDefaults("kos"), Bulkhead.ofDefaults("kos"),
+                Retry.of("kos", RetryConfig.custom().maxAttempts(1).build()));
+        loader = new KosDetailsBatchLoader(kosServiceClient, executor, new SingleFlight<>("kos", meterRegistry),
+                kosGuard, meterRegistry, true, 50, 50, 600_000);
+        kosId1 = UUID.randomUUID();
+        kosId2 = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+        executor.shutdownNow();
+    }
+
+    private KosDetailsDto kos(UUID id) {
+        KosDetailsDto dto = new KosDetailsDto();
+        dto.setId(id);
+        dto.setName("Kos " + id);
+        return dto;
+    }
+
+    private <T> ApiResponseWrapper<T> ok(T data) {
+        ApiResponseWrapper<T> wrapper = new ApiResponseWrapper<>();
+        wrapper.setStatus(HttpStatus.OK.value());
+        wrapper.setData(data);
+        return wrapper;
+    }
+
+    @Test
+    @DisplayName("Lookups queued within the window are sent as one batch call")
+    void load_CoalescesWithinWindow() {
+        when(kosServiceClient.getKosDetailsBatch(anyList())).thenReturn(ok(List.of(kos(kosId1), kos(kosId2))));
+
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> first = loader.load(kosId1);
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> second = loader.load(kosId2);
+
+        assertEquals(kosId1, KosDetailsBatchLoader.await(first).getData().getId());
+        assertEquals(kosId2, KosDetailsBatchLoader.await(second).getData().getId());
+        verify(kosServiceClient).getKosDetailsBatch(argThat(ids -> ids.containsAll(List.of(kosId1, kosId2))));
+        verify(kosServiceClient, never()).getKosDetailsApiResponse(any());
+        assertEquals(2.0, meterRegistry.summary("kos.lookup.batch.size", "strategy", "batch").totalAmount());
+    }
+
+    @Test
+    @DisplayName("IDs missing from the batch response resolve to a 404 wrapper")
+    void loadMany_MissingIdIsNotFound() {
+        when(kosServiceClient.getKosDetailsBatch(anyList())).thenReturn(ok(List.of(kos(kosId1))));
+
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> results = loader.loadMany(List.of(kosId1, kosId2));
+
+        assertEquals(HttpStatus.OK.value(), KosDetailsBatchLoader.await(results.get(kosId1)).getStatus());
+        ApiResponseWrapper<KosDetailsDto> missing = KosDetailsBatchLoader.await(results.get(kosId2));
+        assertEquals(HttpStatus.NOT_FOUND.value(), missing.getStatus());
+        assertNull(missing.getData());
+    }
+
+    @Test
+    @DisplayName("Falls back to parallel single calls when the batch endpoint does not exist")
+    void loadMany_FallsBackWhenBatchUnsupported() {
+        Request request = Request.create(Request.HttpMethod.GET, "/batch", Collections.emptyMap(), null, feign.Util.UTF_8);
+        when(kosServiceClient.getKosDetailsBatch(anyList()))
+                .thenThrow(new FeignException.MethodNotAllowed("Method Not Allowed", request, null, Collections.emptyMap()));
+        when(kosServiceClient.getKosDetailsApiResponse(kosId1)).thenReturn(ok(kos(kosId1)));
+        when(kosServiceClient.getKosDetailsApiResponse(kosId2)).thenReturn(ok(kos(kosId2)));
+
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> results = loader.loadMany(List.of(kosId1, kosId2));
+        assertEquals(kosId1, KosDetailsBatchLoader.await(results.get(kosId1)).getData().getId());
+        assertEquals(kosId2, KosDetailsBatchLoader.await(results.get(kosId2)).getData().getId());
+
+        // Later batches skip the unsupported endpoint entirely
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> again = loader.loadMany(List.of(kosId1, kosId2));
+        again.values().forEach(KosDetailsBatchLoader::await);
+        verify(kosServiceClient, times(1)).getKosDetailsBatch(anyList());
+        verify(kosServiceClient, times(2)).getKosDetailsApiResponse(kosId1);
+        assertEquals(2.0, meterRegistry.counter("kos.lookup.batch.fallback").count());
+    }
+
+    @Test
+    @DisplayName("A lookup for an ID already in flight joins the outstanding call")
+    void load_JoinsInFlightLookup() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(kosServiceClient.getKosDetailsApiResponse(kosId1)).thenAnswer(invocation -> {
+            release.await();
+            return ok(kos(kosId1));
+        });
+
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> first = loader.loadMany(List.of(kosId1)).get(kosId1);
+        Thread.sleep(20);
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> second = loader.load(kosId1);
+        release.countDown();
+
+        assertSame(KosDetailsBatchLoader.await(first), KosDetailsBatchLoader.await(second));
+        verify(kosServiceClient, times(1)).getKosDetailsApiResponse(kosId1);
+        assertEquals(1.0, meterRegistry.counter("downstream.singleflight.suppressed", "client", "kos").count());
+    }
+
+    @Test
+    @DisplayName("Other batch failures are reported on every queued lookup")
+    void loadMany_PropagatesBatchFailure() {
+        Request request = Request.create(Request.HttpMethod.GET, "/batch", Collections.emptyMap(), null, feign.Util.UTF_8);
+        when(kosServiceClient.getKosDetailsBatch(anyList()))
+                .thenThrow(new FeignException.ServiceUnavailable("Unavailable", request, null, Collections.emptyMap()));
+
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> results = loader.loadMany(List.of(kosId1, kosId2));
+
+        assertThrows(FeignException.ServiceUnavailable.class, () -> KosDetailsBatchLoader.await(results.get(kosId1)));
+        assertThrows(FeignException.ServiceUnavailable.class, () -> KosDetailsBatchLoader.await(results.get(kosId2)));
+        verify(kosServiceClient, never()).getKosDetailsApiResponse(any());
+    }
+}
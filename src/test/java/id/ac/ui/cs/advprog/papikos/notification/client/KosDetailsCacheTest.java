@@ -0,0 +1,189 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KosDetailsCacheTest {
+
+    @Mock
+    private KosDetailsBatchLoader kosDetailsBatchLoader;
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    private UUID kosId;
+    private KosDetailsDto kosDetails;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        kosId = UUID.randomUUID();
+        kosDetails = new KosDetailsDto();
+        kosDetails.setId(kosId);
+        kosDetails.setName("Kos Melati");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private KosDetailsCache cache(long refreshAfterMs, long expireAfterMs) {
+        return new KosDetailsCache(kosDetailsBatchLoader, executor, meterRegistry, 100, refreshAfterMs, expireAfterMs, 60_000, 60_000, 5_000);
+    }
+
+    private CompletableFuture<ApiResponseWrapper<KosDetailsDto>> ok(KosDetailsDto data) {
+        return CompletableFuture.completedFuture(ApiResponseWrapper.of(HttpStatus.OK.value(), "Success", data));
+    }
+
+    private CompletableFuture<ApiResponseWrapper<KosDetailsDto>> unavailable() {
+        Request request = Request.create(Request.HttpMethod.GET, "/" + kosId, Collections.emptyMap(), null, feign.Util.UTF_8);
+        return CompletableFuture.failedFuture(
+                new FeignException.ServiceUnavailable("Unavailable", request, null, Collections.emptyMap()));
+    }
+
+    @Test
+    @DisplayName("Repeated lookups are served from the cache and counted as hits")
+    void load_SecondLookupIsHit() {
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(ok(kosDetails));
+        KosDetailsCache cache = cache(60_000, 600_000);
+
+        assertEquals("Kos Melati", KosDetailsBatchLoader.await(cache.load(kosId)).getData().getName());
+        assertEquals("Kos Melati", KosDetailsBatchLoader.await(cache.load(kosId)).getData().getName());
+
+        verify(kosDetailsBatchLoader, times(1)).load(kosId);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "kos.details", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "kos.details", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Misses from loadMany go to the batch loader together")
+    void loadMany_SendsMissesTogether() {
+        UUID otherId = UUID.randomUUID();
+        KosDetailsDto other = new KosDetailsDto();
+        other.setId(otherId);
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(ok(kosDetails));
+        when(kosDetailsBatchLoader.loadMany(List.of(otherId))).thenReturn(Map.of(otherId, ok(other)));
+        KosDetailsCache cache = cache(60_000, 600_000);
+        KosDetailsBatchLoader.await(cache.load(kosId));
+
+        Map<UUID, CompletableFuture<ApiResponseWrapper<KosDetailsDto>>> results = cache.loadMany(List.of(kosId, otherId));
+
+        assertEquals(kosId, KosDetailsBatchLoader.await(results.get(kosId)).getData().getId());
+        assertEquals(otherId, KosDetailsBatchLoader.await(results.get(otherId)).getData().getId());
+        verify(kosDetailsBatchLoader).loadMany(List.of(otherId));
+    }
+
+    @Test
+    @DisplayName("Falls back to the last known details when the Kos service is down")
+    void load_ServesLastKnownWhenServiceDown() throws InterruptedException {
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(ok(kosDetails), unavailable());
+        KosDetailsCache cache = cache(10, 20);
+        KosDetailsBatchLoader.await(cache.load(kosId));
+
+        Thread.sleep(50);
+        ApiResponseWrapper<KosDetailsDto> response = KosDetailsBatchLoader.await(cache.load(kosId));
+
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals("Kos Melati", response.getData().getName());
+        assertEquals(1.0, meterRegistry.counter("kos.details.cache.last-known").count());
+    }
+
+    @Test
+    @DisplayName("Not-found responses are remembered so repeats skip the Kos service")
+    void load_NotFoundIsNegativelyCached() {
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> notFound = CompletableFuture.completedFuture(
+                ApiResponseWrapper.of(HttpStatus.NOT_FOUND.value(), "Not Found", null));
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(notFound);
+        KosDetailsCache cache = cache(60_000, 600_000);
+
+        assertEquals(HttpStatus.NOT_FOUND.value(), KosDetailsBatchLoader.await(cache.load(kosId)).getStatus());
+        assertEquals(HttpStatus.NOT_FOUND.value(), KosDetailsBatchLoader.await(cache.load(kosId)).getStatus());
+        assertEquals(HttpStatus.NOT_FOUND.value(),
+                KosDetailsBatchLoader.await(cache.loadMany(List.of(kosId)).get(kosId)).getStatus());
+
+        verify(kosDetailsBatchLoader, times(1)).load(kosId);
+        verify(kosDetailsBatchLoader, never()).loadMany(anyCollection());
+        assertEquals(2.0, meterRegistry.get("kos.details.cache.negative").tag("result", "not-found").counter().count());
+    }
+
+    @Test
+    @DisplayName("A failed lookup is replayed during the backoff instead of calling the Kos service again")
+    void load_FailureIsReplayedDuringBackoff() {
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(unavailable());
+        KosDetailsCache cache = cache(60_000, 600_000);
+
+        assertThrows(FeignException.ServiceUnavailable.class, () -> KosDetailsBatchLoader.await(cache.load(kosId)));
+        assertThrows(FeignException.ServiceUnavailable.class, () -> KosDetailsBatchLoader.await(cache.load(kosId)));
+
+        verify(kosDetailsBatchLoader, times(1)).load(kosId);
+        assertEquals(1.0, meterRegistry.get("kos.details.cache.negative").tag("result", "failure").counter().count());
+    }
+
+    @Test
+    @DisplayName("A failed lookup is not kept in the cache once the backoff has passed")
+    void load_FailureIsNotCached() {
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(unavailable(), ok(kosDetails));
+        KosDetailsCache cache = new KosDetailsCache(kosDetailsBatchLoader, executor, meterRegistry, 100, 60_000, 600_000,
+                60_000, 60_000, 0);
+
+        assertThrows(FeignException.ServiceUnavailable.class, () -> KosDetailsBatchLoader.await(cache.load(kosId)));
+
+        assertEquals("Kos Melati", KosDetailsBatchLoader.await(cache.load(kosId)).getData().getName());
+        verify(kosDetailsBatchLoader, times(2)).load(kosId);
+    }
+
+    @Test
+    @DisplayName("Reloading bypasses the cached details and caches the fresh ones")
+    void reload_FetchesFreshDetails() {
+        KosDetailsDto edited = new KosDetailsDto();
+        edited.setId(kosId);
+        edited.setName("Kos Melati Baru");
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(ok(kosDetails), ok(edited));
+        KosDetailsCache cache = cache(60_000, 600_000);
+        KosDetailsBatchLoader.await(cache.load(kosId));
+
+        assertEquals("Kos Melati Baru", KosDetailsBatchLoader.await(cache.reload(kosId)).getData().getName());
+
+        assertEquals("Kos Melati Baru", KosDetailsBatchLoader.await(cache.load(kosId)).getData().getName());
+        verify(kosDetailsBatchLoader, times(2)).load(kosId);
+    }
+
+    @Test
+    @DisplayName("Invalidation clears a remembered not-found result")
+    void invalidate_ClearsNegativeEntry() {
+        CompletableFuture<ApiResponseWrapper<KosDetailsDto>> notFound = CompletableFuture.completedFuture(
+                ApiResponseWrapper.of(HttpStatus.NOT_FOUND.value(), "Not Found", null));
+        when(kosDetailsBatchLoader.load(kosId)).thenReturn(notFound, ok(kosDetails));
+        KosDetailsCache cache = cache(60_000, 600_000);
+        KosDetailsBatchLoader.await(cache.load(kosId));
+
+        cache.invalidate(kosId);
+
+        assertEquals("Kos Melati", KosDetailsBatchLoader.await(cache.load(kosId)).getData().getName());
+        verify(kosDetailsBatchLoader, times(2)).load(kosId);
+    }
+}
@@ -0,0 +1,123 @@
+package id.ac.ui.cs.advprog.papikos.notification.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Concurrent blocking callers for one key share a single call")
+    void executeBlocking_SharesOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.executeBlocking("rental-1", key -> {
+                calls.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return "details of " + key;
+            }));
+            started.await();
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                followers.add(executor.submit(() -> singleFlight.executeBlocking("rental-1", key -> {
+                    calls.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals("details of rental-1", leader.get());
+            for (Future<String> follower : followers) {
+                assertEquals("details of rental-1", follower.get());
+            }
+        }
+        assertEquals(1, calls.get());
+        assertEquals(5.0, meterRegistry.counter("downstream.singleflight.suppressed", "client", "test").count());
+    }
+
+    @Test
+    @DisplayName("Failures are shared with waiting callers and the key is released afterwards")
+    void execute_FailureReleasesKey() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("kos-1", key -> pending);
+        CompletableFuture<String> second = singleFlight.execute("kos-1", key -> CompletableFuture.completedFuture("duplicate"));
+
+        pending.completeExceptionally(new IllegalStateException("boom"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertSame(first, second);
+        assertEquals("fresh", singleFlight.execute("kos-1", key -> CompletableFuture.completedFuture("fresh")).join());
+    }
+
+    @Test
+    @DisplayName("An Error thrown by the leader reaches a waiting caller and releases the key")
+    void executeBlocking_ErrorReleasesWaiters() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.executeBlocking("rental-1", key -> {
+                started.countDown();
+                awaitQuietly(release);
+                throw new AssertionError("boom");
+            }));
+            started.await();
+            Future<String> follower = executor.submit(() -> singleFlight.executeBlocking("rental-1", key -> "duplicate"));
+            Thread.sleep(50);
+            release.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, followerFailure.getCause());
+        }
+        assertEquals("fresh", singleFlight.executeBlocking("rental-1", key -> "fresh"));
+    }
+
+    @Test
+    @DisplayName("An Error thrown while starting an async call still completes the shared future")
+    void execute_ErrorCompletesFuture() {
+        assertThrows(StackOverflowError.class, () -> singleFlight.execute("kos-1", key -> {
+            throw new StackOverflowError();
+        }));
+
+        assertEquals("fresh", singleFlight.execute("kos-1", key -> CompletableFuture.completedFuture("fresh")).join());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package id.ac.ui.cs.advprog.papikos.notification.config;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.RetryableException;
+import feign.hc5.ApacheHttp5Client;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosServiceClient;
+import id.ac.ui.cs.advprog.papikos.notification.client.RentalServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cloud.openfeign.FeignClientProperties;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the Feign transport wiring: the pooled HttpClient 5 client, the per-client timeouts
+ * and the connection pool gauges. Calls go to a local server that answers slower than any read timeout, so this
+ * waits out real timeouts and runs with the functional suite rather than the unit tests.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class GlobalFeignConfigFunctionalTest {
+
+    private static final long SLOW_RESPONSE_MS = 4_000;
+
+    private static HttpServer slowServer;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ConnectionFactory rabbitConnectionFactory;
+
+    @Autowired
+    private Client feignClient;
+
+    @Autowired
+    private FeignClientProperties feignClientProperties;
+
+    @Autowired
+    private KosServiceClient kosServiceClient;
+
+    @Autowired
+    private RentalServiceClient rentalServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void slowServices(DynamicPropertyRegistry registry) {
+        try {
+            slowServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        slowServer.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        slowServer.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SLOW_RESPONSE_MS);
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        slowServer.start();
+        String url = "http://localhost:" + slowServer.getAddress().getPort();
+        registry.add("kos.service.url", () -> url + "/kos");
+        registry.add("rental.service.url", () -> url + "/rental");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        slowServer.stop(0);
+    }
+
+    @Test
+    void feignUsesThePooledHttpClient5Transport() {
+        assertInstanceOf(ApacheHttp5Client.class, feignClient);
+    }
+
+    @Test
+    void perClientConnectTimeoutsOverrideTheDefault() {
+        assertEquals(1000, feignClientProperties.getConfig().get("kos-service").getConnectTimeout());
+        assertEquals(1000, feignClientProperties.getConfig().get("rental-service").getConnectTimeout());
+        assertEquals(2000, feignClientProperties.getConfig().get("default").getConnectTimeout());
+    }
+
+    @Test
+    void kosCallsGiveUpAfterTheKosReadTimeout() {
+        long elapsed = timeUntilTimeout(() -> kosServiceClient.getKosDetailsApiResponse(UUID.randomUUID()));
+
+        assertTrue(elapsed >= 1_900 && elapsed < 3_000, "kos-service read timed out after " + elapsed + " ms");
+    }
+
+    @Test
+    void rentalCallsGiveUpAfterTheRentalReadTimeout() {
+        long elapsed = timeUntilTimeout(() -> rentalServiceClient.getRentalDetail(UUID.randomUUID()));
+
+        assertTrue(elapsed >= 2_900 && elapsed < SLOW_RESPONSE_MS, "rental-service read timed out after " + elapsed + " ms");
+    }
+
+    @Test
+    void connectionPoolGaugesAreRegistered() {
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", "feign", "state", "leased").gauge());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.pending").tag("httpclient", "feign").gauge());
+        assertEquals(200.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "feign").gauge().value());
+    }
+
+    private static long timeUntilTimeout(Runnable call) {
+        long started = System.nanoTime();
+        assertThrows(RetryableException.class, call::run);
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
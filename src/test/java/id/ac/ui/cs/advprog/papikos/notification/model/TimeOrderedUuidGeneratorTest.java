@@ -0,0 +1,44 @@
+package id.ac.ui.cs.advprog.papikos.notification.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    @DisplayName("IDs carry version 7, the RFC variant and the current millisecond")
+    void next_VersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuidGenerator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        // A burst may have borrowed a few milliseconds ahead of the clock
+        assertTrue(timestamp >= before && timestamp < after + 1_000, "timestamp " + timestamp);
+    }
+
+    @Test
+    @DisplayName("IDs generated in a burst are unique and sort in generation order, byte-wise as in PostgreSQL")
+    void next_StrictlyIncreasing() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        for (int i = 1; i < ids.size(); i++) {
+            // Unsigned comparison of the high bits matches PostgreSQL's memcmp ordering of uuid
+            assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(),
+                    ids.get(i).getMostSignificantBits()) < 0, "at " + i);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the bulk writer against a real PostgreSQL: both write paths must store identical rows,
+ * and COPY should outpace batched INSERTs on a 100k-row fan-out.
+ * Run with {@code ./gradlew functionalTest}; needs Docker.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "wishlist.counts.backfill-on-startup=false"
+})
+@Testcontainers
+class NotificationBulkWriterFunctionalTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationBulkWriterFunctionalTest.class);
+    private static final int ROWS = 100_000;
+    private static final int CHUNK_SIZE = 500; // Same as notification.fanout.chunk-size
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ConnectionFactory rabbitConnectionFactory;
+
+    @Autowired
+    private NotificationBulkWriter notificationBulkWriter;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        notificationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void copyAndBatchedInsertStoreTheSameRows() {
+        for (boolean useCopy : new boolean[]{true, false}) {
+            Notification awkward = notification(UUID.randomUUID());
+            awkward.setTitle("Quotes \"here\", commas, and \\ backslashes");
+            awkward.setMessage("Line one\nLine two\r\néè kos — \"%s\"");
+            Notification empty = notification(UUID.randomUUID());
+            empty.setMessage("");
+            empty.setRelatedPropertyId(null);
+            empty.setRead(true);
+            List<Notification> rows = List.of(awkward, empty);
+
+            Integer written = transactionTemplate.execute(status -> notificationBulkWriter.write(rows, useCopy));
+
+            assertEquals(2, written);
+            for (Notification expected : rows) {
+                Notification stored = notificationRepository.findById(expected.getNotificationId()).orElseThrow();
+                assertEquals(expected.getRecipientUserId(), stored.getRecipientUserId(), "copy=" + useCopy);
+                assertEquals(expected.getNotificationType(), stored.getNotificationType());
+                assertEquals(expected.getTitle(), stored.getTitle());
+                assertEquals(expected.getMessage(), stored.getMessage(), "copy=" + useCopy);
+                assertEquals(expected.isRead(), stored.isRead());
+                assertEquals(expected.getRelatedPropertyId(), stored.getRelatedPropertyId());
+                assertNull(stored.getRelatedRentalId());
+                assertEquals(expected.getCreatedAt().toEpochMilli(), stored.getCreatedAt().toEpochMilli());
+            }
+        }
+    }
+
+    @Test
+    void copyOutpacesBatchedInsertsOnALargeFanOut() {
+        double batched = writeFanOut(false);
+        notificationRepository.deleteAllInBatch();
+        double copied = writeFanOut(true);
+
+        log.info("Bulk notification writes, {} rows in chunks of {}: batched INSERT {} rows/s, COPY {} rows/s ({}x)",
+                ROWS, CHUNK_SIZE, Math.round(batched), Math.round(copied), String.format("%.1f", copied / batched));
+        assertTrue(copied > batched);
+    }
+
+    private double writeFanOut(boolean useCopy) {
+        UUID propertyId = UUID.randomUUID();
+        long started = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += CHUNK_SIZE) {
+            List<Notification> chunk = new ArrayList<>(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                chunk.add(notification(propertyId));
+            }
+            transactionTemplate.executeWithoutResult(status -> notificationBulkWriter.write(chunk, useCopy));
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        assertEquals(ROWS, notificationRepository.count());
+        return ROWS / seconds;
+    }
+
+    private static Notification notification(UUID propertyId) {
+        Notification notification = new Notification();
+        notification.setRecipientUserId(UUID.randomUUID());
+        notification.setNotificationType(NotificationType.WISHLIST_VACANCY);
+        notification.setTitle("Vacancy Alert");
+        notification.setMessage("A property on your wishlist, Cozy Room, now has a vacancy!");
+        notification.setRelatedPropertyId(propertyId);
+        return notification;
+    }
+}
@@ -0,0 +1,127 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Inbox page queries against a real PostgreSQL with a realistic spread of users and read state:
+ * every page, read or unread-only, first or later, must be an index range scan rather than a sequential
+ * scan and sort. Run with {@code ./gradlew functionalTest}; needs Docker.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "wishlist.counts.backfill-on-startup=false"
+})
+@Testcontainers
+class NotificationPageQueryPlanFunctionalTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPageQueryPlanFunctionalTest.class);
+    private static final int USERS = 1_000;
+    private static final int PER_USER = 100;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ConnectionFactory rabbitConnectionFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private UUID recipient;
+    private Instant cursorCreatedAt;
+    private UUID cursorId;
+
+    @BeforeEach
+    void seedInboxes() {
+        jdbcTemplate.execute("TRUNCATE notifications");
+        Instant start = Instant.now().minusSeconds(86_400);
+        List<Object[]> rows = new ArrayList<>(USERS * PER_USER);
+        List<UUID> users = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            users.add(UUID.randomUUID());
+        }
+        for (int i = 0; i < PER_USER; i++) {
+            for (UUID user : users) {
+                // Most of an inbox has been read; only the newest tenth is unread
+                boolean read = i < PER_USER * 9 / 10;
+                rows.add(new Object[]{TimeOrderedUuidGenerator.next(), user, "RENTAL_UPDATE", "Rental Update",
+                        "There is an update on your rental.", read, Timestamp.from(start.plusSeconds(i * 60L))});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notifications (notification_id, recipient_user_id, notification_type, title, " +
+                "message, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE notifications");
+
+        recipient = users.get(USERS / 2);
+        cursorCreatedAt = start.plusSeconds(PER_USER / 2 * 60L);
+        cursorId = UUID.randomUUID();
+    }
+
+    @Test
+    void partialUnreadIndexIsBuiltOnStartup() {
+        Boolean valid = jdbcTemplate.queryForObject("SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE c.relname = 'idx_notifications_recipient_unread'", Boolean.class);
+        assertEquals(Boolean.TRUE, valid);
+    }
+
+    @Test
+    void inboxPagesAreIndexRangeScans() {
+        assertIndexScan(NotificationRepository.FIRST_PAGE_SQL, "idx_notifications_recipient_created");
+        assertIndexScan(NotificationRepository.PAGE_BEFORE_SQL, "idx_notifications_recipient_created");
+    }
+
+    @Test
+    void unreadPagesUseThePartialIndex() {
+        assertIndexScan(NotificationRepository.FIRST_UNREAD_PAGE_SQL, "idx_notifications_recipient_unread");
+        assertIndexScan(NotificationRepository.UNREAD_PAGE_BEFORE_SQL, "idx_notifications_recipient_unread");
+    }
+
+    private void assertIndexScan(String sql, String expectedIndex) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("recipientUserId", recipient)
+                .addValue("createdAt", Timestamp.from(cursorCreatedAt))
+                .addValue("notificationId", cursorId)
+                .addValue("limit", 21);
+        String plan = String.join("\n", namedParameterJdbcTemplate.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + sql, params, String.class));
+        log.info("Plan for {}\n{}", sql, plan);
+
+        assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"), plan);
+        assertTrue(plan.contains(expectedIndex), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+}
@@ -0,0 +1,129 @@
+package id.ac.ui.cs.advprog.papikos.notification.repository;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.TimeOrderedUuidGenerator;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the fan-out-on-read visibility rules against a real PostgreSQL: an event stays in the inbox of whoever
+ * wishlisted its property when it was announced, an announcement is stored once however often it runs, and
+ * inbox pages continue from their cursor across wishlist periods.
+ * Run with {@code ./gradlew functionalTest}; needs Docker.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "wishlist.counts.backfill-on-startup=false"
+})
+@Testcontainers
+class VacancyEventVisibilityFunctionalTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ConnectionFactory rabbitConnectionFactory;
+
+    @Autowired
+    private VacancyEventRepository vacancyEventRepository;
+
+    @Autowired
+    private WishlistItemRepository wishlistItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID tenantUserId = UUID.randomUUID();
+    private final UUID propertyId = UUID.randomUUID();
+    private final Instant start = Instant.now().truncatedTo(ChronoUnit.MILLIS).minus(1, ChronoUnit.HOURS);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE vacancy_events, vacancy_event_reads, wishlist_items, wishlist_periods");
+    }
+
+    @Test
+    void removingThePropertyKeepsEventsAnnouncedWhileItWasWishlisted() {
+        wishlist(start);
+        UUID announcedWhileWishlisted = announce(start.plusSeconds(60));
+        assertEquals(1, wishlistItemRepository.removeKeepingPeriod(tenantUserId, propertyId, start.plusSeconds(120)));
+        UUID announcedWhileRemoved = announce(start.plusSeconds(180));
+        wishlist(start.plusSeconds(240));
+        UUID announcedAfterReAdding = announce(start.plusSeconds(300));
+
+        assertEquals(List.of(announcedAfterReAdding, announcedWhileWishlisted),
+                vacancyEventRepository.findFirstVisiblePage(tenantUserId, 10).stream().map(VacancyEvent::getEventId).toList());
+        assertTrue(vacancyEventRepository.isVisibleTo(announcedWhileWishlisted, tenantUserId));
+        assertFalse(vacancyEventRepository.isVisibleTo(announcedWhileRemoved, tenantUserId));
+        assertEquals(2, vacancyEventRepository.findFirstUnreadVisiblePage(tenantUserId, 10).size());
+    }
+
+    @Test
+    void pagesContinueFromTheCursorAcrossPeriods() {
+        wishlist(start);
+        UUID first = announce(start.plusSeconds(10));
+        UUID second = announce(start.plusSeconds(20));
+        wishlistItemRepository.removeKeepingPeriod(tenantUserId, propertyId, start.plusSeconds(30));
+        wishlist(start.plusSeconds(40));
+        UUID third = announce(start.plusSeconds(50));
+
+        List<VacancyEvent> page = vacancyEventRepository.findFirstVisiblePage(tenantUserId, 2);
+        VacancyEvent last = page.get(page.size() - 1);
+        List<VacancyEvent> next = vacancyEventRepository.findVisiblePageBefore(tenantUserId, last.getCreatedAt(), last.getEventId(), 2);
+
+        assertEquals(List.of(third, second), page.stream().map(VacancyEvent::getEventId).toList());
+        assertEquals(List.of(first), next.stream().map(VacancyEvent::getEventId).toList());
+    }
+
+    @Test
+    void removingAPropertyThatIsNotWishlistedRecordsNothing() {
+        assertEquals(0, wishlistItemRepository.removeKeepingPeriod(tenantUserId, propertyId, start));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wishlist_periods", Long.class));
+    }
+
+    @Test
+    void anAnnouncementIsStoredOnce() {
+        UUID announcementId = UUID.randomUUID();
+
+        assertEquals(1, vacancyEventRepository.insertIfAbsent(TimeOrderedUuidGenerator.next(), announcementId, propertyId,
+                "Vacancy", "A room is free", start));
+        assertEquals(0, vacancyEventRepository.insertIfAbsent(TimeOrderedUuidGenerator.next(), announcementId, propertyId,
+                "Vacancy", "A room is free", start.plusSeconds(5)));
+        assertEquals(1, vacancyEventRepository.count());
+    }
+
+    private void wishlist(Instant at) {
+        assertEquals(1, wishlistItemRepository.insertIfAbsent(TimeOrderedUuidGenerator.next(), tenantUserId, propertyId,
+                at, null, null, null, null));
+    }
+
+    private UUID announce(Instant at) {
+        UUID eventId = TimeOrderedUuidGenerator.next();
+        vacancyEventRepository.insertIfAbsent(eventId, UUID.randomUUID(), propertyId, "Vacancy", "A room is free", at);
+        return eventId;
+    }
+}
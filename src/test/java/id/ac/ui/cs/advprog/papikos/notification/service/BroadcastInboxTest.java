@@ -0,0 +1,228 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.KeysetCursor;
+import id.ac.ui.cs.advprog.papikos.notification.dto.NotificationDto;
+import id.ac.ui.cs.advprog.papikos.notification.model.Broadcast;
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastRead;
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastReadId;
+import id.ac.ui.cs.advprog.papikos.notification.model.BroadcastWatermark;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastReadRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.BroadcastWatermarkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BroadcastInboxTest {
+
+    @Mock
+    private BroadcastRepository broadcastRepository;
+
+    @Mock
+    private BroadcastWatermarkRepository watermarkRepository;
+
+    @Mock
+    private BroadcastReadRepository readRepository;
+
+    @Captor
+    private ArgumentCaptor<List<BroadcastRead>> exceptions;
+
+    private BroadcastInbox inbox;
+    private UUID userId;
+    private Broadcast oldest;
+    private Broadcast middle;
+    private Broadcast newest;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        Instant now = Instant.now();
+        oldest = broadcast(now.minusSeconds(300));
+        middle = broadcast(now.minusSeconds(200));
+        newest = broadcast(now.minusSeconds(100));
+        // Lenient: tests with their own broadcast set never load this one
+        lenient().when(broadcastRepository.findByCreatedAtAfterOrderByCreatedAtDesc(any())).thenReturn(List.of(newest, middle, oldest));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ActiveBroadcastCache activeBroadcasts = new ActiveBroadcastCache(broadcastRepository, meterRegistry, 30);
+        inbox = new BroadcastInbox(broadcastRepository, watermarkRepository, readRepository, activeBroadcasts,
+                meterRegistry, 100, 60_000);
+    }
+
+    @Test
+    @DisplayName("Broadcasts at or below the watermark and listed exceptions are read; the state is loaded once")
+    void page_UsesWatermarkAndExceptions() {
+        when(watermarkRepository.findById(userId))
+                .thenReturn(Optional.of(new BroadcastWatermark(userId, oldest.getCreatedAt(), oldest.getBroadcastId(), Instant.now())));
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of(newest.getBroadcastId()));
+
+        List<NotificationDto> all = inbox.page(userId, false, null, 10);
+        List<NotificationDto> unread = inbox.page(userId, true, null, 10);
+
+        assertEquals(List.of(true, false, true), all.stream().map(NotificationDto::isRead).toList());
+        assertEquals(List.of(middle.getBroadcastId()), unread.stream().map(NotificationDto::getNotificationId).toList());
+        assertEquals(1, inbox.unreadCount(userId));
+        verify(watermarkRepository, times(1)).findById(userId);
+        verify(broadcastRepository, times(1)).findByCreatedAtAfterOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    @DisplayName("A page seeks past the cursor and stops at the limit, skipping read broadcasts when unread only")
+    void page_SeeksToCursor() {
+        when(watermarkRepository.findById(userId)).thenReturn(Optional.empty());
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of(middle.getBroadcastId()));
+
+        List<NotificationDto> first = inbox.page(userId, false, null, 1);
+        List<NotificationDto> afterNewest = inbox.page(userId, false,
+                new KeysetCursor(newest.getCreatedAt(), newest.getBroadcastId()), 5);
+        List<NotificationDto> unreadAfterNewest = inbox.page(userId, true,
+                new KeysetCursor(newest.getCreatedAt(), newest.getBroadcastId()), 5);
+        List<NotificationDto> afterOldest = inbox.page(userId, false,
+                new KeysetCursor(oldest.getCreatedAt(), oldest.getBroadcastId()), 5);
+
+        assertEquals(List.of(newest.getBroadcastId()), first.stream().map(NotificationDto::getNotificationId).toList());
+        assertEquals(List.of(middle.getBroadcastId(), oldest.getBroadcastId()),
+                afterNewest.stream().map(NotificationDto::getNotificationId).toList());
+        assertEquals(List.of(oldest.getBroadcastId()), unreadAfterNewest.stream().map(NotificationDto::getNotificationId).toList());
+        assertTrue(afterOldest.isEmpty());
+    }
+
+    @Test
+    @DisplayName("The unread count skips exceptions for broadcasts no longer active or already under the watermark")
+    void unreadCount_IgnoresStaleExceptions() {
+        when(watermarkRepository.findById(userId))
+                .thenReturn(Optional.of(new BroadcastWatermark(userId, middle.getCreatedAt(), middle.getBroadcastId(), Instant.now())));
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of(oldest.getBroadcastId(), UUID.randomUUID()));
+
+        assertEquals(1, inbox.unreadCount(userId));
+    }
+
+    @Test
+    @DisplayName("Reading out of order stores an exception instead of moving the watermark")
+    void markRead_OutOfOrderStoresException() {
+        when(watermarkRepository.findById(userId)).thenReturn(Optional.empty());
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of());
+
+        Optional<NotificationDto> result = inbox.markRead(userId, newest.getBroadcastId());
+
+        assertTrue(result.orElseThrow().isRead());
+        verify(readRepository).saveAll(exceptions.capture());
+        assertEquals(List.of(new BroadcastReadId(userId, newest.getBroadcastId())),
+                exceptions.getValue().stream().map(BroadcastRead::getId).toList());
+        verify(watermarkRepository, never()).advance(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Marking everything read moves the watermark to the newest broadcast and clears the exceptions")
+    void markAllRead_MovesWatermarkToNewest() {
+        when(watermarkRepository.findById(userId)).thenReturn(Optional.empty());
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of(middle.getBroadcastId()));
+
+        assertEquals(2, inbox.markAllRead(userId, null));
+
+        InOrder order = inOrder(watermarkRepository);
+        order.verify(watermarkRepository).lockUser(userId);
+        order.verify(watermarkRepository).findById(userId);
+        order.verify(watermarkRepository).advance(eq(userId), eq(newest.getCreatedAt()), eq(newest.getBroadcastId()), any());
+        verify(readRepository).deleteReads(userId, Set.of(middle.getBroadcastId()));
+        verify(readRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("A cutoff only marks broadcasts created at or before it")
+    void markAllRead_UpToCutoff() {
+        when(watermarkRepository.findById(userId)).thenReturn(Optional.empty());
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of());
+
+        assertEquals(2, inbox.markAllRead(userId, middle.getCreatedAt()));
+
+        verify(watermarkRepository).advance(eq(userId), eq(middle.getCreatedAt()), eq(middle.getBroadcastId()), any());
+    }
+
+    @Test
+    @DisplayName("Reading the oldest unread broadcast folds contiguous exceptions into the watermark")
+    void markRead_InOrderAdvancesWatermark() {
+        when(watermarkRepository.findById(userId)).thenReturn(Optional.empty());
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of(middle.getBroadcastId()));
+
+        inbox.markRead(userId, oldest.getBroadcastId());
+
+        verify(watermarkRepository).lockUser(userId);
+        verify(watermarkRepository).advance(eq(userId), eq(middle.getCreatedAt()), eq(middle.getBroadcastId()), any());
+        verify(readRepository).deleteReads(userId, Set.of(middle.getBroadcastId()));
+        verify(readRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Reading one of two broadcasts sent in the same instant leaves the other unread")
+    void markRead_SameInstantTwinStaysUnread() {
+        Instant sentAt = Instant.now().minusSeconds(50);
+        Broadcast a = broadcast(sentAt);
+        Broadcast b = broadcast(sentAt);
+        Broadcast first = KeysetCursor.compareIds(a.getBroadcastId(), b.getBroadcastId()) < 0 ? a : b;
+        Broadcast second = first == a ? b : a;
+        BroadcastRepository twinRepository = mock(BroadcastRepository.class);
+        when(twinRepository.findByCreatedAtAfterOrderByCreatedAtDesc(any())).thenReturn(List.of(a, b));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BroadcastInbox twinInbox = new BroadcastInbox(twinRepository, watermarkRepository, readRepository,
+                new ActiveBroadcastCache(twinRepository, meterRegistry, 30), meterRegistry, 100, 60_000);
+        when(watermarkRepository.findById(userId)).thenReturn(Optional.empty(),
+                Optional.of(new BroadcastWatermark(userId, sentAt, first.getBroadcastId(), Instant.now())));
+        when(readRepository.findReadBroadcastIds(userId)).thenReturn(List.of());
+
+        twinInbox.markRead(userId, first.getBroadcastId());
+
+        verify(watermarkRepository).advance(eq(userId), eq(sentAt), eq(first.getBroadcastId()), any());
+        List<NotificationDto> page = twinInbox.page(userId, false, null, 10);
+        assertEquals(List.of(second.getBroadcastId(), first.getBroadcastId()),
+                page.stream().map(NotificationDto::getNotificationId).toList());
+        assertEquals(List.of(false, true), page.stream().map(NotificationDto::isRead).toList());
+        assertEquals(1, twinInbox.unreadCount(userId));
+    }
+
+    @Test
+    @DisplayName("Published broadcasts carry microsecond timestamps, as stored by PostgreSQL")
+    void publish_TruncatesToMicros() {
+        when(broadcastRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NotificationDto published = inbox.publish("System Maintenance", "App will be down briefly.");
+
+        assertEquals(0, published.getCreatedAt().getNano() % 1_000);
+    }
+
+    @Test
+    @DisplayName("An unknown ID is left for other inbox sources")
+    void markRead_Unknown() {
+        UUID unknown = UUID.randomUUID();
+        when(broadcastRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        assertTrue(inbox.markRead(userId, unknown).isEmpty());
+        verifyNoInteractions(watermarkRepository, readRepository);
+    }
+
+    private static Broadcast broadcast(Instant createdAt) {
+        Broadcast broadcast = new Broadcast();
+        broadcast.setBroadcastId(UUID.randomUUID());
+        broadcast.setTitle("System Maintenance");
+        broadcast.setMessage("App will be down briefly.");
+        broadcast.setCreatedAt(createdAt);
+        return broadcast;
+    }
+}
@@ -0,0 +1,135 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.VacancyUpdateNotification;
+import id.ac.ui.cs.advprog.papikos.notification.model.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares fan-out-on-write and fan-out-on-read for a popular property: rows and bytes written per
+ * vacancy announcement, and inbox read latency for one of its wishlisters.
+ * Run with {@code ./gradlew functionalTest}; needs Docker.
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration",
+        "spring.rabbitmq.listener.simple.auto-startup=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "wishlist.counts.backfill-on-startup=false",
+        "kos.service.url=http://localhost:1" // Property names fall back without a Kos service
+})
+@Testcontainers
+class FanOutModeBenchmarkFunctionalTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOutModeBenchmarkFunctionalTest.class);
+    private static final int WISHLISTERS = 20_000;
+    private static final int VACANCIES = 5;
+    private static final int READS = 500;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockBean
+    private ConnectionFactory rabbitConnectionFactory;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID propertyId;
+    private UUID reader;
+
+    @BeforeEach
+    void seedWishlisters() {
+        jdbcTemplate.execute("TRUNCATE wishlist_items");
+        propertyId = UUID.randomUUID();
+        Timestamp wishlistedAt = Timestamp.from(Instant.now().minusSeconds(3600));
+        List<Object[]> rows = new ArrayList<>(WISHLISTERS);
+        for (int i = 0; i < WISHLISTERS; i++) {
+            rows.add(new Object[]{TimeOrderedUuidGenerator.next(), UUID.randomUUID(), propertyId, wishlistedAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO wishlist_items (wishlist_item_id, tenant_user_id, property_id, created_at) " +
+                "VALUES (?, ?, ?, ?)", rows);
+        reader = (UUID) rows.get(WISHLISTERS / 2)[1];
+    }
+
+    @Test
+    void fanOutOnReadWritesOnceAndStillServesTheInbox() {
+        ModeResult write = run("write");
+        ModeResult read = run("read");
+
+        log.info("{} vacancies x {} wishlisters", VACANCIES, WISHLISTERS);
+        log.info("write: {} rows, {} KiB written; inbox read p50 {} us, p99 {} us",
+                write.rows(), write.bytes() / 1024, write.p50Micros(), write.p99Micros());
+        log.info("read:  {} rows, {} KiB written; inbox read p50 {} us, p99 {} us",
+                read.rows(), read.bytes() / 1024, read.p50Micros(), read.p99Micros());
+
+        assertEquals((long) VACANCIES * WISHLISTERS, write.rows());
+        assertEquals(VACANCIES, read.rows());
+        assertTrue(read.bytes() < write.bytes());
+    }
+
+    private ModeResult run(String mode) {
+        ReflectionTestUtils.setField(AopTestUtils.getUltimateTargetObject(notificationService), "fanOutMode", mode);
+        jdbcTemplate.execute("TRUNCATE notifications, vacancy_events, vacancy_event_reads");
+        long sizeBefore = storedBytes();
+
+        for (int i = 0; i < VACANCIES; i++) {
+            notificationService.notifyWishlistUsersOnVacancy(
+                    new VacancyUpdateNotification("Vacancy Alert", "A room is now available at %s!", propertyId));
+        }
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM notifications) + (SELECT COUNT(*) FROM vacancy_events)", Long.class);
+        long bytes = storedBytes() - sizeBefore;
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(VACANCIES, notificationService.getNotificationPage(reader, false, null, null).getItems().size());
+        }
+        long[] micros = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            long started = System.nanoTime();
+            notificationService.getNotificationPage(reader, false, null, null);
+            micros[i] = (System.nanoTime() - started) / 1_000;
+        }
+        Arrays.sort(micros);
+        return new ModeResult(rows, bytes, micros[READS / 2], micros[READS * 99 / 100]);
+    }
+
+    private long storedBytes() {
+        Long bytes = jdbcTemplate.queryForObject("SELECT pg_total_relation_size('notifications') + " +
+                "pg_total_relation_size('vacancy_events') + pg_total_relation_size('vacancy_event_reads')", Long.class);
+        return bytes == null ? 0 : bytes;
+    }
+
+    private record ModeResult(long rows, long bytes, long p50Micros, long p99Micros) {
+    }
+}
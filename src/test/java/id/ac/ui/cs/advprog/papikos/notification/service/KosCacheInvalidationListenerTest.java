@@ -0,0 +1,76 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsCache;
+import id.ac.ui.cs.advprog.papikos.notification.config.RabbitMQConfig;
+import id.ac.ui.cs.advprog.papikos.notification.dto.KosUpdateEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KosCacheInvalidationListenerTest {
+
+    @Mock
+    private KosDetailsCache kosDetailsCache;
+
+    @Mock
+    private WishlistSnapshotRefresher wishlistSnapshotRefresher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KosCacheInvalidationListener listener;
+    private UUID kosId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new KosCacheInvalidationListener(kosDetailsCache, wishlistSnapshotRefresher, meterRegistry, 100);
+        kosId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.shutdown();
+    }
+
+    @Test
+    @DisplayName("A burst of updates for one property collapses into a single refresh")
+    void onKosEvent_BurstCollapsesIntoOneRefresh() {
+        for (int i = 0; i < 5; i++) {
+            listener.onKosEvent(new KosUpdateEvent(kosId), RabbitMQConfig.ROUTING_KEY_KOS_UPDATED);
+        }
+
+        verify(wishlistSnapshotRefresher, timeout(1_000).times(1)).refreshNow(kosId);
+        verify(wishlistSnapshotRefresher, after(300).times(1)).refreshNow(kosId);
+        assertEquals(4.0, meterRegistry.counter("kos.details.cache.invalidation.collapsed").count());
+    }
+
+    @Test
+    @DisplayName("Deletions evict and tombstone immediately and cancel a pending refresh")
+    void onKosEvent_DeleteEvictsImmediately() {
+        listener.onKosEvent(new KosUpdateEvent(kosId), RabbitMQConfig.ROUTING_KEY_KOS_UPDATED);
+        listener.onKosEvent(new KosUpdateEvent(kosId), RabbitMQConfig.ROUTING_KEY_KOS_DELETED);
+
+        verify(kosDetailsCache).invalidate(kosId);
+        verify(wishlistSnapshotRefresher).markDeleted(kosId);
+        verify(wishlistSnapshotRefresher, after(300).never()).refreshNow(any());
+    }
+
+    @Test
+    @DisplayName("Events without a kosId are ignored")
+    void onKosEvent_MissingIdIgnored() {
+        listener.onKosEvent(new KosUpdateEvent(null), RabbitMQConfig.ROUTING_KEY_KOS_DELETED);
+
+        verifyNoInteractions(kosDetailsCache, wishlistSnapshotRefresher);
+    }
+}
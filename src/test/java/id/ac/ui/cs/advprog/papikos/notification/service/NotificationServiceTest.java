@@ -1,39 +1,64 @@
 package id.ac.ui.cs.advprog.papikos.notification.service;
 
 import id.ac.ui.cs.advprog.papikos.notification.client.ApiResponseWrapper;
+import id.ac.ui.cs.advprog.papikos.notification.client.DownstreamGuard;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsBatchLoader;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsCache;
 import id.ac.ui.cs.advprog.papikos.notification.client.KosServiceClient;
 import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsDto; // Correct DTO for Kos
+import id.ac.ui.cs.advprog.papikos.notification.client.RentalServiceClient;
+import id.ac.ui.cs.advprog.papikos.notification.client.SingleFlight;
 import id.ac.ui.cs.advprog.papikos.notification.dto.*;
+import id.ac.ui.cs.advprog.papikos.notification.exception.BadRequestException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ConflictException;
+import id.ac.ui.cs.advprog.papikos.notification.exception.ForbiddenException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ResourceNotFoundException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ServiceInteractionException;
 import id.ac.ui.cs.advprog.papikos.notification.exception.ServiceUnavailableException;
 import id.ac.ui.cs.advprog.papikos.notification.model.Notification;
 import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyEvent;
 import id.ac.ui.cs.advprog.papikos.notification.model.WishlistItem;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationBulkWriter;
 import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.VacancyEventReadRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.VacancyEventRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemBatchRepository;
 import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
 
 import feign.FeignException;
 import feign.Request;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Date; // For KosDetailsDto createdAt/updatedAt
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,13 +70,51 @@ class NotificationServiceTest {
     @Mock
     private WishlistItemRepository wishlistItemRepository;
 
+    @Mock
+    private WishlistItemBatchRepository wishlistItemBatchRepository;
+
     @Mock
     private NotificationRepository notificationRepository;
 
     @Mock
     private KosServiceClient kosServiceClient;
 
-    @InjectMocks
+    @Mock
+    private RentalServiceClient rentalServiceClient;
+
+    @Mock
+    private WishlistSnapshotRefresher wishlistSnapshotRefresher;
+
+    @Mock
+    private WishlistMembershipCache wishlistMembershipCache;
+
+    @Mock
+    private PropertyWishlistCounter propertyWishlistCounter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationBulkWriter notificationBulkWriter;
+
+    @Mock
+    private BroadcastInbox broadcastInbox;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Mock
+    private VacancyEventRepository vacancyEventRepository;
+
+    @Mock
+    private VacancyEventReadRepository vacancyEventReadRepository;
+
+    private ExecutorService kosLookupExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CircuitBreaker kosCircuitBreaker;
+
     private NotificationService notificationService;
 
     @Captor
@@ -74,6 +137,39 @@ class NotificationServiceTest {
 
     @BeforeEach
     void setUp() {
+        kosLookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        kosCircuitBreaker = CircuitBreaker.ofDefaults("kos");
+        // Retries disabled so each stubbed client call happens exactly once
+        DownstreamGuard kosGuard = new DownstreamGuard(kosCircuitBreaker, Bulkhead.ofDefaults("kos"),
+                Retry.of("kos", RetryConfig.custom().maxAttempts(1).build()));
+        DownstreamGuard rentalGuard = new DownstreamGuard(CircuitBreaker.ofDefaults("rental"), Bulkhead.ofDefaults("rental"),
+                Retry.of("rental", RetryConfig.custom().maxAttempts(1).build()));
+        // Batch endpoint disabled so lookups go through the single-ID calls stubbed below
+        KosDetailsBatchLoader kosDetailsBatchLoader = new KosDetailsBatchLoader(kosServiceClient, kosLookupExecutor,
+                new SingleFlight<>("kos", meterRegistry), kosGuard, meterRegistry, false, 1, 50, 600_000);
+        KosDetailsCache kosDetailsCache = new KosDetailsCache(kosDetailsBatchLoader, kosLookupExecutor, meterRegistry,
+                1_000, 60_000, 600_000, 86_400_000, 60_000, 5_000);
+        notificationService = new NotificationService(wishlistItemRepository, wishlistItemBatchRepository, notificationRepository,
+                rentalServiceClient, new SingleFlight<>("rental", meterRegistry), rentalGuard, kosDetailsCache, wishlistSnapshotRefresher, wishlistMembershipCache,
+                propertyWishlistCounter,
+                // Two recipients per chunk so the tests cover paging
+                new NotificationFanOut(wishlistItemRepository, notificationBulkWriter, propertyWishlistCounter, transactionManager, 2),
+                notificationBulkWriter, vacancyEventRepository, vacancyEventReadRepository, new NotificationTemplates(), broadcastInbox, unreadNotificationCounter,
+                new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(notificationService, "enrichmentMode", "concurrent");
+        ReflectionTestUtils.setField(notificationService, "enrichmentDeadlineMs", 2000L);
+        ReflectionTestUtils.setField(notificationService, "wishlistDefaultPageSize", 20);
+        ReflectionTestUtils.setField(notificationService, "wishlistMaxPageSize", 100);
+        ReflectionTestUtils.setField(notificationService, "wishlistBulkMaxOperations", 100);
+        ReflectionTestUtils.setField(notificationService, "wishlistMembershipMaxIds", 200);
+        ReflectionTestUtils.setField(notificationService, "wishlistCountsMaxIds", 200);
+        ReflectionTestUtils.setField(notificationService, "internalBulkMaxSize", 3);
+        ReflectionTestUtils.setField(notificationService, "fanOutMode", "write");
+        ReflectionTestUtils.setField(notificationService, "notificationDefaultPageSize", 20);
+        ReflectionTestUtils.setField(notificationService, "notificationMaxPageSize", 100);
+        ReflectionTestUtils.setField(notificationService, "markReadMaxIds", 3);
+
         tenantUserId = UUID.randomUUID();
         propertyId1 = UUID.randomUUID();
         propertyId2 = UUID.randomUUID();
@@ -110,6 +206,11 @@ class NotificationServiceTest {
         notification1.setCreatedAt(Instant.now());
     }
 
+    @AfterEach
+    void tearDown() {
+        kosLookupExecutor.shutdownNow();
+    }
+
     private ApiResponseWrapper<KosDetailsDto> createSuccessKosResponse(KosDetailsDto data) {
         ApiResponseWrapper<KosDetailsDto> response = new ApiResponseWrapper<>();
         response.setData(data);
@@ -147,35 +248,77 @@ class NotificationServiceTest {
 
         ApiResponseWrapper<KosDetailsDto> kosResponse = createSuccessKosResponse(kosDetailsDto1);
         when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(kosResponse);
-        when(wishlistItemRepository.existsByTenantUserIdAndPropertyId(tenantUserId, propertyId1)).thenReturn(false);
-
-        UUID generatedWishlistItemId = UUID.randomUUID();
-        Instant generatedCreatedAt = Instant.now();
-        when(wishlistItemRepository.save(any(WishlistItem.class))).thenAnswer(invocation -> {
-            WishlistItem itemToSave = invocation.getArgument(0);
-            itemToSave.setWishlistItemId(generatedWishlistItemId);
-            itemToSave.setCreatedAt(generatedCreatedAt);
-            return itemToSave;
-        });
+        when(wishlistItemRepository.insertIfAbsent(any(UUID.class), eq(tenantUserId), eq(propertyId1), any(Instant.class),
+                any(), any(), any(), any())).thenReturn(1);
+
         WishlistItemDto resultDto = notificationService.addToWishlist(tenantUserId, request);
 
         assertNotNull(resultDto);
-        assertEquals(generatedWishlistItemId, resultDto.getWishlistItemId());
+        assertNotNull(resultDto.getWishlistItemId());
         assertEquals(tenantUserId, resultDto.getTenantUserId());
         assertNotNull(resultDto.getProperty());
         assertEquals(kosDetailsDto1.getId(), resultDto.getProperty().getPropertyId());
         assertEquals(kosDetailsDto1.getName(), resultDto.getProperty().getName());
         assertEquals(kosDetailsDto1.getAddress(), resultDto.getProperty().getAddress());
         assertEquals(kosDetailsDto1.getMonthlyRentPrice(), resultDto.getProperty().getMonthlyRentPrice());
-        assertEquals(generatedCreatedAt, resultDto.getCreatedAt());
+        assertNotNull(resultDto.getCreatedAt());
 
         verify(kosServiceClient).getKosDetailsApiResponse(propertyId1);
-        verify(wishlistItemRepository).existsByTenantUserIdAndPropertyId(tenantUserId, propertyId1);
-        verify(wishlistItemRepository).save(wishlistItemCaptor.capture());
-        WishlistItem capturedItem = wishlistItemCaptor.getValue();
-        assertEquals(tenantUserId, capturedItem.getTenantUserId());
-        assertEquals(propertyId1, capturedItem.getPropertyId());
-        assertEquals(generatedWishlistItemId, capturedItem.getWishlistItemId());
+        verify(wishlistItemRepository).insertIfAbsent(eq(resultDto.getWishlistItemId()), eq(tenantUserId), eq(propertyId1),
+                eq(resultDto.getCreatedAt()), eq(kosDetailsDto1.getName()), eq(kosDetailsDto1.getAddress()),
+                eq(kosDetailsDto1.getMonthlyRentPrice()), any(Instant.class));
+        verify(wishlistItemRepository, never()).existsByTenantUserIdAndPropertyId(any(UUID.class), any(UUID.class));
+        verify(wishlistItemRepository, never()).save(any(WishlistItem.class));
+        verify(wishlistMembershipCache).invalidate(tenantUserId);
+        verify(propertyWishlistCounter).recordAdded(propertyId1);
+    }
+
+    @Test
+    @DisplayName("Add to Wishlist - Repeated add is validated from the cache and reported as a conflict")
+    void addToWishlist_DoubleTapUsesCacheAndConflicts() throws Exception {
+        AddToWishlistRequest request = new AddToWishlistRequest(propertyId1);
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(wishlistItemRepository.insertIfAbsent(any(UUID.class), eq(tenantUserId), eq(propertyId1), any(Instant.class),
+                any(), any(), any(), any())).thenReturn(1, 0);
+
+        notificationService.addToWishlist(tenantUserId, request);
+        assertThrows(ConflictException.class, () -> notificationService.addToWishlist(tenantUserId, request));
+
+        verify(kosServiceClient, times(1)).getKosDetailsApiResponse(propertyId1);
+    }
+
+    @Test
+    @DisplayName("Add to Wishlist - Kos service unavailable, validated from an existing snapshot")
+    void addToWishlist_KosUnavailable_UsesSnapshot() throws Exception {
+        AddToWishlistRequest request = new AddToWishlistRequest(propertyId1);
+        Request feignReq = Request.create(Request.HttpMethod.GET, "/api/kos/" + propertyId1, Collections.emptyMap(), null, feign.Util.UTF_8);
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1))
+                .thenThrow(new FeignException.ServiceUnavailable("Service unavailable", feignReq, null, Collections.emptyMap()));
+        Instant capturedAt = Instant.now().minusSeconds(60);
+        WishlistItem otherTenantsItem = new WishlistItem(UUID.randomUUID(), propertyId1);
+        otherTenantsItem.setPropertyName("Snapshot Kos");
+        otherTenantsItem.setPropertyAddress("Jl. Snapshot");
+        otherTenantsItem.setPropertyMonthlyRentPrice(BigDecimal.valueOf(1500000));
+        otherTenantsItem.setSnapshotCapturedAt(capturedAt);
+        when(wishlistItemRepository.findFirstByPropertyIdAndPropertyNameIsNotNullOrderBySnapshotCapturedAtDesc(propertyId1))
+                .thenReturn(Optional.of(otherTenantsItem));
+        when(wishlistItemRepository.insertIfAbsent(any(UUID.class), eq(tenantUserId), eq(propertyId1), any(Instant.class),
+                eq("Snapshot Kos"), eq("Jl. Snapshot"), eq(BigDecimal.valueOf(1500000)), eq(capturedAt))).thenReturn(1);
+
+        WishlistItemDto resultDto = notificationService.addToWishlist(tenantUserId, request);
+
+        assertEquals("Snapshot Kos", resultDto.getProperty().getName());
+    }
+
+    @Test
+    @DisplayName("Add to Wishlist - Constraint violation on insert is reported as a conflict")
+    void addToWishlist_ConstraintViolationIsConflict() {
+        AddToWishlistRequest request = new AddToWishlistRequest(propertyId1);
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(wishlistItemRepository.insertIfAbsent(any(UUID.class), eq(tenantUserId), eq(propertyId1), any(Instant.class),
+                any(), any(), any(), any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(ConflictException.class, () -> notificationService.addToWishlist(tenantUserId, request));
     }
 
     @Test
@@ -192,8 +335,7 @@ class NotificationServiceTest {
         assertTrue(exception.getMessage().contains("Property not found with ID: " + propertyId1));
 
         verify(kosServiceClient).getKosDetailsApiResponse(propertyId1);
-        verify(wishlistItemRepository, never()).existsByTenantUserIdAndPropertyId(any(UUID.class), any(UUID.class));
-        verify(wishlistItemRepository, never()).save(any(WishlistItem.class));
+        verify(wishlistItemRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
@@ -211,8 +353,7 @@ class NotificationServiceTest {
         assertTrue(exception.getMessage().contains("Property not found with ID: " + propertyId1));
 
         verify(kosServiceClient).getKosDetailsApiResponse(propertyId1);
-        verify(wishlistItemRepository, never()).existsByTenantUserIdAndPropertyId(any(UUID.class), any(UUID.class));
-        verify(wishlistItemRepository, never()).save(any(WishlistItem.class));
+        verify(wishlistItemRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any(), any(), any());
     }
 
 
@@ -223,7 +364,8 @@ class NotificationServiceTest {
 
         ApiResponseWrapper<KosDetailsDto> kosResponse = createSuccessKosResponse(kosDetailsDto1);
         when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(kosResponse);
-        when(wishlistItemRepository.existsByTenantUserIdAndPropertyId(tenantUserId, propertyId1)).thenReturn(true);
+        when(wishlistItemRepository.insertIfAbsent(any(UUID.class), eq(tenantUserId), eq(propertyId1), any(Instant.class),
+                any(), any(), any(), any())).thenReturn(0);
 
         ConflictException exception = assertThrows(ConflictException.class, () -> {
             notificationService.addToWishlist(tenantUserId, request);
@@ -231,7 +373,6 @@ class NotificationServiceTest {
         assertTrue(exception.getMessage().contains("Property " + propertyId1 + " is already in the wishlist."));
 
         verify(kosServiceClient).getKosDetailsApiResponse(propertyId1);
-        verify(wishlistItemRepository).existsByTenantUserIdAndPropertyId(tenantUserId, propertyId1);
         verify(wishlistItemRepository, never()).save(any(WishlistItem.class));
     }
 
@@ -266,6 +407,144 @@ class NotificationServiceTest {
     }
 
 
+    @Test
+    @DisplayName("Fetch Rental Details - Feign 404 is reported as a missing Rental")
+    void fetchRentalDetails_Feign404() {
+        UUID rentalId = UUID.randomUUID();
+        Request feignReq = Request.create(Request.HttpMethod.GET, "/api/rentals/" + rentalId, Collections.emptyMap(), null, feign.Util.UTF_8);
+        when(rentalServiceClient.getRentalDetail(rentalId))
+                .thenThrow(new FeignException.NotFound("Not Found from Feign", feignReq, null, Collections.emptyMap()));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> notificationService.fetchRentalDetails(rentalId));
+        assertTrue(exception.getMessage().contains("Rental not found with ID: " + rentalId));
+    }
+
+    @Test
+    @DisplayName("Fetch Rental Details - Feign non-404 is reported against the Rental service")
+    void fetchRentalDetails_FeignUnavailable() {
+        UUID rentalId = UUID.randomUUID();
+        Request feignReq = Request.create(Request.HttpMethod.GET, "/api/rentals/" + rentalId, Collections.emptyMap(), null, feign.Util.UTF_8);
+        when(rentalServiceClient.getRentalDetail(rentalId))
+                .thenThrow(new FeignException.ServiceUnavailable("Service unavailable", feignReq, null, Collections.emptyMap()));
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> notificationService.fetchRentalDetails(rentalId));
+        assertTrue(exception.getMessage().startsWith("Error fetching Rental details"));
+    }
+
+    @Test
+    @DisplayName("Add to Wishlist - Kos circuit breaker open fails fast without calling KosService")
+    void addToWishlist_KosCircuitOpen() {
+        AddToWishlistRequest request = new AddToWishlistRequest(propertyId1);
+        kosCircuitBreaker.transitionToOpenState();
+
+        assertThrows(ServiceUnavailableException.class, () -> notificationService.addToWishlist(tenantUserId, request));
+        verify(kosServiceClient, never()).getKosDetailsApiResponse(any());
+        verify(wishlistItemRepository, never()).insertIfAbsent(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Bulk Wishlist - Adds and removes are applied as batches with a status per operation")
+    void bulkUpdateWishlist_AppliesBatches() {
+        UUID missingPropertyId = UUID.randomUUID();
+        UUID removedPropertyId = UUID.randomUUID();
+        UUID absentPropertyId = UUID.randomUUID();
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(kosServiceClient.getKosDetailsApiResponse(missingPropertyId)).thenReturn(createNotFoundKosResponse());
+        when(wishlistItemBatchRepository.insertIfAbsent(anyList())).thenReturn(new int[]{1});
+        when(wishlistItemBatchRepository.delete(tenantUserId, List.of(removedPropertyId, absentPropertyId)))
+                .thenReturn(new int[]{1, 0});
+        BulkWishlistRequest request = new BulkWishlistRequest(List.of(
+                new WishlistOperation(WishlistOperationType.ADD, propertyId1),
+                new WishlistOperation(WishlistOperationType.ADD, missingPropertyId),
+                new WishlistOperation(WishlistOperationType.REMOVE, removedPropertyId),
+                new WishlistOperation(WishlistOperationType.REMOVE, absentPropertyId),
+                new WishlistOperation(null, propertyId2)));
+
+        List<WishlistOperationResult> results = notificationService.bulkUpdateWishlist(tenantUserId, request);
+
+        assertEquals(5, results.size());
+        assertEquals(WishlistOperationStatus.ADDED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getWishlistItemId());
+        assertEquals(WishlistOperationStatus.PROPERTY_NOT_FOUND, results.get(1).getStatus());
+        assertEquals(WishlistOperationStatus.REMOVED, results.get(2).getStatus());
+        assertEquals(WishlistOperationStatus.NOT_IN_WISHLIST, results.get(3).getStatus());
+        assertEquals(WishlistOperationStatus.INVALID, results.get(4).getStatus());
+
+        verify(propertyWishlistCounter).recordAdded(propertyId1);
+        verify(propertyWishlistCounter).recordRemoved(removedPropertyId);
+        verifyNoMoreInteractions(propertyWishlistCounter);
+        verify(wishlistItemBatchRepository).insertIfAbsent(argThat(items -> items.size() == 1
+                && items.get(0).getPropertyId().equals(propertyId1)
+                && kosDetailsDto1.getName().equals(items.get(0).getPropertyName())));
+    }
+
+    @Test
+    @DisplayName("Bulk Wishlist - Later operation on the same property supersedes the earlier one")
+    void bulkUpdateWishlist_LastOperationWins() {
+        when(wishlistItemBatchRepository.insertIfAbsent(List.of())).thenReturn(new int[0]);
+        when(wishlistItemBatchRepository.delete(tenantUserId, List.of(propertyId1))).thenReturn(new int[]{0});
+        BulkWishlistRequest request = new BulkWishlistRequest(List.of(
+                new WishlistOperation(WishlistOperationType.ADD, propertyId1),
+                new WishlistOperation(WishlistOperationType.REMOVE, propertyId1)));
+
+        List<WishlistOperationResult> results = notificationService.bulkUpdateWishlist(tenantUserId, request);
+
+        assertEquals(WishlistOperationStatus.SUPERSEDED, results.get(0).getStatus());
+        assertEquals(WishlistOperationStatus.NOT_IN_WISHLIST, results.get(1).getStatus());
+        verify(kosServiceClient, never()).getKosDetailsApiResponse(any());
+    }
+
+    @Test
+    @DisplayName("Wishlist Membership - Answered from the membership cache without Kos calls")
+    void getWishlistMembership_UsesCache() {
+        List<UUID> propertyIds = List.of(propertyId1, propertyId2);
+        when(wishlistMembershipCache.contains(tenantUserId, propertyIds)).thenReturn(Map.of(propertyId1, true, propertyId2, false));
+
+        Map<UUID, Boolean> membership = notificationService.getWishlistMembership(tenantUserId, propertyIds);
+
+        assertTrue(membership.get(propertyId1));
+        assertFalse(membership.get(propertyId2));
+        verifyNoInteractions(kosServiceClient);
+    }
+
+    @Test
+    @DisplayName("Wishlist Membership - Too many property IDs is rejected")
+    void getWishlistMembership_TooManyIds() {
+        ReflectionTestUtils.setField(notificationService, "wishlistMembershipMaxIds", 1);
+
+        assertThrows(BadRequestException.class,
+                () -> notificationService.getWishlistMembership(tenantUserId, List.of(propertyId1, propertyId2)));
+        verifyNoInteractions(wishlistMembershipCache);
+    }
+
+    @Test
+    @DisplayName("Wishlist Counts - Limited by its own setting, not the membership limit")
+    void getWishlistCounts_OwnLimit() {
+        List<UUID> propertyIds = List.of(propertyId1, propertyId2);
+        ReflectionTestUtils.setField(notificationService, "wishlistMembershipMaxIds", 1);
+        when(propertyWishlistCounter.getCounts(propertyIds)).thenReturn(Map.of(propertyId1, 3L, propertyId2, 0L));
+
+        assertEquals(3L, notificationService.getWishlistCounts(propertyIds).get(propertyId1));
+
+        ReflectionTestUtils.setField(notificationService, "wishlistCountsMaxIds", 1);
+        assertThrows(BadRequestException.class, () -> notificationService.getWishlistCounts(propertyIds));
+        verify(propertyWishlistCounter, times(1)).getCounts(any());
+    }
+
+    @Test
+    @DisplayName("Bulk Wishlist - Too many operations is rejected")
+    void bulkUpdateWishlist_TooManyOperations() {
+        ReflectionTestUtils.setField(notificationService, "wishlistBulkMaxOperations", 1);
+        BulkWishlistRequest request = new BulkWishlistRequest(List.of(
+                new WishlistOperation(WishlistOperationType.ADD, propertyId1),
+                new WishlistOperation(WishlistOperationType.ADD, propertyId2)));
+
+        assertThrows(BadRequestException.class, () -> notificationService.bulkUpdateWishlist(tenantUserId, request));
+        verifyNoInteractions(wishlistItemBatchRepository);
+    }
+
     @Test
     @DisplayName("Get Wishlist - Success (Multiple Items)")
     void getWishlist_Success_MultipleItems() {
@@ -283,9 +562,9 @@ class NotificationServiceTest {
         when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(kosResponse1);
         when(kosServiceClient.getKosDetailsApiResponse(propertyId2)).thenReturn(kosResponse2);
 
-        when(wishlistItemRepository.findByTenantUserId(tenantUserId)).thenReturn(List.of(wishlistItem1, item2));
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(List.of(wishlistItem1, item2));
 
-        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId);
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
 
         assertNotNull(wishlist);
         assertEquals(2, wishlist.size());
@@ -296,12 +575,140 @@ class NotificationServiceTest {
         verify(kosServiceClient, times(2)).getKosDetailsApiResponse(any(UUID.class));
     }
 
+    @Test
+    @DisplayName("Get Wishlist - Rows with a snapshot are served without calling the Kos service")
+    void getWishlist_FromSnapshot() {
+        wishlistItem1.setPropertyName("Snapshot Name");
+        wishlistItem1.setPropertyAddress("Snapshot Address");
+        wishlistItem1.setPropertyMonthlyRentPrice(BigDecimal.valueOf(1500000));
+        wishlistItem1.setSnapshotCapturedAt(Instant.now());
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(List.of(wishlistItem1));
+        when(wishlistSnapshotRefresher.isStale(any())).thenReturn(false);
+
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
+
+        assertEquals(1, wishlist.size());
+        assertEquals("Snapshot Name", wishlist.get(0).getProperty().getName());
+        assertEquals(BigDecimal.valueOf(1500000), wishlist.get(0).getProperty().getMonthlyRentPrice());
+        verifyNoInteractions(kosServiceClient);
+        verify(wishlistSnapshotRefresher, never()).refreshAsync(any());
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - A tombstoned snapshot renders the placeholder without calling the Kos service")
+    void getWishlist_TombstonedSnapshot() {
+        wishlistItem1.setSnapshotCapturedAt(Instant.now());
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(List.of(wishlistItem1));
+        when(wishlistSnapshotRefresher.isStale(any())).thenReturn(false);
+
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
+
+        assertEquals("Property " + propertyId1 + " (details unavailable)", wishlist.get(0).getProperty().getName());
+        verifyNoInteractions(kosServiceClient);
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - Stale snapshot is served and re-enriched in the background")
+    void getWishlist_StaleSnapshotTriggersRefresh() {
+        wishlistItem1.setPropertyName("Old Name");
+        wishlistItem1.setSnapshotCapturedAt(Instant.now().minusSeconds(86_400));
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(List.of(wishlistItem1));
+        when(wishlistSnapshotRefresher.isStale(any())).thenReturn(true);
+
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
+
+        assertEquals("Old Name", wishlist.get(0).getProperty().getName());
+        verifyNoInteractions(kosServiceClient);
+        verify(wishlistSnapshotRefresher).refreshAsync(List.of(propertyId1));
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - Slow Kos lookup past the deadline falls back to placeholder")
+    void getWishlist_SlowLookup_FallsBackToPlaceholder() {
+        ReflectionTestUtils.setField(notificationService, "enrichmentDeadlineMs", 200L);
+        WishlistItem item2 = new WishlistItem(tenantUserId, propertyId2);
+        item2.setWishlistItemId(UUID.randomUUID());
+        item2.setCreatedAt(Instant.now());
+
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId2)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return createNotFoundKosResponse();
+        });
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(List.of(wishlistItem1, item2));
+
+        long start = System.nanoTime();
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(2, wishlist.size());
+        assertTrue(elapsedMs < 5_000, "enrichment should not wait for the slow lookup");
+        assertEquals(kosDetailsDto1.getName(), wishlist.get(0).getProperty().getName());
+        assertEquals("Property " + propertyId2 + " (details unavailable)", wishlist.get(1).getProperty().getName());
+        assertEquals(1.0, meterRegistry.counter("wishlist.enrichment.deadline.missed").count());
+        assertEquals(1L, meterRegistry.timer("wishlist.enrichment", "mode", "concurrent").count());
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - Sequential mode")
+    void getWishlist_SequentialMode() {
+        ReflectionTestUtils.setField(notificationService, "enrichmentMode", "sequential");
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(List.of(wishlistItem1));
+
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
+
+        assertEquals(1, wishlist.size());
+        assertEquals(kosDetailsDto1.getName(), wishlist.get(0).getProperty().getName());
+        assertEquals(1L, meterRegistry.timer("wishlist.enrichment", "mode", "sequential").count());
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - Paginates with an opaque cursor")
+    void getWishlist_Paginates() {
+        wishlistItem1.setSnapshotCapturedAt(Instant.now());
+        WishlistItem item2 = new WishlistItem(tenantUserId, propertyId2);
+        item2.setWishlistItemId(UUID.randomUUID());
+        item2.setCreatedAt(Instant.now().minusSeconds(60));
+        item2.setSnapshotCapturedAt(Instant.now());
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 2)).thenReturn(List.of(wishlistItem1, item2));
+        when(wishlistItemRepository.findPageByTenantUserIdBefore(tenantUserId, wishlistItem1.getCreatedAt(), wishlistItemId1, 2))
+                .thenReturn(List.of(item2));
+
+        CursorPage<WishlistItemDto> firstPage = notificationService.getWishlist(tenantUserId, null, 1);
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(wishlistItemId1, firstPage.getItems().get(0).getWishlistItemId());
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPage<WishlistItemDto> secondPage = notificationService.getWishlist(tenantUserId, firstPage.getNextCursor(), 1);
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals(item2.getWishlistItemId(), secondPage.getItems().get(0).getWishlistItemId());
+        assertNull(secondPage.getNextCursor());
+        verifyNoInteractions(kosServiceClient);
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - Page size is capped at the configured maximum")
+    void getWishlist_LimitCapped() {
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 101)).thenReturn(Collections.emptyList());
+
+        assertTrue(notificationService.getWishlist(tenantUserId, null, 5_000).getItems().isEmpty());
+        verify(wishlistItemRepository).findFirstPageByTenantUserId(tenantUserId, 101);
+    }
+
+    @Test
+    @DisplayName("Get Wishlist - Malformed cursor is rejected")
+    void getWishlist_InvalidCursor() {
+        assertThrows(BadRequestException.class, () -> notificationService.getWishlist(tenantUserId, "not-a-cursor", null));
+        verifyNoInteractions(wishlistItemRepository);
+    }
+
     @Test
     @DisplayName("Get Wishlist - Success (Empty)")
     void getWishlist_Success_Empty() {
-        when(wishlistItemRepository.findByTenantUserId(tenantUserId)).thenReturn(Collections.emptyList());
+        when(wishlistItemRepository.findFirstPageByTenantUserId(tenantUserId, 21)).thenReturn(Collections.emptyList());
 
-        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId);
+        List<WishlistItemDto> wishlist = notificationService.getWishlist(tenantUserId, null, null).getItems();
 
         assertNotNull(wishlist);
         assertTrue(wishlist.isEmpty());
@@ -311,93 +718,162 @@ class NotificationServiceTest {
     @Test
     @DisplayName("Remove From Wishlist - Success")
     void removeFromWishlist_Success() {
-        when(wishlistItemRepository.deleteByTenantUserIdAndPropertyId(tenantUserId, propertyId1)).thenReturn(1);
+        when(wishlistItemRepository.removeKeepingPeriod(eq(tenantUserId), eq(propertyId1), any(Instant.class))).thenReturn(1);
 
         assertDoesNotThrow(() -> {
             notificationService.removeFromWishlist(tenantUserId, propertyId1);
         });
 
-        verify(wishlistItemRepository).deleteByTenantUserIdAndPropertyId(tenantUserId, propertyId1);
+        verify(wishlistItemRepository).removeKeepingPeriod(eq(tenantUserId), eq(propertyId1), any(Instant.class));
+        verify(propertyWishlistCounter).recordRemoved(propertyId1);
     }
 
     @Test
     @DisplayName("Remove From Wishlist - Item Not Found")
     void removeFromWishlist_ItemNotFound() {
-        when(wishlistItemRepository.deleteByTenantUserIdAndPropertyId(tenantUserId, propertyId1)).thenReturn(0);
+        when(wishlistItemRepository.removeKeepingPeriod(eq(tenantUserId), eq(propertyId1), any(Instant.class))).thenReturn(0);
 
         assertThrows(ResourceNotFoundException.class, () -> {
             notificationService.removeFromWishlist(tenantUserId, propertyId1);
         });
 
-        verify(wishlistItemRepository).deleteByTenantUserIdAndPropertyId(tenantUserId, propertyId1);
+        verify(wishlistItemRepository).removeKeepingPeriod(eq(tenantUserId), eq(propertyId1), any(Instant.class));
+        verify(propertyWishlistCounter, never()).recordRemoved(any());
     }
 
     // --- Notification Tests ---
 
     @Test
-    @DisplayName("Get Notifications - Success (All, unreadOnly=false)")
-    void getNotifications_Success_All() {
+    @DisplayName("Get Notification Page - Fetches one extra row and returns a cursor at the last item")
+    void getNotificationPage_FirstPage() {
         Notification notification2 = new Notification();
         notification2.setNotificationId(UUID.randomUUID());
         notification2.setRecipientUserId(tenantUserId);
-        notification2.setRead(true);
+        notification2.setNotificationType(NotificationType.RENTAL_UPDATE);
         notification2.setCreatedAt(Instant.now().minusSeconds(100));
         notification1.setCreatedAt(Instant.now());
+        when(notificationRepository.findFirstUnreadPage(tenantUserId, 2)).thenReturn(List.of(notification1, notification2));
 
-        when(notificationRepository.findByRecipientUserIdOrderByCreatedAtDesc(tenantUserId)).thenReturn(List.of(notification1, notification2));
+        CursorPage<NotificationDto> page = notificationService.getNotificationPage(tenantUserId, true, null, 1);
 
-        List<NotificationDto> notifications = notificationService.getNotifications(tenantUserId, false);
+        assertEquals(List.of(notificationId1), page.getItems().stream().map(NotificationDto::getNotificationId).toList());
+        KeysetCursor next = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(notification1.getCreatedAt(), next.getCreatedAt());
+        assertEquals(notificationId1, next.getId());
+        verify(notificationRepository, never()).findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(any());
+    }
 
-        assertEquals(2, notifications.size());
-        verify(notificationRepository).findByRecipientUserIdOrderByCreatedAtDesc(tenantUserId);
-        verify(notificationRepository, never()).findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(any(UUID.class));
+    @Test
+    @DisplayName("Get Notification Page - Entries from other sources are cut at the cursor too")
+    void getNotificationPage_AfterCursor() {
+        Instant cursorTime = Instant.now().minusSeconds(60);
+        NotificationDto older = new NotificationDto(UUID.randomUUID(), tenantUserId, NotificationType.BROADCAST,
+                "Older", "Not shown yet", false, null, null, cursorTime.minusSeconds(60));
+        UUID cursorId = UUID.randomUUID();
+        VacancyEvent event = vacancyEvent(cursorTime.minusSeconds(30));
+        when(notificationRepository.findPageBefore(tenantUserId, cursorTime, cursorId, 21)).thenReturn(List.of());
+        when(vacancyEventRepository.findVisiblePageBefore(tenantUserId, cursorTime, cursorId, 21)).thenReturn(List.of(event));
+        when(broadcastInbox.page(eq(tenantUserId), eq(false), any(KeysetCursor.class), eq(21))).thenReturn(List.of(older));
+
+        CursorPage<NotificationDto> page = notificationService.getNotificationPage(tenantUserId, false,
+                new KeysetCursor(cursorTime, cursorId).encode(), null);
+
+        assertEquals(List.of(event.getEventId(), older.getNotificationId()),
+                page.getItems().stream().map(NotificationDto::getNotificationId).toList());
+        assertNull(page.getNextCursor());
+        ArgumentCaptor<KeysetCursor> broadcastCursor = ArgumentCaptor.forClass(KeysetCursor.class);
+        verify(broadcastInbox).page(eq(tenantUserId), eq(false), broadcastCursor.capture(), eq(21));
+        assertEquals(cursorId, broadcastCursor.getValue().getId());
+        verify(vacancyEventRepository, never()).findFirstVisiblePage(any(), anyInt());
     }
 
     @Test
-    @DisplayName("Get Notifications - Success (Unread Only, unreadOnly=true)")
-    void getNotifications_Success_UnreadOnly() {
-        notification1.setRead(false);
-        when(notificationRepository.findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(tenantUserId)).thenReturn(List.of(notification1));
+    @DisplayName("Mark All As Read - One UPDATE per entry kind, filtered by type, and the counter follows")
+    void markAllNotificationsAsRead_FilteredByType() {
+        Instant upTo = Instant.now();
+        when(notificationRepository.markAllReadOfType(tenantUserId, "RENTAL_UPDATE", upTo)).thenReturn(7);
 
-        List<NotificationDto> notifications = notificationService.getNotifications(tenantUserId, true);
+        assertEquals(7, notificationService.markAllNotificationsAsRead(tenantUserId, NotificationType.RENTAL_UPDATE, upTo));
 
-        assertEquals(1, notifications.size());
-        assertFalse(notifications.get(0).isRead());
-        verify(notificationRepository, never()).findByRecipientUserIdOrderByCreatedAtDesc(any(UUID.class));
-        verify(notificationRepository).findByRecipientUserIdAndIsReadFalseOrderByCreatedAtDesc(tenantUserId);
+        verify(unreadNotificationCounter).recordRead(tenantUserId, 7);
+        verify(notificationRepository, never()).findById(any());
+        verifyNoInteractions(vacancyEventReadRepository, broadcastInbox);
+    }
+
+    @Test
+    @DisplayName("Mark All As Read - Without a filter vacancy events and broadcasts are included")
+    void markAllNotificationsAsRead_AllKinds() {
+        when(notificationRepository.markAllRead(eq(tenantUserId), any(Instant.class))).thenReturn(2);
+        when(vacancyEventReadRepository.markAllVisibleRead(eq(tenantUserId), any(Instant.class))).thenReturn(3);
+        when(broadcastInbox.markAllRead(eq(tenantUserId), any(Instant.class))).thenReturn(1);
+
+        assertEquals(6, notificationService.markAllNotificationsAsRead(tenantUserId, null, null));
+        verify(unreadNotificationCounter).recordRead(tenantUserId, 2);
+        verify(unreadNotificationCounter).recordEventsRead(tenantUserId, 3);
+    }
+
+    @Test
+    @DisplayName("Mark Notifications As Read - IDs are updated in one statement scoped to the recipient")
+    void markNotificationsAsRead_ByIds() {
+        UUID other = UUID.randomUUID();
+        when(notificationRepository.markRead(tenantUserId, Set.of(notificationId1, other))).thenReturn(2);
+
+        assertEquals(2, notificationService.markNotificationsAsRead(tenantUserId, List.of(notificationId1, other, other)));
+
+        verify(unreadNotificationCounter).recordRead(tenantUserId, 2);
+        // Every ID was an unread notification, so no other entry kinds are looked at
+        verifyNoInteractions(vacancyEventReadRepository, broadcastInbox);
+    }
+
+    @Test
+    @DisplayName("Mark Notifications As Read - Rejects empty and oversized ID lists")
+    void markNotificationsAsRead_Invalid() {
+        assertThrows(BadRequestException.class, () -> notificationService.markNotificationsAsRead(tenantUserId, List.of()));
+        List<UUID> tooMany = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        assertThrows(BadRequestException.class, () -> notificationService.markNotificationsAsRead(tenantUserId, tooMany));
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
     @DisplayName("Mark Notification As Read - Success")
     void markNotificationAsRead_Success() {
-        notification1.setRead(false);
+        notification1.setRead(true);
+        when(notificationRepository.markRead(tenantUserId, Set.of(notificationId1))).thenReturn(1);
         when(notificationRepository.findById(notificationId1)).thenReturn(Optional.of(notification1));
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         NotificationDto updatedNotification = notificationService.markNotificationAsRead(tenantUserId, notificationId1);
 
         assertTrue(updatedNotification.isRead());
-        verify(notificationRepository).findById(notificationId1);
-        verify(notificationRepository).save(notificationCaptor.capture());
-
-        Notification captured = notificationCaptor.getValue();
-        assertTrue(captured.isRead());
-        assertEquals(notificationId1, captured.getNotificationId());
+        assertEquals(notificationId1, updatedNotification.getNotificationId());
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verify(unreadNotificationCounter).recordRead(tenantUserId, 1);
     }
 
     @Test
     @DisplayName("Mark Notification As Read - Already Read")
     void markNotificationAsRead_AlreadyRead() {
         notification1.setRead(true);
+        when(notificationRepository.markRead(tenantUserId, Set.of(notificationId1))).thenReturn(0);
         when(notificationRepository.findById(notificationId1)).thenReturn(Optional.of(notification1));
 
         NotificationDto result = notificationService.markNotificationAsRead(tenantUserId, notificationId1);
 
         assertTrue(result.isRead());
-        verify(notificationRepository).findById(notificationId1);
         verify(notificationRepository, never()).save(any(Notification.class));
+        verify(unreadNotificationCounter, never()).recordRead(any(), anyLong());
     }
 
+    @Test
+    @DisplayName("Mark Notification As Read - Another user's notification is forbidden and left unread")
+    void markNotificationAsRead_OtherRecipient() {
+        UUID otherUserId = UUID.randomUUID();
+        notification1.setRead(false);
+        when(notificationRepository.markRead(otherUserId, Set.of(notificationId1))).thenReturn(0);
+        when(notificationRepository.findById(notificationId1)).thenReturn(Optional.of(notification1));
+
+        assertThrows(ForbiddenException.class, () -> notificationService.markNotificationAsRead(otherUserId, notificationId1));
+        verify(unreadNotificationCounter, never()).recordRead(any(), anyLong());
+    }
 
     @Test
     @DisplayName("Mark Notification As Read - Not Found")
@@ -415,29 +891,46 @@ class NotificationServiceTest {
     @Test
     @DisplayName("Send Broadcast Notification - Success")
     void sendBroadcastNotification_Success() {
-        BroadcastNotificationRequest request = new BroadcastNotificationRequest("System Maintenance", "App will be down briefly.");
-        Notification savedNotification = new Notification();
-        savedNotification.setNotificationId(UUID.randomUUID());
-
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-            Notification n = invocation.getArgument(0);
-            n.setNotificationId(savedNotification.getNotificationId());
-            return n;
-        });
+        BroadcastNotificationRequest request = new BroadcastNotificationRequest("System Maintenance", "App will be down {briefly}, {{not}} 100%s.");
+        NotificationDto published = new NotificationDto(UUID.randomUUID(), null, NotificationType.BROADCAST,
+                request.getTitle(), request.getMessage(), false, null, null, Instant.now());
+        when(broadcastInbox.publish(request.getTitle(), request.getMessage())).thenReturn(published);
 
         NotificationDto resultDto = notificationService.sendBroadcastNotification(request);
-        assertNotNull(resultDto);
-        assertEquals(savedNotification.getNotificationId(), resultDto.getNotificationId());
 
+        assertSame(published, resultDto);
+        // Stored once for everyone, not as a notification row
+        verify(notificationRepository, never()).save(any(Notification.class));
+    }
 
-        verify(notificationRepository).save(notificationCaptor.capture());
-        Notification captured = notificationCaptor.getValue();
+    @Test
+    @DisplayName("Get Notification Page - Active broadcasts are merged by recency")
+    void getNotificationPage_MergesBroadcasts() {
+        notification1.setCreatedAt(Instant.now().minusSeconds(60));
+        NotificationDto broadcast = new NotificationDto(UUID.randomUUID(), tenantUserId, NotificationType.BROADCAST,
+                "System Maintenance", "App will be down briefly.", false, null, null, Instant.now());
+        when(notificationRepository.findFirstPage(tenantUserId, 21)).thenReturn(List.of(notification1));
+        when(broadcastInbox.page(tenantUserId, false, null, 21)).thenReturn(List.of(broadcast));
+
+        List<NotificationDto> inbox = notificationService.getNotificationPage(tenantUserId, false, null, null).getItems();
+
+        assertEquals(List.of(broadcast.getNotificationId(), notificationId1),
+                inbox.stream().map(NotificationDto::getNotificationId).toList());
+    }
 
-        assertNull(captured.getRecipientUserId());
-        assertEquals(NotificationType.BROADCAST, captured.getNotificationType());
-        assertEquals(request.getTitle(), captured.getTitle());
-        assertEquals(request.getMessage(), captured.getMessage());
-        assertFalse(captured.isRead());
+    @Test
+    @DisplayName("Mark Notification As Read - A broadcast is marked through the user's broadcast read state")
+    void markNotificationAsRead_Broadcast() {
+        UUID broadcastId = UUID.randomUUID();
+        NotificationDto read = new NotificationDto(broadcastId, tenantUserId, NotificationType.BROADCAST,
+                "System Maintenance", "App will be down briefly.", true, null, null, Instant.now());
+        when(notificationRepository.findById(broadcastId)).thenReturn(Optional.empty());
+        when(broadcastInbox.markRead(tenantUserId, broadcastId)).thenReturn(Optional.of(read));
+
+        NotificationDto result = notificationService.markNotificationAsRead(tenantUserId, broadcastId);
+
+        assertTrue(result.isRead());
+        verify(vacancyEventRepository, never()).findById(any());
     }
 
     @Test
@@ -478,31 +971,23 @@ class NotificationServiceTest {
     @DisplayName("Notify Wishlist Users On Vacancy - Success")
     void notifyWishlistUsersOnVacancy_Success() throws Exception {
         UUID tenantUserId2 = UUID.randomUUID();
-        List<WishlistItem> wishlistItemsForProperty = List.of(
-                new WishlistItem(tenantUserId, propertyId1),
-                new WishlistItem(tenantUserId2, propertyId1)
-        );
-        when(wishlistItemRepository.findByPropertyId(propertyId1)).thenReturn(wishlistItemsForProperty);
+        when(wishlistItemRepository.findFirstRecipientPage(propertyId1, 2)).thenReturn(List.of(tenantUserId, tenantUserId2));
+        when(wishlistItemRepository.findRecipientPageAfter(propertyId1, tenantUserId2, 2)).thenReturn(List.of());
 
         VacancyUpdateNotification vacancyRequest = new VacancyUpdateNotification("Vacancy Alert", "A room is now available at %s!", propertyId1);
 
         ApiResponseWrapper<KosDetailsDto> kosResponse = createSuccessKosResponse(kosDetailsDto1);
         when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(kosResponse);
 
-        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Notification> notificationsToSave = invocation.getArgument(0);
-            notificationsToSave.forEach(n -> n.setNotificationId(UUID.randomUUID()));
-            return notificationsToSave;
-        });
-
-        List<NotificationDto> resultDtos = notificationService.notifyWishlistUsersOnVacancy(vacancyRequest);
+        FanOutSummary summary = notificationService.notifyWishlistUsersOnVacancy(vacancyRequest);
 
-        assertNotNull(resultDtos);
-        assertEquals(2, resultDtos.size());
+        assertEquals(propertyId1, summary.getPropertyId());
+        assertEquals(2, summary.getRecipientCount());
+        assertEquals(1, summary.getChunkCount());
 
         verify(kosServiceClient).getKosDetailsApiResponse(propertyId1);
-        verify(wishlistItemRepository).findByPropertyId(propertyId1);
-        verify(notificationRepository).saveAll(notificationListCaptor.capture());
+        verify(notificationBulkWriter).write(notificationListCaptor.capture(), eq(false));
+        verify(transactionManager).commit(any());
 
         List<Notification> capturedList = notificationListCaptor.getValue();
         assertEquals(2, capturedList.size());
@@ -515,32 +1000,49 @@ class NotificationServiceTest {
         Notification n2 = capturedList.stream().filter(n -> n.getRecipientUserId().equals(tenantUserId2)).findFirst().orElseThrow();
         assertEquals(vacancyRequest.getTitle(), n2.getTitle());
         assertTrue(n2.getMessage().contains(kosDetailsDto1.getName()));
+        verify(unreadNotificationCounter).recordInserted(List.of(tenantUserId, tenantUserId2));
     }
 
+    @Test
+    @DisplayName("Notify Wishlist Users On Vacancy - Recipients are paged and written one chunk per transaction")
+    void notifyWishlistUsersOnVacancy_Chunked() throws Exception {
+        UUID tenant2 = UUID.randomUUID();
+        UUID tenant3 = UUID.randomUUID();
+        when(wishlistItemRepository.findFirstRecipientPage(propertyId1, 2)).thenReturn(List.of(tenantUserId, tenant2));
+        when(wishlistItemRepository.findRecipientPageAfter(propertyId1, tenant2, 2)).thenReturn(List.of(tenant3));
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        // A property with enough wishlisters is written with COPY for every chunk
+        when(propertyWishlistCounter.getCount(propertyId1)).thenReturn(5_000L);
+        when(notificationBulkWriter.prefersCopy(5_000L)).thenReturn(true);
+
+        FanOutSummary summary = notificationService.notifyWishlistUsersOnVacancy(
+                new VacancyUpdateNotification("Vacancy Alert", null, propertyId1));
+
+        assertEquals(3, summary.getRecipientCount());
+        assertEquals(2, summary.getChunkCount());
+        // The short second page ends the scan without another query
+        verify(wishlistItemRepository, never()).findRecipientPageAfter(propertyId1, tenant3, 2);
+        verify(notificationBulkWriter, times(2)).write(notificationListCaptor.capture(), eq(true));
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(List.of(2, 1), notificationListCaptor.getAllValues().stream().map(List::size).toList());
+        assertEquals("A property on your wishlist, " + kosDetailsDto1.getName() + ", now has a vacancy!",
+                notificationListCaptor.getAllValues().get(1).get(0).getMessage());
+    }
 
     @Test
     @DisplayName("Notify Wishlist Users On Vacancy - Property Details Unavailable")
     void notifyWishlistUsersOnVacancy_PropertyDetailsUnavailable() throws Exception {
         UUID tenantUserId2 = UUID.randomUUID();
-        List<WishlistItem> wishlistItemsForProperty = List.of(
-                new WishlistItem(tenantUserId, propertyId1),
-                new WishlistItem(tenantUserId2, propertyId1)
-        );
-        when(wishlistItemRepository.findByPropertyId(propertyId1)).thenReturn(wishlistItemsForProperty);
+        when(wishlistItemRepository.findFirstRecipientPage(propertyId1, 2)).thenReturn(List.of(tenantUserId, tenantUserId2));
+        when(wishlistItemRepository.findRecipientPageAfter(propertyId1, tenantUserId2, 2)).thenReturn(List.of());
         VacancyUpdateNotification vacancyRequest = new VacancyUpdateNotification("Vacancy Alert", "A room is now available at %s!", propertyId1);
 
         ApiResponseWrapper<KosDetailsDto> kosResponse = createNotFoundKosResponse();
         when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(kosResponse);
 
-        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Notification> notificationsToSave = invocation.getArgument(0);
-            notificationsToSave.forEach(n -> n.setNotificationId(UUID.randomUUID()));
-            return notificationsToSave;
-        });
-
-        List<NotificationDto> resultDtos = notificationService.notifyWishlistUsersOnVacancy(vacancyRequest);
-        assertEquals(2, resultDtos.size());
-        verify(notificationRepository).saveAll(notificationListCaptor.capture());
+        FanOutSummary summary = notificationService.notifyWishlistUsersOnVacancy(vacancyRequest);
+        assertEquals(2, summary.getRecipientCount());
+        verify(notificationBulkWriter).write(notificationListCaptor.capture(), eq(false));
         List<Notification> capturedList = notificationListCaptor.getValue();
 
         String expectedFallbackMessagePart = "Property " + propertyId1 + " (details unavailable)";
@@ -556,13 +1058,155 @@ class NotificationServiceTest {
         ApiResponseWrapper<KosDetailsDto> kosResponse = createSuccessKosResponse(kosDetailsDto1);
         when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(kosResponse);
 
-        when(wishlistItemRepository.findByPropertyId(propertyId1)).thenReturn(Collections.emptyList());
+        when(wishlistItemRepository.findFirstRecipientPage(propertyId1, 2)).thenReturn(Collections.emptyList());
 
-        List<NotificationDto> resultDtos = notificationService.notifyWishlistUsersOnVacancy(vacancyRequest);
+        FanOutSummary summary = notificationService.notifyWishlistUsersOnVacancy(vacancyRequest);
 
-        assertTrue(resultDtos.isEmpty());
+        assertEquals(0, summary.getRecipientCount());
+        assertEquals(0, summary.getChunkCount());
         verify(kosServiceClient).getKosDetailsApiResponse(propertyId1);
-        verify(wishlistItemRepository).findByPropertyId(propertyId1);
-        verify(notificationRepository, never()).saveAll(anyList());
+        verify(wishlistItemRepository).findFirstRecipientPage(propertyId1, 2);
+        verify(notificationBulkWriter, never()).write(anyList(), anyBoolean());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Send Internal Notifications - Stored through the bulk writer")
+    void sendInternalNotifications_Success() {
+        UUID rentalId = UUID.randomUUID();
+        List<InternalNotificationRequest> requests = List.of(
+                new InternalNotificationRequest(tenantUserId, NotificationType.RENTAL_UPDATE, "Rental", "Approved", propertyId1, rentalId),
+                new InternalNotificationRequest(UUID.randomUUID(), NotificationType.RENTAL_UPDATE, "Rental", "Rejected", propertyId1, rentalId));
+        when(notificationBulkWriter.write(anyList())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        assertEquals(2, notificationService.sendInternalNotifications(requests));
+
+        verify(notificationBulkWriter).write(notificationListCaptor.capture());
+        Notification first = notificationListCaptor.getValue().get(0);
+        assertEquals(tenantUserId, first.getRecipientUserId());
+        assertEquals("Approved", first.getMessage());
+        assertEquals(rentalId, first.getRelatedRentalId());
+        assertFalse(first.isRead());
+        verifyNoInteractions(notificationRepository);
+        verify(unreadNotificationCounter).recordInserted(List.of(tenantUserId, requests.get(1).getRecipientUserId()));
+    }
+
+    @Test
+    @DisplayName("Send Internal Notifications - Rejects empty and oversized batches")
+    void sendInternalNotifications_Invalid() {
+        InternalNotificationRequest request =
+                new InternalNotificationRequest(tenantUserId, NotificationType.RENTAL_UPDATE, "Rental", "Approved", null, null);
+
+        assertThrows(BadRequestException.class, () -> notificationService.sendInternalNotifications(List.of()));
+        assertThrows(BadRequestException.class,
+                () -> notificationService.sendInternalNotifications(List.of(request, request, request, request)));
+        verifyNoInteractions(notificationBulkWriter);
+    }
+
+    @Test
+    @DisplayName("Notify Wishlist Users On Vacancy - Fan-out-on-read stores one event instead of per-recipient rows")
+    void notifyWishlistUsersOnVacancy_ReadMode() throws Exception {
+        ReflectionTestUtils.setField(notificationService, "fanOutMode", "read");
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(propertyWishlistCounter.getCount(propertyId1)).thenReturn(40_000L);
+        when(vacancyEventRepository.insertIfAbsent(any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        FanOutSummary summary = notificationService.notifyWishlistUsersOnVacancy(
+                new VacancyUpdateNotification("Vacancy Alert", "A room is now available at %s!", propertyId1));
+
+        assertEquals(40_000L, summary.getRecipientCount());
+        assertEquals(1, summary.getChunkCount());
+        verify(vacancyEventRepository).insertIfAbsent(any(), any(), eq(propertyId1), eq("Vacancy Alert"),
+                eq("A room is now available at " + kosDetailsDto1.getName() + "!"), any(Instant.class));
+        verifyNoInteractions(notificationBulkWriter);
+        verify(wishlistItemRepository, never()).findFirstRecipientPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Notify Wishlist Users On Vacancy - A re-run announcement is keyed on its ID and stored once")
+    void notifyWishlistUsersOnVacancy_ReadModeRerun() throws Exception {
+        ReflectionTestUtils.setField(notificationService, "fanOutMode", "read");
+        UUID jobId = UUID.randomUUID();
+        VacancyUpdateNotification request = new VacancyUpdateNotification("Vacancy Alert", null, propertyId1);
+        when(kosServiceClient.getKosDetailsApiResponse(propertyId1)).thenReturn(createSuccessKosResponse(kosDetailsDto1));
+        when(vacancyEventRepository.insertIfAbsent(any(), eq(jobId), any(), any(), any(), any())).thenReturn(1, 0);
+
+        notificationService.notifyWishlistUsersOnVacancy(jobId, request, null, recipientUserIds -> { });
+        notificationService.notifyWishlistUsersOnVacancy(jobId, request, null, recipientUserIds -> { });
+
+        verify(vacancyEventRepository, times(2)).insertIfAbsent(any(), eq(jobId), eq(propertyId1), any(), any(), any());
+        verify(vacancyEventRepository, never()).save(any());
+        // Only the run that stored the event counts it as unread for the wishlisters, in the same transaction
+        verify(unreadNotificationCounter, times(1)).recordVacancyEvent(eq(propertyId1), any(Instant.class));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Get Notification Page - Vacancy events are merged by recency with their per-user read state")
+    void getNotificationPage_MergesVacancyEvents() {
+        notification1.setCreatedAt(Instant.now().minusSeconds(60));
+        VacancyEvent newer = vacancyEvent(Instant.now());
+        VacancyEvent older = vacancyEvent(Instant.now().minusSeconds(120));
+        when(notificationRepository.findFirstPage(tenantUserId, 21)).thenReturn(List.of(notification1));
+        when(vacancyEventRepository.findFirstVisiblePage(tenantUserId, 21)).thenReturn(List.of(newer, older));
+        when(vacancyEventReadRepository.findReadEventIds(eq(tenantUserId), anyCollection())).thenReturn(List.of(older.getEventId()));
+
+        List<NotificationDto> inbox = notificationService.getNotificationPage(tenantUserId, false, null, null).getItems();
+
+        assertEquals(List.of(newer.getEventId(), notificationId1, older.getEventId()),
+                inbox.stream().map(NotificationDto::getNotificationId).toList());
+        assertFalse(inbox.get(0).isRead());
+        assertTrue(inbox.get(2).isRead());
+        assertEquals(tenantUserId, inbox.get(0).getRecipientUserId());
+    }
+
+    @Test
+    @DisplayName("Mark Notification As Read - A vacancy event gets a read marker for the user")
+    void markNotificationAsRead_VacancyEvent() {
+        VacancyEvent event = vacancyEvent(Instant.now());
+        when(notificationRepository.findById(event.getEventId())).thenReturn(Optional.empty());
+        when(vacancyEventRepository.findById(event.getEventId())).thenReturn(Optional.of(event));
+        when(vacancyEventReadRepository.markVisibleRead(tenantUserId, Set.of(event.getEventId()))).thenReturn(1);
+
+        NotificationDto result = notificationService.markNotificationAsRead(tenantUserId, event.getEventId());
+
+        assertTrue(result.isRead());
+        verify(unreadNotificationCounter).recordEventsRead(tenantUserId, 1);
+        verify(vacancyEventRepository, never()).isVisibleTo(any(), any());
+    }
+
+    @Test
+    @DisplayName("Mark Notification As Read - An already read vacancy event is not uncounted twice")
+    void markNotificationAsRead_VacancyEventAlreadyRead() {
+        VacancyEvent event = vacancyEvent(Instant.now());
+        when(notificationRepository.findById(event.getEventId())).thenReturn(Optional.empty());
+        when(vacancyEventRepository.findById(event.getEventId())).thenReturn(Optional.of(event));
+        when(vacancyEventReadRepository.markVisibleRead(tenantUserId, Set.of(event.getEventId()))).thenReturn(0);
+        when(vacancyEventRepository.isVisibleTo(event.getEventId(), tenantUserId)).thenReturn(true);
+
+        assertTrue(notificationService.markNotificationAsRead(tenantUserId, event.getEventId()).isRead());
+        verify(unreadNotificationCounter, never()).recordEventsRead(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Mark Notification As Read - A vacancy event outside the user's wishlist is forbidden")
+    void markNotificationAsRead_VacancyEventNotVisible() {
+        VacancyEvent event = vacancyEvent(Instant.now());
+        when(notificationRepository.findById(event.getEventId())).thenReturn(Optional.empty());
+        when(vacancyEventRepository.findById(event.getEventId())).thenReturn(Optional.of(event));
+        when(vacancyEventRepository.isVisibleTo(event.getEventId(), tenantUserId)).thenReturn(false);
+
+        assertThrows(ForbiddenException.class, () -> notificationService.markNotificationAsRead(tenantUserId, event.getEventId()));
+        verify(unreadNotificationCounter, never()).recordEventsRead(any(), anyLong());
+    }
+
+    private VacancyEvent vacancyEvent(Instant createdAt) {
+        VacancyEvent event = new VacancyEvent();
+        event.setEventId(UUID.randomUUID());
+        event.setPropertyId(propertyId1);
+        event.setTitle("Vacancy Alert");
+        event.setMessage("A room is now available!");
+        event.setCreatedAt(createdAt);
+        return event;
     }
-}
\ No newline at end of file
+}
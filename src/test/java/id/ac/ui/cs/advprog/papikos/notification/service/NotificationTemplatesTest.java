@@ -0,0 +1,71 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationTemplatesTest {
+
+    private final NotificationTemplates templates = new NotificationTemplates();
+
+    @Test
+    void rendersNamedParameters() {
+        NotificationTemplate template = NotificationTemplate.compile("{propertyName} has {rooms} rooms left");
+
+        assertEquals("Kos Melati has 2 rooms left", template.render(Map.of("propertyName", "Kos Melati", "rooms", 2)));
+        assertFalse(template.isConstant());
+    }
+
+    @Test
+    void treatsPercentSAsPropertyName() {
+        assertEquals("A room is now available at Kos Melati!",
+                NotificationTemplate.compile("A room is now available at %s!").render(Map.of("propertyName", "Kos Melati")));
+    }
+
+    @Test
+    void keepsEscapedBracesMissingValuesAndNonPlaceholders() {
+        NotificationTemplate template = NotificationTemplate.compile("{{literal}} {unknown} { spaced } {1st} 100%");
+
+        assertEquals("{literal} {unknown} { spaced } {1st} 100%", template.render(Map.of()));
+    }
+
+    @Test
+    void constantTemplateReturnsTheSameString() {
+        NotificationTemplate template = NotificationTemplate.compile("Your Papikos account has been approved.");
+
+        assertTrue(template.isConstant());
+        assertSame(template.render(Map.of()), template.render(Map.of("propertyName", "ignored")));
+    }
+
+    @Test
+    void fallsBackToTheTypeDefaults() {
+        assertEquals("Vacancy Alert", templates.title(NotificationType.WISHLIST_VACANCY, " "));
+        assertEquals("Custom", templates.title(NotificationType.WISHLIST_VACANCY, "Custom"));
+        assertEquals("A property on your wishlist, Kos Melati, now has a vacancy!",
+                templates.message(NotificationType.WISHLIST_VACANCY, null, Map.of("propertyName", "Kos Melati")));
+        assertEquals("Congratulations! Your Papikos account has been approved.",
+                templates.message(NotificationType.ACCOUNT_APPROVED, null, Map.of()));
+    }
+
+    @Test
+    void suppliedVacancyTextIsUsedAsATemplate() {
+        assertEquals("Rooms at Kos Melati", templates.message(NotificationType.WISHLIST_VACANCY, "Rooms at {propertyName}",
+                Map.of("propertyName", "Kos Melati")));
+        assertEquals("Rooms at Kos Melati", templates.message(NotificationType.WISHLIST_VACANCY, "Rooms at %s",
+                Map.of("propertyName", "Kos Melati")));
+    }
+
+    @Test
+    void otherSuppliedTextIsKeptVerbatim() {
+        Map<String, String> values = Map.of("propertyName", "Kos Melati");
+        for (NotificationType type : new NotificationType[]{NotificationType.BROADCAST, NotificationType.RENTAL_UPDATE,
+                NotificationType.PAYMENT_UPDATE}) {
+            assertEquals("Pay {{now}} at {propertyName}: 100%s off", templates.message(type, "Pay {{now}} at {propertyName}: 100%s off", values));
+        }
+        assertEquals("There is an update on your rental at Kos Melati.",
+                templates.message(NotificationType.RENTAL_UPDATE, "", values));
+    }
+}
@@ -0,0 +1,150 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.PropertyWishlistCount;
+import id.ac.ui.cs.advprog.papikos.notification.repository.PropertyWishlistCountBatchRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.PropertyWishlistCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyWishlistCounterTest {
+
+    @Mock
+    private PropertyWishlistCountRepository countRepository;
+
+    @Mock
+    private PropertyWishlistCountBatchRepository countBatchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PropertyWishlistCounter counter;
+    private UUID propertyId;
+
+    @BeforeEach
+    void setUp() {
+        counter = new PropertyWishlistCounter(countRepository, countBatchRepository, transactionManager,
+                new SimpleMeterRegistry(), false);
+        propertyId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Reads combine the stored counter with this node's unflushed delta")
+    void getCount_AddsPendingDelta() {
+        when(countRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(new PropertyWishlistCount(propertyId, 5, Instant.now())));
+        counter.recordAdded(propertyId);
+        counter.recordAdded(propertyId);
+        counter.recordRemoved(propertyId);
+
+        assertEquals(6L, counter.getCount(propertyId));
+    }
+
+    @Test
+    @DisplayName("Unknown properties count zero")
+    void getCounts_UnknownIsZero() {
+        UUID unknown = UUID.randomUUID();
+        when(countRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        assertEquals(Map.of(unknown, 0L), counter.getCounts(List.of(unknown)));
+    }
+
+    @Test
+    @DisplayName("A flush writes accumulated deltas in one batch and resets them")
+    void flush_WritesDeltasOnce() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        UUID other = UUID.randomUUID();
+        counter.recordAdded(propertyId);
+        counter.recordAdded(propertyId);
+        counter.recordRemoved(other);
+
+        counter.flush();
+        counter.flush();
+
+        verify(countBatchRepository, times(1)).addDeltas(eq(Map.of(propertyId, 2L, other, -1L)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Deltas are kept for the next flush when writing fails")
+    void flush_RetriesAfterFailure() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new DataAccessResourceFailureException("down")).doNothing()
+                .when(countBatchRepository).addDeltas(anyMap(), any(Instant.class));
+        counter.recordAdded(propertyId);
+
+        counter.flush();
+        counter.flush();
+
+        verify(countBatchRepository, times(2)).addDeltas(eq(Map.of(propertyId, 1L)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Idle accumulators are pruned once their delta has been flushed")
+    void flush_PrunesIdleAccumulators() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        counter.recordAdded(propertyId);
+
+        counter.flush();
+        assertEquals(1, pendingProperties());
+        counter.flush();
+        assertEquals(0, pendingProperties());
+
+        counter.recordAdded(propertyId);
+        counter.flush();
+        verify(countBatchRepository, times(2)).addDeltas(eq(Map.of(propertyId, 1L)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Backfill runs under the advisory lock and only while the counter table is empty")
+    void backfillIfEmpty_SkipsWhenPopulated() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        counter = new PropertyWishlistCounter(countRepository, countBatchRepository, transactionManager,
+                new SimpleMeterRegistry(), true);
+        when(countRepository.count()).thenReturn(0L, 3L);
+
+        counter.backfillIfEmpty();
+        counter.backfillIfEmpty();
+
+        verify(countRepository, times(2)).lockForBackfill();
+        verify(countRepository, times(1)).backfillFromWishlistItems();
+    }
+
+    @Test
+    @DisplayName("Deltas recorded before this node seeds the table are not flushed on top of the seed")
+    void backfillIfEmpty_DropsEarlierDeltas() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        counter = new PropertyWishlistCounter(countRepository, countBatchRepository, transactionManager,
+                new SimpleMeterRegistry(), true);
+        when(countRepository.count()).thenReturn(0L);
+        counter.recordAdded(propertyId);
+
+        counter.flush();
+        counter.backfillIfEmpty();
+        counter.flush();
+
+        verify(countRepository).backfillFromWishlistItems();
+        verifyNoInteractions(countBatchRepository);
+    }
+
+    private int pendingProperties() {
+        return ((Map<?, ?>) ReflectionTestUtils.getField(counter, "pending")).size();
+    }
+}
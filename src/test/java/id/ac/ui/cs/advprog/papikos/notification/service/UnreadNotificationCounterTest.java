@@ -0,0 +1,128 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.model.NotificationUnreadCount;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationUnreadCountBatchRepository;
+import id.ac.ui.cs.advprog.papikos.notification.repository.NotificationUnreadCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCounterTest {
+
+    @Mock
+    private NotificationUnreadCountRepository countRepository;
+
+    @Mock
+    private NotificationUnreadCountBatchRepository countBatchRepository;
+
+    @Mock
+    private BroadcastInbox broadcastInbox;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UnreadNotificationCounter counter;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UnreadNotificationCounter(countRepository, countBatchRepository, broadcastInbox,
+                transactionManager, new SimpleMeterRegistry(), 100, 60_000, 2);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("The badge adds the counted notifications, vacancy events and broadcasts without recounting, then is served from memory")
+    void getUnreadCount_CachesBadge() {
+        when(countRepository.findById(userId)).thenReturn(Optional.of(new NotificationUnreadCount(userId, 4, 2, Instant.now())));
+        when(broadcastInbox.unreadCount(userId)).thenReturn(1L);
+
+        assertEquals(7, counter.getUnreadCount(userId));
+        assertEquals(7, counter.getUnreadCount(userId));
+
+        verify(countRepository, times(1)).findById(userId);
+        verify(countRepository, never()).reconcile(any());
+    }
+
+    @Test
+    @DisplayName("A recorded vacancy event is counted for the wishlisters it reached and drops their cached badges")
+    void recordVacancyEvent_CountsForWishlisters() {
+        UUID propertyId = UUID.randomUUID();
+        Instant createdAt = Instant.now();
+        when(countRepository.findById(userId)).thenReturn(Optional.empty());
+        when(countRepository.addVacancyEvent(eq(propertyId), eq(createdAt), any(Instant.class))).thenReturn(List.of(userId));
+        counter.getUnreadCount(userId);
+
+        counter.recordVacancyEvent(propertyId, createdAt);
+
+        counter.getUnreadCount(userId);
+        verify(countRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Reading vacancy events subtracts them from the event count")
+    void recordEventsRead_SubtractsEvents() {
+        counter.recordEventsRead(userId, 2);
+        counter.recordEventsRead(userId, 0);
+
+        verify(countRepository, times(1)).subtractReadEvents(eq(userId), eq(2L), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Inserts add one per notification to each recipient's counter and drop their cached badge")
+    void recordInserted_AddsDeltas() {
+        UUID other = UUID.randomUUID();
+        when(countRepository.findById(any())).thenReturn(Optional.empty());
+        counter.getUnreadCount(userId);
+
+        counter.recordInserted(List.of(userId, other, userId));
+
+        verify(countBatchRepository).addDeltas(eq(Map.of(userId, 2L, other, 1L)), any(Instant.class));
+        counter.getUnreadCount(userId);
+        verify(countRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Marking read subtracts from the counter")
+    void recordRead_SubtractsDelta() {
+        counter.recordRead(userId, 3);
+
+        verify(countBatchRepository).addDeltas(eq(Map.of(userId, -3L)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Reconciliation creates missing counters, then recounts every page of counters")
+    void reconcile_WalksAllPages() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(countRepository.insertMissing()).thenReturn(1);
+        when(countRepository.insertMissingForVacancyEvents()).thenReturn(0);
+        when(countRepository.lockPageAfter(new UUID(0L, 0L), 2)).thenReturn(List.of(first, second));
+        when(countRepository.lockPageAfter(second, 2)).thenReturn(List.of(third));
+        when(countRepository.reconcile(List.of(first, second))).thenReturn(1);
+        when(countRepository.reconcile(List.of(third))).thenReturn(0);
+
+        counter.reconcile();
+
+        verify(countRepository).reconcile(List.of(first, second));
+        verify(countRepository).reconcile(List.of(third));
+        verify(countRepository, never()).lockPageAfter(eq(third), anyInt());
+    }
+}
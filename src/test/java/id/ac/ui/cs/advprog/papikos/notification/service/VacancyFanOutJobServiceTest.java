@@ -0,0 +1,249 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.dto.FanOutSummary;
+import id.ac.ui.cs.advprog.papikos.notification.dto.VacancyFanOutJobDto;
+import id.ac.ui.cs.advprog.papikos.notification.dto.VacancyUpdateNotification;
+import id.ac.ui.cs.advprog.papikos.notification.exception.BadRequestException;
+import id.ac.ui.cs.advprog.papikos.notification.model.FanOutJobState;
+import id.ac.ui.cs.advprog.papikos.notification.model.VacancyFanOutJob;
+import id.ac.ui.cs.advprog.papikos.notification.repository.VacancyFanOutJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VacancyFanOutJobServiceTest {
+
+    @Mock
+    private VacancyFanOutJobRepository jobRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PropertyWishlistCounter propertyWishlistCounter;
+
+    @Mock
+    private ExecutorService vacancyFanOutExecutor;
+
+    private VacancyFanOutJobService jobService;
+    private UUID jobId;
+    private UUID propertyId;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new VacancyFanOutJobService(jobRepository, notificationService, propertyWishlistCounter,
+                vacancyFanOutExecutor, 60_000, 20, 0);
+        jobId = UUID.randomUUID();
+        propertyId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Submitting persists a queued job and hands it to the executor without running the fan-out")
+    void submit_QueuesJob() {
+        when(propertyWishlistCounter.getCount(propertyId)).thenReturn(1200L);
+        when(jobRepository.save(any(VacancyFanOutJob.class))).thenAnswer(invocation -> {
+            VacancyFanOutJob job = invocation.getArgument(0);
+            job.setJobId(jobId);
+            return job;
+        });
+
+        VacancyFanOutJobDto dto = jobService.submit(new VacancyUpdateNotification("Vacancy", "Room at %s", propertyId), null);
+
+        assertEquals(jobId, dto.getJobId());
+        assertEquals(FanOutJobState.QUEUED, dto.getState());
+        assertEquals(1200L, dto.getTotalCount());
+        verify(vacancyFanOutExecutor).execute(any(Runnable.class));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("A full executor leaves the job queued for the resume sweep")
+    void submit_ExecutorFull() {
+        when(jobRepository.save(any(VacancyFanOutJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new RejectedExecutionException("full")).when(vacancyFanOutExecutor).execute(any(Runnable.class));
+
+        VacancyFanOutJobDto dto = jobService.submit(new VacancyUpdateNotification("Vacancy", null, propertyId), null);
+
+        assertEquals(FanOutJobState.QUEUED, dto.getState());
+    }
+
+    @Test
+    @DisplayName("Submitting without a property is rejected")
+    void submit_MissingProperty() {
+        assertThrows(BadRequestException.class,
+                () -> jobService.submit(new VacancyUpdateNotification("Vacancy", null, null), null));
+        verifyNoInteractions(jobRepository, vacancyFanOutExecutor);
+    }
+
+    @Test
+    @DisplayName("A resumed job continues after its checkpoint and records progress per chunk")
+    void run_ResumesFromCheckpoint() {
+        UUID checkpoint = UUID.randomUUID();
+        UUID lastRecipient = UUID.randomUUID();
+        VacancyFanOutJob job = job(checkpoint);
+        when(jobRepository.claim(eq(jobId), eq(FanOutJobState.QUEUED), eq(FanOutJobState.RUNNING), any(), any())).thenReturn(1);
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        when(notificationService.notifyWishlistUsersOnVacancy(eq(jobId), any(), eq(checkpoint), any())).thenAnswer(invocation -> {
+            NotificationFanOut.ChunkListener onChunk = invocation.getArgument(3);
+            onChunk.onChunk(List.of(UUID.randomUUID(), lastRecipient));
+            return new FanOutSummary(propertyId, 2, 1, 5);
+        });
+
+        jobService.run(jobId);
+
+        ArgumentCaptor<VacancyUpdateNotification> request = ArgumentCaptor.forClass(VacancyUpdateNotification.class);
+        verify(notificationService).notifyWishlistUsersOnVacancy(eq(jobId), request.capture(), eq(checkpoint), any());
+        assertEquals(propertyId, request.getValue().getRelatedPropertyId());
+        verify(jobRepository).recordProgress(eq(jobId), eq(2L), eq(lastRecipient), any(Instant.class));
+        verify(jobRepository).markCompleted(eq(jobId), eq(FanOutJobState.COMPLETED), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("A job owned by another worker is not run twice")
+    void run_AlreadyClaimed() {
+        when(jobRepository.claim(eq(jobId), any(), any(), any(), any())).thenReturn(0);
+
+        jobService.run(jobId);
+
+        verifyNoInteractions(notificationService);
+        verify(jobRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("A failing fan-out marks the job failed with the error")
+    void run_Failure() {
+        when(jobRepository.claim(eq(jobId), any(), any(), any(), any())).thenReturn(1);
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(job(null)));
+        when(notificationService.notifyWishlistUsersOnVacancy(eq(jobId), any(), isNull(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        jobService.run(jobId);
+
+        verify(jobRepository).markFailed(eq(jobId), eq(FanOutJobState.FAILED), eq("database unavailable"), any(Instant.class));
+        verify(jobRepository, never()).markCompleted(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("The resume sweep dispatches running jobs abandoned by a stopped node")
+    void resumeIdleJobs_Dispatches() {
+        when(jobRepository.findIdleJobIds(eq(List.of(FanOutJobState.RUNNING)), any(), any()))
+                .thenReturn(List.of(jobId, UUID.randomUUID()));
+
+        jobService.resumeIdleJobs();
+
+        verify(vacancyFanOutExecutor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("An update inside the coalescing window replaces the pending job's message instead of queuing another")
+    void submit_CoalescesIntoPendingJob() {
+        jobService = coalescingJobService();
+        VacancyFanOutJob pending = job(null);
+        pending.setState(FanOutJobState.QUEUED);
+        pending.setMessage("Two rooms left at %s");
+        pending.setCoalescedCount(1);
+        when(jobRepository.coalesceInto(eq(propertyId), eq("Vacancy"), eq("Two rooms left at %s"), isNull(),
+                eq(FanOutJobState.QUEUED), any(Instant.class))).thenReturn(1);
+        when(jobRepository.findFirstByPropertyIdAndStateOrderByScheduledAtDesc(propertyId, FanOutJobState.QUEUED))
+                .thenReturn(Optional.of(pending));
+
+        VacancyFanOutJobDto dto = jobService.submit(new VacancyUpdateNotification("Vacancy", "Two rooms left at %s", propertyId), null);
+
+        assertEquals(jobId, dto.getJobId());
+        assertEquals(1, dto.getCoalescedCount());
+        verify(jobRepository, never()).save(any());
+        verifyNoInteractions(vacancyFanOutExecutor);
+    }
+
+    @Test
+    @DisplayName("The first update for a property is dispatched at once instead of waiting out the window")
+    void submit_FirstUpdateDispatchedImmediately() {
+        jobService = coalescingJobService();
+        when(jobRepository.coalesceInto(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(jobRepository.findFirstByPropertyIdOrderByScheduledAtDesc(propertyId)).thenReturn(Optional.empty());
+        when(jobRepository.save(any(VacancyFanOutJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Instant after = Instant.now().plusSeconds(1);
+
+        VacancyFanOutJobDto dto = jobService.submit(new VacancyUpdateNotification("Vacancy", null, propertyId), null);
+
+        assertEquals(FanOutJobState.QUEUED, dto.getState());
+        assertTrue(dto.getScheduledAt().isBefore(after));
+        verify(vacancyFanOutExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("An update following a recent job is scheduled for the end of that job's window, not dispatched")
+    void submit_SchedulesAfterRecentJob() {
+        jobService = coalescingJobService();
+        VacancyFanOutJob recent = job(null);
+        recent.setScheduledAt(Instant.now().minusSeconds(30));
+        when(jobRepository.coalesceInto(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(jobRepository.findFirstByPropertyIdOrderByScheduledAtDesc(propertyId)).thenReturn(Optional.of(recent));
+        when(jobRepository.save(any(VacancyFanOutJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        VacancyFanOutJobDto dto = jobService.submit(new VacancyUpdateNotification("Vacancy", null, propertyId), null);
+
+        assertEquals(FanOutJobState.QUEUED, dto.getState());
+        assertEquals(recent.getScheduledAt().plusMillis(120_000), dto.getScheduledAt());
+        verifyNoInteractions(vacancyFanOutExecutor);
+    }
+
+    @Test
+    @DisplayName("Submits for a property take its lock before looking for a pending job, so concurrent ones cannot both queue")
+    void submit_LocksPropertyFirst() {
+        jobService = coalescingJobService();
+        when(jobRepository.coalesceInto(any(), any(), any(), any(), any(), any())).thenReturn(0);
+        when(jobRepository.findFirstByPropertyIdOrderByScheduledAtDesc(propertyId)).thenReturn(Optional.empty());
+        when(jobRepository.save(any(VacancyFanOutJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        jobService.submit(new VacancyUpdateNotification("Vacancy", null, propertyId), null);
+
+        InOrder inOrder = inOrder(jobRepository);
+        inOrder.verify(jobRepository).lockProperty(propertyId);
+        inOrder.verify(jobRepository).coalesceInto(eq(propertyId), any(), any(), any(), any(), any());
+        inOrder.verify(jobRepository).save(any(VacancyFanOutJob.class));
+    }
+
+    @Test
+    @DisplayName("Due jobs are dispatched once even when the sweep sees them again before they run")
+    void dispatchDueJobs_DispatchesOnce() {
+        when(jobRepository.findDueJobIds(eq(FanOutJobState.QUEUED), any(), any())).thenReturn(List.of(jobId));
+
+        jobService.dispatchDueJobs();
+        jobService.dispatchDueJobs();
+
+        verify(vacancyFanOutExecutor, times(1)).execute(any(Runnable.class));
+    }
+
+    private VacancyFanOutJobService coalescingJobService() {
+        return new VacancyFanOutJobService(jobRepository, notificationService, propertyWishlistCounter,
+                vacancyFanOutExecutor, 60_000, 20, 120_000);
+    }
+
+    private VacancyFanOutJob job(UUID lastRecipientUserId) {
+        VacancyFanOutJob job = new VacancyFanOutJob();
+        job.setJobId(jobId);
+        job.setPropertyId(propertyId);
+        job.setTitle("Vacancy");
+        job.setState(FanOutJobState.RUNNING);
+        job.setLastRecipientUserId(lastRecipientUserId);
+        return job;
+    }
+}
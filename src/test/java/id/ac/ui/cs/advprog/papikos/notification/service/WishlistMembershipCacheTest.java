@@ -0,0 +1,115 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.config.RabbitMQConfig;
+import id.ac.ui.cs.advprog.papikos.notification.dto.WishlistChangedEvent;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WishlistMembershipCacheTest {
+
+    @Mock
+    private WishlistItemRepository wishlistItemRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    private WishlistMembershipCache membershipCache;
+    private UUID tenantUserId;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = new WishlistMembershipCache(wishlistItemRepository, rabbitTemplate, new SimpleMeterRegistry(), 100, 600_000);
+        tenantUserId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Membership is answered from one ID-only query per tenant")
+    void contains_LoadsOnce() {
+        UUID wishlisted = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        when(wishlistItemRepository.findPropertyIdsByTenantUserId(tenantUserId)).thenReturn(List.of(wishlisted));
+
+        Map<UUID, Boolean> first = membershipCache.contains(tenantUserId, List.of(wishlisted, other));
+        Map<UUID, Boolean> second = membershipCache.contains(tenantUserId, List.of(other, wishlisted));
+
+        assertEquals(Map.of(wishlisted, true, other, false), first);
+        assertEquals(List.of(other, wishlisted), new ArrayList<>(second.keySet()));
+        verify(wishlistItemRepository, times(1)).findPropertyIdsByTenantUserId(tenantUserId);
+    }
+
+    @Test
+    @DisplayName("Invalidation reloads the tenant's set on the next check")
+    void invalidate_Reloads() {
+        UUID propertyId = UUID.randomUUID();
+        when(wishlistItemRepository.findPropertyIdsByTenantUserId(tenantUserId)).thenReturn(List.of(), List.of(propertyId));
+        assertFalse(membershipCache.contains(tenantUserId, List.of(propertyId)).get(propertyId));
+
+        membershipCache.invalidate(tenantUserId);
+
+        assertTrue(membershipCache.contains(tenantUserId, List.of(propertyId)).get(propertyId));
+        verify(rabbitTemplate).convertAndSend(RabbitMQConfig.TOPIC_EXCHANGE_NAME,
+                RabbitMQConfig.ROUTING_KEY_WISHLIST_CHANGED, new WishlistChangedEvent(tenantUserId));
+    }
+
+    @Test
+    @DisplayName("A change published by another node reloads the tenant's set without publishing again")
+    void onWishlistChanged_Reloads() {
+        UUID propertyId = UUID.randomUUID();
+        when(wishlistItemRepository.findPropertyIdsByTenantUserId(tenantUserId)).thenReturn(List.of(), List.of(propertyId));
+        assertFalse(membershipCache.contains(tenantUserId, List.of(propertyId)).get(propertyId));
+
+        membershipCache.onWishlistChanged(new WishlistChangedEvent(tenantUserId));
+
+        assertTrue(membershipCache.contains(tenantUserId, List.of(propertyId)).get(propertyId));
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    @DisplayName("A failed publish still drops the local set")
+    void invalidate_PublishFailureIsLocal() {
+        UUID propertyId = UUID.randomUUID();
+        when(wishlistItemRepository.findPropertyIdsByTenantUserId(tenantUserId)).thenReturn(List.of(), List.of(propertyId));
+        doThrow(new AmqpConnectException(new RuntimeException("down")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+        membershipCache.contains(tenantUserId, List.of(propertyId));
+
+        assertDoesNotThrow(() -> membershipCache.invalidate(tenantUserId));
+
+        assertTrue(membershipCache.contains(tenantUserId, List.of(propertyId)).get(propertyId));
+    }
+
+    @Test
+    @DisplayName("The compact set finds every member, including IDs with the sign bit set")
+    void propertyIdSet_MatchesUuidOrdering() {
+        List<UUID> members = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            members.add(UUID.randomUUID());
+        }
+        members.add(new UUID(Long.MIN_VALUE, Long.MIN_VALUE));
+        members.add(new UUID(-1L, -1L));
+        WishlistMembershipCache.PropertyIdSet set = WishlistMembershipCache.PropertyIdSet.of(members);
+
+        members.forEach(id -> assertTrue(set.contains(id), id.toString()));
+        for (int i = 0; i < 500; i++) {
+            assertFalse(set.contains(UUID.randomUUID()));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package id.ac.ui.cs.advprog.papikos.notification.service;
+
+import id.ac.ui.cs.advprog.papikos.notification.client.ApiResponseWrapper;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsCache;
+import id.ac.ui.cs.advprog.papikos.notification.client.KosDetailsDto;
+import id.ac.ui.cs.advprog.papikos.notification.repository.WishlistItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WishlistSnapshotRefresherTest {
+
+    @Mock
+    private WishlistItemRepository wishlistItemRepository;
+
+    @Mock
+    private KosDetailsCache kosDetailsCache;
+
+    private ExecutorService executor;
+    private WishlistSnapshotRefresher refresher;
+    private UUID propertyId;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        refresher = new WishlistSnapshotRefresher(wishlistItemRepository, kosDetailsCache, executor);
+        propertyId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("An edited property's snapshot is rewritten from freshly loaded details")
+    void refreshNow_StoresEditedDetails() {
+        KosDetailsDto kos = new KosDetailsDto();
+        kos.setId(propertyId);
+        kos.setName("Kos Melati Baru");
+        kos.setAddress("Jl. Melati 2");
+        kos.setMonthlyRentPrice(BigDecimal.valueOf(1750000));
+        when(kosDetailsCache.reload(propertyId)).thenReturn(response(HttpStatus.OK, kos));
+
+        refresher.refreshNow(propertyId);
+
+        verify(wishlistItemRepository, timeout(1_000)).updatePropertySnapshot(eq(propertyId), eq("Kos Melati Baru"),
+                eq("Jl. Melati 2"), eq(BigDecimal.valueOf(1750000)), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("A property the Kos service no longer has is tombstoned instead of keeping its old snapshot")
+    void refreshAsync_NotFoundTombstones() {
+        when(kosDetailsCache.loadMany(List.of(propertyId))).thenReturn(Map.of(propertyId, response(HttpStatus.NOT_FOUND, null)));
+
+        refresher.refreshAsync(List.of(propertyId));
+
+        verify(wishlistItemRepository, timeout(1_000)).clearPropertySnapshot(eq(propertyId), any(Instant.class));
+        verify(wishlistItemRepository, never()).updatePropertySnapshot(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("A transient Kos failure keeps the existing snapshot")
+    void refreshAsync_FailureKeepsSnapshot() {
+        when(kosDetailsCache.loadMany(List.of(propertyId)))
+                .thenReturn(Map.of(propertyId, response(HttpStatus.SERVICE_UNAVAILABLE, null)));
+
+        refresher.refreshAsync(List.of(propertyId));
+
+        verify(wishlistItemRepository, after(300).never()).clearPropertySnapshot(any(), any());
+        verify(wishlistItemRepository, never()).updatePropertySnapshot(any(), any(), any(), any(), any());
+    }
+
+    private static CompletableFuture<ApiResponseWrapper<KosDetailsDto>> response(HttpStatus status, KosDetailsDto data) {
+        return CompletableFuture.completedFuture(ApiResponseWrapper.of(status.value(), status.getReasonPhrase(), data));
+    }
+}